@@ -40,4 +40,22 @@ public interface AuthDAO {
      * @throws DataAccessException if the clear operation fails
      */
     void clearAll() throws DataAccessException;
+
+    /**
+     * Forgets what this process holds in memory about a token another server logged out of the shared
+     * store. Stores that keep nothing in memory need not override this.
+     *
+     * @param authToken the logged-out token
+     */
+    default void revokedElsewhere(String authToken) {
+    }
+
+    /**
+     * Forgets what this process holds in memory about tokens issued before another server cleared the
+     * shared store. Stores that keep nothing in memory need not override this.
+     *
+     * @param clearedAtMillis when the store was cleared, in epoch milliseconds
+     */
+    default void clearedElsewhere(long clearedAtMillis) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+package dataAccess;
+
+import model.AuthData;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read-through cache in front of another AuthDAO.
+ * Valid tokens are kept for a bounded time so request authentication is a map lookup, and unknown
+ * tokens are remembered briefly so repeated bad tokens do not reach the backing store either.
+ * Deleting a token or clearing the store invalidates the cache immediately, and so does the same
+ * change made by another server, once it reports it through {@link #revokedElsewhere(String)} or
+ * {@link #clearedElsewhere(long)}.
+ */
+public class CachingAuthDAO implements AuthDAO {
+    /** Default number of valid tokens kept in memory. */
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    /** Default lifetime of a cached valid token. */
+    public static final long DEFAULT_TTL_MS = TimeUnit.MINUTES.toMillis(5);
+    /** Default lifetime of a cached unknown token. */
+    public static final long DEFAULT_NEGATIVE_TTL_MS = TimeUnit.SECONDS.toMillis(5);
+
+    /** The AuthDAO holding the authoritative tokens. */
+    private final AuthDAO delegate;
+    /** Tokens known to be valid, with their expiry. */
+    private final Map<String, CachedAuth> tokens = new ConcurrentHashMap<>();
+    /** Tokens known to be invalid, mapped to their expiry in nanoseconds. */
+    private final Map<String, Long> unknownTokens = new ConcurrentHashMap<>();
+    /** Bumped before every invalidation so a lookup racing with a delete cannot re-cache the token. */
+    private final AtomicLong invalidations = new AtomicLong();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    /**
+     * Constructs a cache with the default size and lifetimes.
+     *
+     * @param delegate the AuthDAO to cache
+     */
+    public CachingAuthDAO(AuthDAO delegate) {
+        this(delegate, DEFAULT_MAX_SIZE, DEFAULT_TTL_MS, DEFAULT_NEGATIVE_TTL_MS);
+    }
+
+    /**
+     * Constructs a cache with the given size and lifetimes.
+     *
+     * @param delegate      the AuthDAO to cache
+     * @param maxSize       the most valid tokens to keep; unknown tokens are capped at a quarter of this
+     * @param ttlMillis     how long a valid token is served from memory
+     * @param negativeTtlMs how long an unknown token is rejected from memory
+     */
+    public CachingAuthDAO(AuthDAO delegate, int maxSize, long ttlMillis, long negativeTtlMs) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMs);
+    }
+
+    /**
+     * Creates a token in the backing store and caches it.
+     *
+     * @param username the username to associate with the new authentication token
+     * @return the created AuthData object
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public AuthData createAuthToken(String username) throws DataAccessException {
+        AuthData authData = delegate.createAuthToken(username);
+        if (authData != null) {
+            unknownTokens.remove(authData.authToken());
+            cache(authData);
+        }
+        return authData;
+    }
+
+    /**
+     * Returns the cached AuthData for a token, loading it from the backing store on a miss.
+     *
+     * @param authToken the authentication token to look up
+     * @return the AuthData for the token
+     * @throws DataAccessException with "unauthorized" if the token is null or unknown, or if the backing store fails
+     */
+    @Override
+    public AuthData getAuthToken(String authToken) throws DataAccessException {
+        if (authToken == null) {
+            throw new DataAccessException("unauthorized");
+        }
+        long now = System.nanoTime();
+        CachedAuth cached = tokens.get(authToken);
+        if (cached != null) {
+            if (now - cached.expiresAt < 0) {
+                return cached.authData;
+            }
+            tokens.remove(authToken, cached);
+        }
+        Long unknownUntil = unknownTokens.get(authToken);
+        if (unknownUntil != null) {
+            if (now - unknownUntil < 0) {
+                throw new DataAccessException("unauthorized");
+            }
+            unknownTokens.remove(authToken, unknownUntil);
+        }
+
+        long generation = invalidations.get();
+        AuthData authData;
+        try {
+            authData = delegate.getAuthToken(authToken);
+        } catch (DataAccessException e) {
+            if ("unauthorized".equalsIgnoreCase(e.getMessage())) {
+                rememberUnknown(authToken, generation);
+            }
+            throw e;
+        }
+        if (authData == null) {
+            rememberUnknown(authToken, generation);
+            throw new DataAccessException("unauthorized");
+        }
+        CachedAuth entry = cache(authData);
+        // Checked after the put: a delete or clear bumps the count before it removes, so either we see
+        // the bump here or its removal comes after our put
+        if (invalidations.get() != generation) {
+            tokens.remove(authToken, entry);
+        }
+        return authData;
+    }
+
+    /**
+     * Deletes a token from the backing store and drops it from the cache.
+     *
+     * @param authToken the authentication token to remove
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public void deleteAuthToken(String authToken) throws DataAccessException {
+        try {
+            delegate.deleteAuthToken(authToken);
+        } finally {
+            forget(authToken);
+        }
+    }
+
+    @Override
+    public void revokedElsewhere(String authToken) {
+        forget(authToken);
+        delegate.revokedElsewhere(authToken);
+    }
+
+    /**
+     * Clears the backing store and the cache.
+     *
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public void clearAll() throws DataAccessException {
+        try {
+            delegate.clearAll();
+        } finally {
+            forgetAll();
+        }
+    }
+
+    @Override
+    public void clearedElsewhere(long clearedAtMillis) {
+        forgetAll();
+        delegate.clearedElsewhere(clearedAtMillis);
+    }
+
+    private void forget(String authToken) {
+        if (authToken != null) {
+            invalidations.incrementAndGet();
+            tokens.remove(authToken);
+        }
+    }
+
+    /**
+     * Empties the cache after the backing store was cleared some other way, such as by
+     * {@link DatabaseManager#clearDatabase()}.
+     */
+    void forgetAll() {
+        invalidations.incrementAndGet();
+        tokens.clear();
+        unknownTokens.clear();
+    }
+
+    private CachedAuth cache(AuthData authData) {
+        evictIfFull(tokens, maxSize, entry -> entry.expiresAt);
+        CachedAuth entry = new CachedAuth(authData, System.nanoTime() + ttlNanos);
+        tokens.put(authData.authToken(), entry);
+        return entry;
+    }
+
+    private void rememberUnknown(String authToken, long generation) {
+        evictIfFull(unknownTokens, Math.max(1, maxSize / 4), expiresAt -> expiresAt);
+        Long expiresAt = System.nanoTime() + negativeTtlNanos;
+        unknownTokens.put(authToken, expiresAt);
+        if (invalidations.get() != generation) {
+            unknownTokens.remove(authToken, expiresAt);
+        }
+    }
+
+    /**
+     * Makes room for more entries once the map is full: drops expired entries, then arbitrary ones until
+     * an eighth of the capacity is free, so the scan runs at most once per that many inserts.
+     */
+    private static <V> void evictIfFull(Map<String, V> map, int capacity, ToLongFunction<V> expiry) {
+        if (map.size() < capacity) {
+            return;
+        }
+        int target = capacity - Math.max(1, capacity / 8);
+        long now = System.nanoTime();
+        map.values().removeIf(value -> now - expiry.applyAsLong(value) >= 0);
+        Iterator<String> keys = map.keySet().iterator();
+        while (map.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /** A valid token and the time it stops being served from memory. */
+    private record CachedAuth(AuthData authData, long expiresAt) {}
+}
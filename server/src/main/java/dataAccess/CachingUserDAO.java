@@ -0,0 +1,255 @@
+package dataAccess;
+
+import model.UserData;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache in front of another UserDAO.
+ * A bloom filter of every registered username, loaded at construction and kept current on insert,
+ * lets registration of a new name skip the duplicate check, since {@link #mightExist(String)} can
+ * answer "certainly free" from memory. Duplicates that slip past it are still caught by the store's
+ * own unique key in {@link #createUser(UserData)}. Recently used users are kept in a bounded LRU so
+ * repeated logins do not reach the store.
+ * <p>
+ * The filter only knows the names this process registered or loaded. A name registered through
+ * another server shows up as "certainly free" here, which is safe because the insert still fails on it.
+ */
+public class CachingUserDAO implements UserDAO {
+    /** Default number of users kept in memory. */
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    /** Smallest number of usernames the filter is sized for. */
+    private static final int MIN_FILTER_CAPACITY = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    /** The UserDAO holding the authoritative users. */
+    private final UserDAO delegate;
+    private final int maxSize;
+    /** Most recently used last; guarded by {@link #lock}. */
+    private final LinkedHashMap<String, UserData> users;
+    /** Guards {@link #users}. */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Held while the filter is rebuilt from the store, apart from {@link #lock} so lookups continue. */
+    private final ReentrantLock rebuilding = new ReentrantLock();
+    private volatile BloomFilter usernames;
+    /** Names the current filter was sized for, and how many it holds. */
+    private volatile int filterCapacity;
+    private final AtomicInteger filterCount = new AtomicInteger();
+    /**
+     * Bumped before every invalidation so a lookup racing with an update or clear cannot re-cache the
+     * old user; checked under {@link #lock}, which the invalidation then waits for before removing.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Constructs a cache with the default size, loading every username from the store.
+     *
+     * @param delegate the UserDAO to cache
+     * @throws DataAccessException if the usernames cannot be loaded
+     */
+    public CachingUserDAO(UserDAO delegate) throws DataAccessException {
+        this(delegate, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructs a cache of the given size, loading every username from the store.
+     *
+     * @param delegate the UserDAO to cache
+     * @param maxSize  the most users to keep
+     * @throws DataAccessException if the usernames cannot be loaded
+     */
+    public CachingUserDAO(UserDAO delegate, int maxSize) throws DataAccessException {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserData> eldest) {
+                return size() > CachingUserDAO.this.maxSize;
+            }
+        };
+        rebuildFilter();
+    }
+
+    /**
+     * Inserts a user in the backing store, then records the name and caches the user.
+     *
+     * @param user the userData object containing user information
+     * @throws DataAccessException with "already taken" if the store already has the username
+     */
+    @Override
+    public void createUser(UserData user) throws DataAccessException {
+        delegate.createUser(user);
+        addToFilter(user.username());
+        cache(user);
+    }
+
+    /**
+     * Returns the cached user, loading it from the backing store on a miss.
+     *
+     * @param username the username to look up
+     * @return the user, or null if not found
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public UserData getUser(String username) throws DataAccessException {
+        if (username == null) {
+            throw new DataAccessException("bad request");
+        }
+        lock.lock();
+        try {
+            UserData cached = users.get(username);
+            if (cached != null) {
+                return cached;
+            }
+        } finally {
+            lock.unlock();
+        }
+        long generation = invalidations.get();
+        UserData user = delegate.getUser(username);
+        if (user != null) {
+            cacheUnlessInvalidated(user, generation);
+        }
+        return user;
+    }
+
+    /**
+     * Answers from the bloom filter, with no store access.
+     *
+     * @param username the username to check
+     * @return false if no user by that name was loaded or registered here
+     */
+    @Override
+    public boolean mightExist(String username) {
+        return usernames.mightContain(username);
+    }
+
+    @Override
+    public void forEachUsername(Consumer<String> action) throws DataAccessException {
+        delegate.forEachUsername(action);
+    }
+
+    /**
+     * Updates the password in the backing store and drops the cached copy.
+     *
+     * @param username the user to update
+     * @param password the new stored password
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public void updatePassword(String username, String password) throws DataAccessException {
+        try {
+            delegate.updatePassword(username, password);
+        } finally {
+            invalidations.incrementAndGet();
+            lock.lock();
+            try {
+                users.remove(username);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Clears the backing store, the cache, and the filter.
+     *
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public void clear() throws DataAccessException {
+        try {
+            delegate.clear();
+        } finally {
+            forgetAll();
+        }
+    }
+
+    /**
+     * Empties the cache and the filter after the backing store was cleared some other way, such as
+     * by {@link DatabaseManager#clearDatabase()}.
+     */
+    void forgetAll() {
+        invalidations.incrementAndGet();
+        lock.lock();
+        try {
+            users.clear();
+        } finally {
+            lock.unlock();
+        }
+        rebuilding.lock();
+        try {
+            resetFilter(List.of());
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    private void cache(UserData user) {
+        lock.lock();
+        try {
+            users.put(user.username(), user);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches a user read from the store, unless an invalidation has begun since the read started.
+     * The check and the put happen under the lock, so an invalidation that begins after the check
+     * removes the entry once the lock is free.
+     */
+    private void cacheUnlessInvalidated(UserData user, long generation) {
+        lock.lock();
+        try {
+            if (invalidations.get() == generation) {
+                users.put(user.username(), user);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a new name, rebuilding the filter from the store once it holds more names than it was
+     * sized for, so its false-positive rate stays near the one it was built with. A name added to the
+     * old filter during a rebuild may be missed by the new one; a duplicate of it is then caught by the insert.
+     */
+    private void addToFilter(String username) throws DataAccessException {
+        usernames.add(username);
+        if (filterCount.incrementAndGet() > filterCapacity) {
+            rebuilding.lock();
+            try {
+                if (filterCount.get() > filterCapacity) {
+                    rebuildFilter();
+                }
+            } finally {
+                rebuilding.unlock();
+            }
+        }
+    }
+
+    private void rebuildFilter() throws DataAccessException {
+        List<String> names = new ArrayList<>();
+        delegate.forEachUsername(names::add);
+        resetFilter(names);
+    }
+
+    /**
+     * Replaces the filter with one holding the given names and room for as many again.
+     */
+    private void resetFilter(List<String> names) {
+        int capacity = Math.max(MIN_FILTER_CAPACITY, names.size() * 2);
+        BloomFilter filter = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        names.forEach(filter::add);
+        filterCapacity = capacity;
+        filterCount.set(names.size());
+        usernames = filter;
+    }
+}
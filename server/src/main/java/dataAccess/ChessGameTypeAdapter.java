@@ -15,6 +15,7 @@ public class ChessGameTypeAdapter extends TypeAdapter<ChessGame> {
     public void write(JsonWriter out, ChessGame game) throws IOException {
         out.beginObject();
         out.name("teamTurn").value(game.getTeamTurn().toString());
+        out.name("gameOver").value(game.isGameOver());
         out.name("board");
         new ChessBoardTypeAdapter().write(out, game.getBoard());
         out.endObject();
@@ -28,6 +29,8 @@ public class ChessGameTypeAdapter extends TypeAdapter<ChessGame> {
             String name = in.nextName();
             if (name.equals("teamTurn")) {
                 game.setTeamTurn(ChessGame.TeamColor.valueOf(in.nextString()));
+            } else if (name.equals("gameOver")) {
+                game.setGameOver(in.nextBoolean());
             } else if (name.equals("board")) {
                 game.setBoard(new ChessBoardTypeAdapter().read(in));
             } else {
@@ -0,0 +1,242 @@
+package dataAccess;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free container used by the connection pool to hand out pooled entries.
+ * Borrowing first checks the entries this thread returned most recently, then scans the
+ * shared list, and finally waits on a direct handoff from a thread that is returning an entry.
+ *
+ * @param <T> the type of entry stored in the bag
+ */
+class ConcurrentBag<T extends ConcurrentBag.Entry> {
+    /** Maximum number of recently returned entries remembered per thread. */
+    private static final int THREAD_LIST_LIMIT = 16;
+
+    /**
+     * State contract for entries kept in the bag.
+     */
+    interface Entry {
+        int STATE_NOT_IN_USE = 0;
+        int STATE_IN_USE = 1;
+        int STATE_REMOVED = -1;
+        int STATE_RESERVED = -2;
+
+        boolean compareAndSet(int expectState, int newState);
+
+        void setState(int newState);
+
+        int getState();
+    }
+
+    /**
+     * Callback used to ask the owner for a new entry when borrowers are waiting.
+     */
+    interface Listener {
+        /**
+         * Requests that a new entry be added to the bag.
+         *
+         * @param waiting the number of threads currently waiting for an entry
+         */
+        void addBagItem(int waiting);
+    }
+
+    /** Every entry owned by the bag, regardless of state. */
+    private final CopyOnWriteArrayList<T> sharedList = new CopyOnWriteArrayList<>();
+    /** Entries this thread returned most recently, checked first on the next borrow. */
+    private final ThreadLocal<List<WeakReference<T>>> threadList = ThreadLocal.withInitial(ArrayList::new);
+    /** Direct handoff from returning threads to waiting borrowers. */
+    private final SynchronousQueue<T> handoffQueue = new SynchronousQueue<>(true);
+    /** Number of threads currently inside {@link #borrow}. */
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final Listener listener;
+    private volatile boolean closed;
+
+    /**
+     * Constructs an empty bag.
+     *
+     * @param listener the owner notified when a borrower needs a new entry
+     */
+    ConcurrentBag(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Borrows an entry from the bag, waiting up to the given timeout for one to become available.
+     *
+     * @param timeout how long to wait
+     * @param unit    the unit of the timeout
+     * @return an entry now marked in use, or null if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    T borrow(long timeout, TimeUnit unit) throws InterruptedException {
+        List<WeakReference<T>> list = threadList.get();
+        for (int i = list.size() - 1; i >= 0; i--) {
+            T entry = list.remove(i).get();
+            if (entry != null && entry.compareAndSet(Entry.STATE_NOT_IN_USE, Entry.STATE_IN_USE)) {
+                return entry;
+            }
+        }
+
+        int waiting = waiters.incrementAndGet();
+        try {
+            for (T entry : sharedList) {
+                if (entry.compareAndSet(Entry.STATE_NOT_IN_USE, Entry.STATE_IN_USE)) {
+                    // We may have stolen an entry another waiter was signalled for, so ask for a replacement
+                    if (waiting > 1) {
+                        listener.addBagItem(waiting - 1);
+                    }
+                    return entry;
+                }
+            }
+
+            listener.addBagItem(waiting);
+
+            long remaining = unit.toNanos(timeout);
+            do {
+                long start = System.nanoTime();
+                T entry = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (entry == null || entry.compareAndSet(Entry.STATE_NOT_IN_USE, Entry.STATE_IN_USE)) {
+                    return entry;
+                }
+                remaining -= System.nanoTime() - start;
+            } while (remaining > 10_000 && !closed);
+
+            return null;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns a borrowed entry to the bag, handing it directly to a waiting borrower if there is one.
+     *
+     * @param entry the entry to return
+     */
+    void requite(T entry) {
+        entry.setState(Entry.STATE_NOT_IN_USE);
+
+        for (int i = 0; waiters.get() > 0; i++) {
+            if (entry.getState() != Entry.STATE_NOT_IN_USE || handoffQueue.offer(entry)) {
+                return;
+            } else if ((i & 0xff) == 0xff) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+            } else {
+                Thread.yield();
+            }
+        }
+
+        List<WeakReference<T>> list = threadList.get();
+        if (list.size() < THREAD_LIST_LIMIT) {
+            list.add(new WeakReference<>(entry));
+        }
+    }
+
+    /**
+     * Adds a new entry to the bag and offers it to any waiting borrower.
+     *
+     * @param entry the entry to add, in the not-in-use state
+     */
+    void add(T entry) {
+        if (closed) {
+            throw new IllegalStateException("ConcurrentBag has been closed");
+        }
+        sharedList.add(entry);
+
+        while (waiters.get() > 0 && entry.getState() == Entry.STATE_NOT_IN_USE && !handoffQueue.offer(entry)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Removes an entry that is either borrowed or reserved.
+     *
+     * @param entry the entry to remove
+     * @return true if the entry was removed
+     */
+    boolean remove(T entry) {
+        if (!entry.compareAndSet(Entry.STATE_IN_USE, Entry.STATE_REMOVED)
+                && !entry.compareAndSet(Entry.STATE_RESERVED, Entry.STATE_REMOVED)
+                && !closed) {
+            return false;
+        }
+        return sharedList.remove(entry);
+    }
+
+    /**
+     * Marks an idle entry as reserved so it cannot be borrowed, for example while it is being retired.
+     *
+     * @param entry the entry to reserve
+     * @return true if the entry was idle and is now reserved
+     */
+    boolean reserve(T entry) {
+        return entry.compareAndSet(Entry.STATE_NOT_IN_USE, Entry.STATE_RESERVED);
+    }
+
+    /**
+     * Releases a reservation made by {@link #reserve}, making the entry available again.
+     *
+     * @param entry the reserved entry
+     */
+    void unreserve(T entry) {
+        if (entry.compareAndSet(Entry.STATE_RESERVED, Entry.STATE_NOT_IN_USE)) {
+            while (waiters.get() > 0 && !handoffQueue.offer(entry)) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the entries currently in the given state.
+     *
+     * @param state the state to filter on
+     * @return the matching entries
+     */
+    List<T> values(int state) {
+        List<T> result = new ArrayList<>();
+        for (T entry : sharedList) {
+            if (entry.getState() == state) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a snapshot of every entry in the bag.
+     *
+     * @return all entries
+     */
+    List<T> values() {
+        return new ArrayList<>(sharedList);
+    }
+
+    int getCount(int state) {
+        int count = 0;
+        for (T entry : sharedList) {
+            if (entry.getState() == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    int size() {
+        return sharedList.size();
+    }
+
+    int getWaitingThreadCount() {
+        return waiters.get();
+    }
+
+    void close() {
+        closed = true;
+    }
+}
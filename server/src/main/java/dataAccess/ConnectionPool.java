@@ -0,0 +1,496 @@
+package dataAccess;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Bounded JDBC connection pool used by {@link DatabaseManager}.
+ * Connections are handed out through a {@link ConcurrentBag}, validated on borrow when they have been
+ * idle for a while, retired once they pass the idle timeout, and optionally watched for leaks.
+ * Closing a borrowed connection returns it to the pool instead of closing the physical connection,
+ * and each physical connection keeps a {@link StatementCache} of the statements prepared on it.
+ */
+public class ConnectionPool implements DataSource, ConcurrentBag.Listener, AutoCloseable {
+    private static final logging.Logger LOG = logging.Logger.get(ConnectionPool.class);
+    /** Connections used more recently than this are handed out without a liveness check. */
+    private static final long ALIVE_BYPASS_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    /** How often idle connections are retired and the pool is topped up to its minimum. */
+    private static final long HOUSEKEEPING_PERIOD_MS = 30_000;
+    /** Pools not yet closed, so monitoring can find the primary, replica, and shard pools. */
+    private static final Set<ConnectionPool> OPEN = ConcurrentHashMap.newKeySet();
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final PoolConfig config;
+    private final ConcurrentBag<PoolEntry> bag;
+    /** Physical connections open or being opened; never exceeds the maximum pool size. */
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ThreadPoolExecutor addConnectionExecutor;
+    private final ScheduledExecutorService houseKeeper;
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private volatile SQLException lastCreateFailure;
+    private volatile boolean closed;
+    private PrintWriter logWriter;
+    private int loginTimeout;
+
+    /**
+     * Constructs a pool for the given database and starts filling it to its minimum idle size.
+     *
+     * @param url                  the JDBC URL of the database
+     * @param connectionProperties driver properties, including the user and password
+     * @param config               the pool sizing and timeout settings
+     */
+    public ConnectionPool(String url, Properties connectionProperties, PoolConfig config) {
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.config = config;
+        this.bag = new ConcurrentBag<>(this);
+        this.addConnectionExecutor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(config.maximumPoolSize()), daemonThreads("chess-pool-adder"),
+                new ThreadPoolExecutor.DiscardPolicy());
+        this.addConnectionExecutor.allowCoreThreadTimeOut(true);
+        this.houseKeeper = Executors.newSingleThreadScheduledExecutor(daemonThreads("chess-pool-housekeeper"));
+        this.houseKeeper.scheduleWithFixedDelay(this::houseKeep, HOUSEKEEPING_PERIOD_MS, HOUSEKEEPING_PERIOD_MS,
+                TimeUnit.MILLISECONDS);
+        fillPool();
+        OPEN.add(this);
+    }
+
+    /**
+     * Returns every pool that has not been closed.
+     *
+     * @return the open pools
+     */
+    public static Collection<ConnectionPool> openPools() {
+        return List.copyOf(OPEN);
+    }
+
+    /**
+     * Returns the database this pool connects to, without any query parameters.
+     *
+     * @return the JDBC URL up to any {@code ?}
+     */
+    public String database() {
+        int query = url.indexOf('?');
+        return query < 0 ? url : url.substring(0, query);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the configured connection timeout.
+     *
+     * @return a pooled connection; closing it returns it to the pool
+     * @throws SQLException if no connection became available in time or the pool is closed
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been closed");
+        }
+        long start = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.connectionTimeoutMs());
+        long remaining = timeoutNanos;
+        try {
+            do {
+                PoolEntry entry = bag.borrow(remaining, TimeUnit.NANOSECONDS);
+                if (entry == null) {
+                    break;
+                }
+                long now = System.nanoTime();
+                long idleNanos = now - entry.lastAccessed;
+                if (entry.evicted || idleNanos > TimeUnit.MILLISECONDS.toNanos(config.idleTimeoutMs())
+                        || (idleNanos > ALIVE_BYPASS_WINDOW_NANOS && !isAlive(entry.connection))) {
+                    closeEntry(entry);
+                    remaining = timeoutNanos - (System.nanoTime() - start);
+                    continue;
+                }
+                recordWait(now - start);
+                return entry.createProxy();
+            } while (remaining > 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        throw new SQLTransientConnectionException("Connection is not available, request timed out after "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms " + stats(), lastCreateFailure);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use the configured credentials");
+    }
+
+    /**
+     * Requests a new physical connection when borrowers are waiting and the pool has room.
+     *
+     * @param waiting the number of threads currently waiting for a connection
+     */
+    @Override
+    public void addBagItem(int waiting) {
+        if (waiting - addConnectionExecutor.getQueue().size() >= 0) {
+            addConnectionExecutor.execute(this::addConnection);
+        }
+    }
+
+    /**
+     * Returns a snapshot of current pool usage and borrow wait times.
+     *
+     * @return the pool statistics
+     */
+    public PoolStats stats() {
+        return new PoolStats(
+                bag.getCount(ConcurrentBag.Entry.STATE_IN_USE),
+                bag.getCount(ConcurrentBag.Entry.STATE_NOT_IN_USE),
+                bag.size(),
+                bag.getWaitingThreadCount(),
+                borrowCount.sum(),
+                totalWaitNanos.sum(),
+                maxWaitNanos.get()
+        );
+    }
+
+    /**
+     * Closes every idle connection and stops the pool's background threads.
+     * Connections still borrowed are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        OPEN.remove(this);
+        bag.close();
+        addConnectionExecutor.shutdownNow();
+        houseKeeper.shutdownNow();
+        for (PoolEntry entry : bag.values()) {
+            if (bag.reserve(entry)) {
+                closeEntry(entry);
+            } else {
+                entry.evicted = true;
+            }
+        }
+    }
+
+    private void addConnection() {
+        if (closed || !(bag.getWaitingThreadCount() > 0 || idleCount() < config.minimumIdle()) || !reserveSlot()) {
+            return;
+        }
+        try {
+            Connection connection = DriverManager.getConnection(url, connectionProperties);
+            connection.setAutoCommit(true);
+            lastCreateFailure = null;
+            bag.add(new PoolEntry(connection));
+        } catch (SQLException e) {
+            totalConnections.decrementAndGet();
+            lastCreateFailure = e;
+        } catch (IllegalStateException e) {
+            totalConnections.decrementAndGet();
+        }
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = totalConnections.get();
+            if (current >= config.maximumPoolSize()) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private int idleCount() {
+        return bag.getCount(ConcurrentBag.Entry.STATE_NOT_IN_USE);
+    }
+
+    private void fillPool() {
+        int missing = config.minimumIdle() - idleCount();
+        for (int i = 0; i < missing && totalConnections.get() < config.maximumPoolSize(); i++) {
+            addConnectionExecutor.execute(this::addConnection);
+        }
+    }
+
+    private void houseKeep() {
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.idleTimeoutMs());
+        List<PoolEntry> idle = bag.values(ConcurrentBag.Entry.STATE_NOT_IN_USE);
+        int removable = idle.size() - config.minimumIdle();
+        for (PoolEntry entry : idle) {
+            if (removable <= 0) {
+                break;
+            }
+            if (System.nanoTime() - entry.lastAccessed > idleTimeoutNanos && bag.reserve(entry)) {
+                closeEntry(entry);
+                removable--;
+            }
+        }
+        fillPool();
+    }
+
+    private void closeEntry(PoolEntry entry) {
+        if (entry.leakTask != null) {
+            entry.leakTask.cancel(false);
+        }
+        if (bag.remove(entry)) {
+            totalConnections.decrementAndGet();
+            try {
+                entry.connection.close();
+            } catch (SQLException ignored) {
+                // The connection is being discarded either way
+            }
+        }
+        if (!closed && bag.getWaitingThreadCount() > 0) {
+            addBagItem(bag.getWaitingThreadCount());
+        }
+    }
+
+    private boolean isAlive(Connection connection) {
+        try {
+            int timeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(config.validationTimeoutMs()));
+            return connection.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static boolean isFatal(SQLException e) {
+        String sqlState = e.getSQLState();
+        return sqlState != null && sqlState.startsWith("08");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("ConnectionPool does not use java.util.logging");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ConnectionPool is not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * A physical connection owned by the pool together with its bag state.
+     */
+    private final class PoolEntry implements ConcurrentBag.Entry {
+        private final Connection connection;
+        private final StatementCache statementCache;
+        private final AtomicInteger state = new AtomicInteger(STATE_NOT_IN_USE);
+        private volatile long lastAccessed = System.nanoTime();
+        private volatile boolean evicted;
+        private volatile ScheduledFuture<?> leakTask;
+
+        private PoolEntry(Connection connection) {
+            this.connection = connection;
+            this.statementCache = new StatementCache(connection, config.statementCacheSize());
+        }
+
+        @Override
+        public boolean compareAndSet(int expectState, int newState) {
+            return state.compareAndSet(expectState, newState);
+        }
+
+        @Override
+        public void setState(int newState) {
+            state.set(newState);
+        }
+
+        @Override
+        public int getState() {
+            return state.get();
+        }
+
+        private Connection createProxy() {
+            long threshold = config.leakDetectionThresholdMs();
+            if (threshold > 0) {
+                Exception borrowSite = new Exception("Apparent connection leak detected");
+                leakTask = houseKeeper.schedule(() -> {
+                    StringBuilder stack = new StringBuilder();
+                    for (StackTraceElement frame : borrowSite.getStackTrace()) {
+                        stack.append(stack.isEmpty() ? "" : " < ").append(frame);
+                    }
+                    LOG.warn(borrowSite.getMessage(), "heldMs", threshold, "borrowedAt", stack.toString());
+                }, threshold, TimeUnit.MILLISECONDS);
+            }
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new ConnectionHandler(this));
+        }
+
+        private void release() {
+            if (leakTask != null) {
+                leakTask.cancel(false);
+                leakTask = null;
+            }
+            statementCache.releaseAll();
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                evicted = true;
+            }
+            lastAccessed = System.nanoTime();
+            if (evicted || closed) {
+                closeEntry(this);
+            } else {
+                bag.requite(this);
+            }
+        }
+    }
+
+    /**
+     * Handler behind the {@link Connection} handed to callers. It forwards calls to the physical
+     * connection, serves {@code prepareStatement} from the statement cache, tracks other statements
+     * so they are closed with the connection, and returns the connection to the pool on {@code close()}.
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final PoolEntry entry;
+        private final List<Statement> openStatements = new ArrayList<>();
+        private volatile boolean closed;
+
+        private ConnectionHandler(PoolEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "Pooled" + entry.connection;
+                };
+            }
+            switch (method.getName()) {
+                case "close" -> {
+                    close();
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed;
+                }
+                default -> {
+                    // Fall through to the physical connection
+                }
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+            try {
+                if (isCacheablePrepare(method)) {
+                    int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                    return entry.statementCache.prepare((String) args[0], autoGeneratedKeys);
+                }
+                Object result = method.invoke(entry.connection, args);
+                if (result instanceof Statement statement) {
+                    openStatements.add(statement);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw evictIfFatal(e.getCause());
+            } catch (SQLException e) {
+                throw evictIfFatal(e);
+            }
+        }
+
+        private static boolean isCacheablePrepare(Method method) {
+            Class<?>[] params = method.getParameterTypes();
+            return method.getName().equals("prepareStatement") && params[0] == String.class
+                    && (params.length == 1 || (params.length == 2 && params[1] == int.class));
+        }
+
+        private Throwable evictIfFatal(Throwable cause) {
+            if (cause instanceof SQLException sqlException && isFatal(sqlException)) {
+                entry.evicted = true;
+            }
+            return cause;
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Statement statement : openStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    // Statements are best-effort cleanup; the connection itself is still returned
+                }
+            }
+            openStatements.clear();
+            entry.release();
+        }
+    }
+}
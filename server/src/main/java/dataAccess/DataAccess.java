@@ -1,8 +1,53 @@
 package dataAccess;
 
+/**
+ * The three stores a server runs on, cleared together.
+ */
 public interface DataAccess {
     UserDAO getUserDAO();
     GameDAO getGameDAO();
     AuthDAO getAuthDAO();
+
+    /**
+     * Empties every store once, as fast as the backend allows: in-memory stores swap in empty maps
+     * and MySQL stores truncate their tables, rather than deleting row by row.
+     *
+     * @throws DataAccessException if a store cannot be cleared
+     */
     void clear() throws DataAccessException;
+
+    /**
+     * Groups existing stores.
+     *
+     * @param userDAO the user store
+     * @param authDAO the auth token store
+     * @param gameDAO the game store
+     * @return a DataAccess over them whose {@link #clear()} clears each one once
+     */
+    static DataAccess of(UserDAO userDAO, AuthDAO authDAO, GameDAO gameDAO) {
+        return new DataAccess() {
+            @Override
+            public UserDAO getUserDAO() {
+                return userDAO;
+            }
+
+            @Override
+            public GameDAO getGameDAO() {
+                return gameDAO;
+            }
+
+            @Override
+            public AuthDAO getAuthDAO() {
+                return authDAO;
+            }
+
+            @Override
+            public void clear() throws DataAccessException {
+                // Tokens first, then games, then the users both refer to
+                authDAO.clearAll();
+                gameDAO.clear();
+                userDAO.clear();
+            }
+        };
+    }
 }
\ No newline at end of file
@@ -1,24 +1,42 @@
 package dataAccess;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+
+import logging.Logger;
 
 public class DatabaseManager {
+    private static final Logger LOG = Logger.get(DatabaseManager.class);
+    /** A failing replica fails every read routed to it, so only a sample of those is logged. */
+    private static final Logger REPLICA_LOG = LOG.sampled(100);
     private static String DATABASE_URL;
     private static String DATABASE_USERNAME;
     private static String DATABASE_PASSWORD;
-    private static boolean initialized = false;
+    private static PoolConfig POOL_CONFIG;
+    private static Properties DRIVER_PROPERTIES = new Properties();
+    private static Properties PROPERTIES = new Properties();
+    private static volatile ConnectionPool pool;
+    /** Read replicas of the primary; empty when every query goes to the primary. */
+    private static volatile List<ConnectionPool> replicas = List.of();
+    private static final AtomicInteger nextReplica = new AtomicInteger();
+    private static volatile boolean initialized = false;
 
     static {
         try {
             loadProperties();
         } catch (Exception e) {
-            System.err.println("Failed to load properties during static initialization: " + e.getMessage());
+            LOG.error("Failed to load properties during static initialization", "error", e.getMessage());
             throw new RuntimeException("Static initialization failed", e);
         }
     }
@@ -29,10 +47,12 @@ public class DatabaseManager {
                 if (!initialized) {
                     try {
                         createDatabase();
+                        pool = new ConnectionPool(DATABASE_URL, connectionProperties(), POOL_CONFIG);
+                        replicas = openReplicas(PROPERTIES);
                         initialized = true;
-                        System.out.println("DatabaseManager initialized successfully");
+                        LOG.info("DatabaseManager initialized", "replicas", replicas.size());
                     } catch (Exception e) {
-                        System.err.println("Failed to initialize database: " + e.getMessage());
+                        LOG.error("Failed to initialize database", "error", e.getMessage());
                         throw new RuntimeException("Database initialization failed", e);
                     }
                 }
@@ -47,16 +67,14 @@ public class DatabaseManager {
             }
             Properties prop = new Properties();
             prop.load(input);
-            System.out.println("Loaded properties: " + prop);
             setDatabaseProperties(prop);
         } catch (Exception e) {
-            System.err.println("Error loading properties: " + e.getMessage());
+            LOG.error("Error loading properties", "error", e.getMessage());
             throw new RuntimeException("Failed to load properties: " + e.getMessage(), e);
         }
     }
 
     public void loadProperties(Properties props) {
-        System.out.println("Loading test properties: " + props);
         if (props == null || props.isEmpty()) {
             throw new RuntimeException("Missing required properties in provided Properties object");
         }
@@ -68,18 +86,18 @@ public class DatabaseManager {
             setDatabasePropertiesFromTest(props);
             createDatabase();
         } catch (Exception e) {
-            System.err.println("Error applying test properties: " + e.getMessage());
+            LOG.error("Error applying test properties", "error", e.getMessage());
             throw new RuntimeException("Failed to create database tables: " + e.getMessage(), e);
         } finally {
             DATABASE_URL = originalUrl;
             DATABASE_USERNAME = originalUsername;
             DATABASE_PASSWORD = originalPassword;
-            System.out.println("Restored original properties: URL=" + DATABASE_URL);
+            LOG.debug("Restored original properties", "url", DATABASE_URL);
         }
     }
 
     public void loadPropertiesFromResources() {
-        System.out.println("Loading properties from resources (cleanup)");
+        LOG.debug("Loading properties from resources (cleanup)");
         loadProperties();
     }
 
@@ -87,7 +105,11 @@ public class DatabaseManager {
         DATABASE_URL = prop.getProperty("database.url");
         DATABASE_USERNAME = prop.getProperty("database.username", "");
         DATABASE_PASSWORD = prop.getProperty("database.password", "");
-        System.out.println("Set database properties: URL=" + DATABASE_URL + ", Username=" + DATABASE_USERNAME);
+        POOL_CONFIG = PoolConfig.from(prop);
+        PROPERTIES = prop;
+        DRIVER_PROPERTIES = driverProperties(prop);
+        ReadYourWrites.setWindow(Long.parseLong(prop.getProperty("database.readYourWritesMs", "2000")));
+        LOG.info("Set database properties", "url", DATABASE_URL, "username", DATABASE_USERNAME);
 
         if (DATABASE_URL == null || DATABASE_URL.trim().isEmpty()) {
             throw new RuntimeException("Missing required properties in provided Properties object");
@@ -100,7 +122,7 @@ public class DatabaseManager {
         String dbPassword = prop.getProperty("db.password");
         String dbHost = prop.getProperty("db.host");
         String dbPort = prop.getProperty("db.port");
-        System.out.println("Set test database properties: dbName=" + dbName + ", dbUser=" + dbUser + ", dbHost=" + dbHost + ", dbPort=" + dbPort);
+        LOG.info("Set test database properties", "dbName", dbName, "dbUser", dbUser, "dbHost", dbHost, "dbPort", dbPort);
 
         if (dbName == null || dbUser == null || dbPassword == null || dbHost == null || dbPort == null) {
             throw new RuntimeException("Missing required properties in provided Properties object");
@@ -111,221 +133,305 @@ public class DatabaseManager {
         DATABASE_PASSWORD = dbPassword;
     }
 
+    /**
+     * Builds the Connector/J settings every pooled connection is opened with. Statements are prepared
+     * on the server and cached by the driver, so the DAOs' fixed SQL is parsed and planned once per
+     * connection. Any {@code jdbc.*} key in db.properties overrides the matching default.
+     */
+    private static Properties driverProperties(Properties prop) {
+        Properties driver = new Properties();
+        driver.setProperty("useServerPrepStmts", "true");
+        driver.setProperty("cachePrepStmts", "true");
+        driver.setProperty("prepStmtCacheSize", "250");
+        driver.setProperty("prepStmtCacheSqlLimit", "2048");
+        driver.setProperty("useLocalSessionState", "true");
+        driver.setProperty("cacheServerConfiguration", "true");
+        driver.setProperty("elideSetAutoCommits", "true");
+        for (String key : prop.stringPropertyNames()) {
+            if (key.startsWith("jdbc.")) {
+                driver.setProperty(key.substring("jdbc.".length()), prop.getProperty(key));
+            }
+        }
+        return driver;
+    }
+
+    private static Properties connectionProperties() {
+        Properties props = new Properties();
+        props.putAll(DRIVER_PROPERTIES);
+        props.setProperty("user", DATABASE_USERNAME);
+        props.setProperty("password", DATABASE_PASSWORD);
+        return props;
+    }
+
     public static Connection getConnection() throws DataAccessException {
         initialize();
         try {
-            Connection conn = DriverManager.getConnection(DATABASE_URL, DATABASE_USERNAME, DATABASE_PASSWORD);
-            conn.setAutoCommit(true);
-            System.out.println("Database connection established: " + DATABASE_URL);
-            return conn;
+            return pool.getConnection();
         } catch (SQLException e) {
-            System.err.println("Failed to establish connection: " + e.getMessage());
+            LOG.error("Failed to establish connection", "error", e.getMessage());
             throw new DataAccessException("Unable to get connection: " + e.getMessage());
         }
     }
 
-    private static void createDatabase() {
-        String[] createStatements = {
-                """
-                CREATE TABLE IF NOT EXISTS users (
-                    username VARCHAR(255) NOT NULL,
-                    password VARCHAR(255) NOT NULL,
-                    email VARCHAR(255),
-                    PRIMARY KEY (username)
-                )
-            """,
-                """
-                CREATE TABLE IF NOT EXISTS games (
-                    gameID INT NOT NULL AUTO_INCREMENT,
-                    whiteUsername VARCHAR(255),
-                    blackUsername VARCHAR(255),
-                    gameName VARCHAR(255) NOT NULL,
-                    game TEXT NOT NULL,
-                    PRIMARY KEY (gameID)
-                )
-            """,
-                """
-                CREATE TABLE IF NOT EXISTS authTokens (
-                    authToken VARCHAR(255) NOT NULL,
-                    username VARCHAR(255) NOT NULL,
-                    PRIMARY KEY (authToken)
-                )
-            """
-        };
-        try (Connection conn = DriverManager.getConnection(DATABASE_URL, DATABASE_USERNAME, DATABASE_PASSWORD)) {
-            conn.setAutoCommit(true);
-            String dbName = DATABASE_URL.substring(DATABASE_URL.lastIndexOf("/") + 1);
-            System.out.println("Checking if database '" + dbName + "' is accessible");
-            try (ResultSet rs = conn.getMetaData().getCatalogs()) {
-                boolean dbExists = false;
-                while (rs.next()) {
-                    if (rs.getString(1).equals(dbName)) {
-                        dbExists = true;
-                        break;
-                    }
-                }
-                System.out.println("Database '" + dbName + "' exists: " + dbExists);
+    /**
+     * Borrows a connection for a read. Reads are spread over the read replicas, except those that must
+     * see a recent write by the same row or user, which go to the primary; see {@link ReadYourWrites}.
+     * A replica that cannot hand out a connection is skipped in favour of the primary.
+     *
+     * @param key the row read, or null for reads spanning many rows
+     * @return a pooled connection; close it to return it
+     * @throws DataAccessException if no connection is available
+     */
+    public static Connection getReadConnection(String key) throws DataAccessException {
+        initialize();
+        List<ConnectionPool> current = replicas;
+        if (current.isEmpty() || ReadYourWrites.mustReadPrimary(key)) {
+            return getConnection();
+        }
+        ConnectionPool replica = current.get(Math.floorMod(nextReplica.getAndIncrement(), current.size()));
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            REPLICA_LOG.warn("Read replica unavailable, using the primary", "error", e.getMessage());
+            return getConnection();
+        }
+    }
+
+    /**
+     * Returns a copy of the settings loaded from db.properties, for components configured alongside the database.
+     */
+    public static Properties getProperties() {
+        Properties copy = new Properties();
+        copy.putAll(PROPERTIES);
+        return copy;
+    }
+
+    public static DataSource getDataSource() {
+        initialize();
+        return pool;
+    }
+
+    public static PoolStats getPoolStats() {
+        initialize();
+        return pool.stats();
+    }
+
+    public static void shutdown() {
+        synchronized (DatabaseManager.class) {
+            if (pool != null) {
+                pool.close();
+                pool = null;
             }
+            replicas.forEach(ConnectionPool::close);
+            replicas = List.of();
+            initialized = false;
+        }
+    }
 
-            for (String stmt : createStatements) {
-                try (PreparedStatement ps = conn.prepareStatement(stmt)) {
-                    ps.executeUpdate();
-                    String tableName = stmt.contains("users") ? "users" : stmt.contains("games") ? "games" : "authTokens";
-                    System.out.println("Executed table creation for: " + tableName);
+    /**
+     * Opens a pool to another database configured alongside the primary, such as a game shard, with the
+     * same driver and pool settings, migrating its chess tables to the current schema first.
+     */
+    static ConnectionPool openPool(String url, String username, String password) {
+        createTables(url, username, password);
+        return newPool(url, username, password);
+    }
+
+    /**
+     * Opens the read replicas listed in db.properties. Their tables come from replication, so
+     * unlike {@link #openPool} nothing is created on them; replicas are usually read-only anyway.
+     * <pre>
+     * database.replicas=2
+     * database.replica.0.url=jdbc:mysql://replica0:3306/chess
+     * database.replica.0.username=...    # defaults to database.username
+     * database.replica.0.password=...    # defaults to database.password
+     * database.readYourWritesMs=2000     # how long a write keeps its reads on the primary
+     * </pre>
+     */
+    private static List<ConnectionPool> openReplicas(Properties prop) {
+        int count = Integer.parseInt(prop.getProperty("database.replicas", "0"));
+        List<ConnectionPool> opened = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                String url = prop.getProperty("database.replica." + i + ".url");
+                if (url == null || url.isBlank()) {
+                    throw new RuntimeException("Missing database.replica." + i + ".url");
                 }
+                opened.add(newPool(url,
+                        prop.getProperty("database.replica." + i + ".username", DATABASE_USERNAME),
+                        prop.getProperty("database.replica." + i + ".password", DATABASE_PASSWORD)));
             }
-        } catch (SQLException e) {
-            System.err.println("Failed to create database tables: " + e.getMessage());
-            throw new RuntimeException("Failed to create database tables: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            opened.forEach(ConnectionPool::close);
+            throw e;
         }
+        if (!opened.isEmpty()) {
+            LOG.info("Routing reads over read replicas", "replicas", opened.size());
+        }
+        return List.copyOf(opened);
+    }
+
+    private static ConnectionPool newPool(String url, String username, String password) {
+        Properties props = new Properties();
+        props.putAll(DRIVER_PROPERTIES);
+        props.setProperty("user", username);
+        props.setProperty("password", password);
+        return new ConnectionPool(url, props, POOL_CONFIG);
+    }
+
+    private static void createDatabase() {
+        createTables(DATABASE_URL, DATABASE_USERNAME, DATABASE_PASSWORD);
+    }
+
+    /**
+     * Brings a database's tables up to the current schema; on an up-to-date database this only reads
+     * the schema version. See {@link SchemaMigrator}.
+     */
+    private static void createTables(String url, String username, String password) {
+        SchemaMigrator.migrate(url, username, password);
     }
 
+    /**
+     * Empties the chess tables on one connection, tokens first, then games, then the users both refer
+     * to. TRUNCATE takes the same time however many rows there are and writes no per-row binlog events;
+     * being DDL, each one commits on its own. Games on shards are left to {@link MySQLGameDAO#clear()}.
+     *
+     * @throws DataAccessException if a table cannot be truncated
+     */
     public static void clearDatabase() throws DataAccessException {
         initialize();
-        String[] clearStatements = {
-                "DELETE FROM authTokens",
-                "DELETE FROM games",
-                "DELETE FROM users"
-        };
-        try (Connection conn = getConnection()) {
-            for (String stmt : clearStatements) {
-                try (PreparedStatement ps = conn.prepareStatement(stmt)) {
-                    int rowsAffected = ps.executeUpdate();
-                    System.out.println("Cleared " + rowsAffected + " rows from " + stmt.substring(12));
-                }
+        String[] tables = {"authTokens", "games", "users"};
+        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
+            for (String table : tables) {
+                stmt.addBatch("TRUNCATE TABLE " + table);
             }
+            stmt.executeBatch();
+            LOG.debug("Truncated tables", "tables", String.join(",", tables));
         } catch (SQLException e) {
-            System.err.println("Failed to clear database: " + e.getMessage());
+            LOG.error("Failed to clear database", "error", e.getMessage());
             throw new DataAccessException("Failed to clear database: " + e.getMessage());
         }
     }
 
     public static void createUser(String username, String password, String email) throws DataAccessException {
         initialize();
-        System.out.println("Attempting to create user: " + username);
+        LOG.debug("Creating user", "username", username);
         String sql = "INSERT INTO users (username, password, email) VALUES (?, ?, ?)";
         try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, username);
             ps.setString(2, password);
             ps.setString(3, email);
             int rowsAffected = ps.executeUpdate();
-            System.out.println("Rows affected (createUser): " + rowsAffected);
+            LOG.debug("Rows affected", "op", "createUser", "rows", rowsAffected);
             if (rowsAffected == 0) {
                 throw new DataAccessException("No rows inserted for user: " + username);
             }
         } catch (SQLException e) {
-            System.err.println("Error in createUser: " + e.getMessage());
+            LOG.error("Query failed", "op", "createUser", "error", e.getMessage());
             throw new DataAccessException("Failed to create user: " + e.getMessage());
         }
     }
 
     public static boolean userExists(String username) throws DataAccessException {
         initialize();
-        System.out.println("Checking if user exists: " + username);
         String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
         try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, username);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     boolean exists = rs.getInt(1) > 0;
-                    System.out.println("userExists check for " + username + ": " + exists);
+                    LOG.debug("Checked user exists", "username", username, "exists", exists);
                     return exists;
                 }
-                System.out.println("userExists check for " + username + ": no rows returned");
                 return false;
             }
         } catch (SQLException e) {
-            System.err.println("Error in userExists: " + e.getMessage());
+            LOG.error("Query failed", "op", "userExists", "error", e.getMessage());
             throw new DataAccessException("Failed to check user existence: " + e.getMessage());
         }
     }
 
     public static int createGame(String gameName, String gameData) throws DataAccessException {
         initialize();
-        System.out.println("Attempting to create game: " + gameName);
+        LOG.debug("Creating game", "gameName", gameName);
         String sql = "INSERT INTO games (gameName, game) VALUES (?, ?)";
         try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, gameName);
             ps.setString(2, gameData);
             int rowsAffected = ps.executeUpdate();
-            System.out.println("Rows affected (createGame): " + rowsAffected);
+            LOG.debug("Rows affected", "op", "createGame", "rows", rowsAffected);
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
                     int gameID = rs.getInt(1);
-                    System.out.println("Generated gameID: " + gameID);
+                    LOG.debug("Generated gameID", "gameID", gameID);
                     return gameID;
                 }
                 throw new DataAccessException("Failed to retrieve generated gameID");
             }
         } catch (SQLException e) {
-            System.err.println("Error in createGame: " + e.getMessage());
+            LOG.error("Query failed", "op", "createGame", "error", e.getMessage());
             throw new DataAccessException("Failed to create game: " + e.getMessage());
         }
     }
 
     public static boolean gameExists(int gameID) throws DataAccessException {
         initialize();
-        System.out.println("Checking if game exists: gameID=" + gameID);
         String sql = "SELECT COUNT(*) FROM games WHERE gameID = ?";
         try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, gameID);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     boolean exists = rs.getInt(1) > 0;
-                    System.out.println("gameExists check for gameID " + gameID + ": " + exists);
+                    LOG.debug("Checked game exists", "gameID", gameID, "exists", exists);
                     return exists;
                 }
-                System.out.println("gameExists check for gameID " + gameID + ": no rows returned");
                 return false;
             }
         } catch (SQLException e) {
-            System.err.println("Error in gameExists: " + e.getMessage());
+            LOG.error("Query failed", "op", "gameExists", "error", e.getMessage());
             throw new DataAccessException("Failed to check game existence: " + e.getMessage());
         }
     }
 
     public static void createAuthToken(String authToken, String username) throws DataAccessException {
         initialize();
-        System.out.println("Attempting to create authToken for user: " + username);
+        LOG.debug("Creating auth token", "username", username);
         String sql = "INSERT INTO authTokens (authToken, username) VALUES (?, ?)";
         try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, authToken);
             ps.setString(2, username);
             int rowsAffected = ps.executeUpdate();
-            System.out.println("Rows affected (createAuthToken): " + rowsAffected);
+            LOG.debug("Rows affected", "op", "createAuthToken", "rows", rowsAffected);
             if (rowsAffected == 0) {
-                throw new DataAccessException("No rows inserted for authToken: " + authToken);
+                throw new DataAccessException("No rows inserted for auth token of user: " + username);
             }
         } catch (SQLException e) {
-            System.err.println("Error in createAuthToken: " + e.getMessage());
+            LOG.error("Query failed", "op", "createAuthToken", "error", e.getMessage());
             throw new DataAccessException("Failed to create auth token: " + e.getMessage());
         }
     }
 
     public static boolean authTokenExists(String authToken) throws DataAccessException {
         initialize();
-        System.out.println("Checking if authToken exists: " + authToken);
         String sql = "SELECT COUNT(*) FROM authTokens WHERE authToken = ?";
         try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, authToken);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     boolean exists = rs.getInt(1) > 0;
-                    System.out.println("authTokenExists check for " + authToken + ": " + exists);
+                    LOG.debug("Checked auth token exists", "exists", exists);
                     return exists;
                 }
-                System.out.println("authTokenExists check for " + authToken + ": no rows returned");
                 return false;
             }
         } catch (SQLException e) {
-            System.err.println("Error in authTokenExists: " + e.getMessage());
+            LOG.error("Query failed", "op", "authTokenExists", "error", e.getMessage());
             throw new DataAccessException("Failed to check auth token existence: " + e.getMessage());
         }
     }
 
     public static void updateGame(int gameId, String whiteUsername, String blackUsername, String gameData) throws DataAccessException {
         initialize();
-        System.out.println("Attempting to update game: gameID=" + gameId);
         String sql = "UPDATE games SET whiteUsername = ?, blackUsername = ?, game = ? WHERE gameID = ?";
         try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, whiteUsername);
@@ -333,81 +439,75 @@ public class DatabaseManager {
             ps.setString(3, gameData);
             ps.setInt(4, gameId);
             int rowsAffected = ps.executeUpdate();
-            System.out.println("Rows affected (updateGame): " + rowsAffected);
+            LOG.debug("Rows affected", "op", "updateGame", "gameID", gameId, "rows", rowsAffected);
         } catch (SQLException e) {
-            System.err.println("Error in updateGame: " + e.getMessage());
+            LOG.error("Query failed", "op", "updateGame", "error", e.getMessage());
             throw new DataAccessException("Failed to update game: " + e.getMessage());
         }
     }
 
     public static String getUserPassword(String username) throws DataAccessException {
         initialize();
-        System.out.println("Retrieving password for user: " + username);
         String sql = "SELECT password FROM users WHERE username = ?";
         try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, username);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     String password = rs.getString("password");
-                    System.out.println("Password retrieved for " + username + ": " + (password != null));
+                    LOG.debug("Retrieved password", "username", username, "present", password != null);
                     return password;
                 }
-                System.out.println("No password found for " + username);
                 return null;
             }
         } catch (SQLException e) {
-            System.err.println("Error in getUserPassword: " + e.getMessage());
+            LOG.error("Query failed", "op", "getUserPassword", "error", e.getMessage());
             throw new DataAccessException("Failed to get user password: " + e.getMessage());
         }
     }
 
     public static String getUsernameFromAuthToken(String authToken) throws DataAccessException {
         initialize();
-        System.out.println("Retrieving username for authToken: " + authToken);
         String sql = "SELECT username FROM authTokens WHERE authToken = ?";
         try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, authToken);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     String username = rs.getString("username");
-                    System.out.println("Username retrieved for authToken " + authToken + ": " + username);
                     return username;
                 }
-                System.out.println("No username found for authToken " + authToken);
                 return null;
             }
         } catch (SQLException e) {
-            System.err.println("Error in getUsernameFromAuthToken: " + e.getMessage());
+            LOG.error("Query failed", "op", "getUsernameFromAuthToken", "error", e.getMessage());
             throw new DataAccessException("Failed to get username from auth token: " + e.getMessage());
         }
     }
 
     public static ResultSet getAllGames() throws DataAccessException {
         initialize();
-        System.out.println("Retrieving all games");
         String sql = "SELECT * FROM games";
-        try {
-            Connection conn = getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery();
-            System.out.println("Games retrieved successfully");
-            return rs;
+        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            // Detach the rows from the pooled connection so it can be returned
+            CachedRowSet games = RowSetProvider.newFactory().createCachedRowSet();
+            games.populate(rs);
+            LOG.debug("Retrieved all games", "rows", games.size());
+            return games;
         } catch (SQLException e) {
-            System.err.println("Error in getAllGames: " + e.getMessage());
+            LOG.error("Query failed", "op", "getAllGames", "error", e.getMessage());
             throw new DataAccessException("Failed to get all games: " + e.getMessage());
         }
     }
 
     public static void deleteAuthToken(String authToken) throws DataAccessException {
         initialize();
-        System.out.println("Attempting to delete authToken: " + authToken);
         String sql = "DELETE FROM authTokens WHERE authToken = ?";
         try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, authToken);
             int rowsAffected = ps.executeUpdate();
-            System.out.println("Rows affected (deleteAuthToken): " + rowsAffected);
+            LOG.debug("Rows affected", "op", "deleteAuthToken", "rows", rowsAffected);
         } catch (SQLException e) {
-            System.err.println("Error in deleteAuthToken: " + e.getMessage());
+            LOG.error("Query failed", "op", "deleteAuthToken", "error", e.getMessage());
             throw new DataAccessException("Failed to delete auth token: " + e.getMessage());
         }
     }
@@ -1,5 +1,6 @@
 package dataAccess;
 
+import chess.ChessGame;
 import model.GameData;
 import java.util.Collection;
 
@@ -39,6 +40,62 @@ public interface GameDAO {
      */
     void updateGame(GameData game) throws DataAccessException;
 
+
+    /**
+     * Seats a player in a game if that seat is still empty, as a single atomic step.
+     *
+     * @param gameID   the ID of the game to join
+     * @param color    the seat to claim
+     * @param username the player taking the seat
+     * @return true if the seat was claimed, false if it was already taken or the game does not exist
+     * @throws DataAccessException if the operation fails
+     */
+    boolean claimSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException;
+
+    /**
+     * Empties a player's seat if that player still holds it, as a single atomic step.
+     *
+     * @param gameID   the ID of the game to leave
+     * @param color    the seat to release
+     * @param username the player expected in the seat
+     * @return true if the seat was released, false if someone else holds it or the game does not exist
+     * @throws DataAccessException if the operation fails
+     */
+    boolean releaseSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException;
+
+    /**
+     * Replaces only the chess state of a game, leaving its players and name untouched, so a move
+     * cannot undo a seat change that happened while it was being validated.
+     *
+     * @param gameID the ID of the game to update
+     * @param game   the new chess state
+     * @throws DataAccessException if the game is not found or the update fails
+     */
+    void updateGameState(int gameID, ChessGame game) throws DataAccessException;
+
+    /**
+     * Replaces only the chess state of several games, leaving their players and names untouched.
+     * Backends that can write in one batch should override this.
+     *
+     * @param games the games whose chess state to write
+     * @throws DataAccessException if a game is not found or the update fails
+     */
+    default void updateGameStates(Collection<GameData> games) throws DataAccessException {
+        for (GameData game : games) {
+            updateGameState(game.gameID(), game.game());
+        }
+    }
+
+    /**
+     * Whether this DAO serves games from a copy in process memory that writes made through other
+     * processes do not reach. Such a DAO must not back one node of a cluster.
+     *
+     * @return true if games are cached in this process
+     */
+    default boolean cachesGames() {
+        return false;
+    }
+
     /**
      * Clears all game data from storage.
      *
@@ -0,0 +1,84 @@
+package dataAccess;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out game IDs that are unique across every shard. Each shard would otherwise number its own
+ * games from 1 with AUTO_INCREMENT, so IDs would collide. Instead a single counter row on one database
+ * is advanced a block at a time, and IDs within the block are handed out from memory, so creating a
+ * game only touches the counter once per block. IDs from a block that is never used up are skipped.
+ */
+public class GameIdAllocator {
+    /** Default number of IDs reserved per round trip. */
+    public static final int DEFAULT_BLOCK_SIZE = 100;
+
+    private static final String RESERVE_BLOCK =
+            "UPDATE gameIdSequence SET nextID = LAST_INSERT_ID(nextID + ?) WHERE id = 1";
+    private static final String RESERVED_END = "SELECT LAST_INSERT_ID()";
+
+    private final ConnectionPool counter;
+    private final int blockSize;
+    /** Guards {@link #next} and {@link #end}, and is held while a new block is reserved. */
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long end;
+
+    /**
+     * Constructs an allocator. The counter row is created by the schema migrations.
+     *
+     * @param counter   the database holding the counter
+     * @param blockSize IDs reserved per round trip
+     */
+    public GameIdAllocator(ConnectionPool counter, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("games.idBlockSize must be positive");
+        }
+        this.counter = counter;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Returns the next unused game ID.
+     *
+     * @return the ID
+     * @throws DataAccessException if a new block cannot be reserved or IDs have run out
+     */
+    public int nextID() throws DataAccessException {
+        lock.lock();
+        try {
+            if (next >= end) {
+                reserveBlock();
+            }
+            if (next > Integer.MAX_VALUE) {
+                throw new DataAccessException("Game IDs exhausted");
+            }
+            return (int) next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reserveBlock() throws DataAccessException {
+        // LAST_INSERT_ID(expr) makes the new end visible to this connection without a race
+        try (Connection conn = counter.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(RESERVE_BLOCK)) {
+                stmt.setInt(1, blockSize);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(RESERVED_END);
+                 ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new DataAccessException("Unable to reserve game IDs");
+                }
+                end = rs.getLong(1);
+                next = end - blockSize;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Unable to reserve game IDs: " + e.getMessage());
+        }
+    }
+}
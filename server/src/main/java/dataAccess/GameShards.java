@@ -0,0 +1,227 @@
+package dataAccess;
+
+import util.HashRing;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * Where each game's row lives when games are split across several MySQL databases.
+ * Shards are listed in db.properties:
+ * <pre>
+ * games.shards=3
+ * games.shard.0.url=jdbc:mysql://db0:3306/chess
+ * games.shard.0.username=...    # defaults to database.username
+ * games.shard.0.password=...    # defaults to database.password
+ * games.routing=hash          # or range
+ * games.rangeSize=10000       # range routing only
+ * games.idBlockSize=100
+ * </pre>
+ * Hash routing places game IDs on a consistent-hash ring of the shards, so adding a shard only moves the
+ * games next to its points. Range routing deals out consecutive blocks of {@code games.rangeSize} IDs to
+ * the shards in turn. Either way, IDs come from a {@link GameIdAllocator} on shard 0.
+ * Without {@code games.shards}, games stay in the primary database and keep their AUTO_INCREMENT IDs,
+ * and their reads can use the primary's read replicas. Shards have no replicas of their own.
+ */
+public class GameShards implements AutoCloseable {
+    /** One pool per shard, or empty when games live in the primary database. */
+    private final List<ConnectionPool> pools;
+    /** Picks the shard of a game ID. */
+    private final Function<Integer, Integer> router;
+    /** Cross-shard IDs, or null when the primary's AUTO_INCREMENT assigns them. */
+    private final GameIdAllocator ids;
+
+    private GameShards(List<ConnectionPool> pools, Function<Integer, Integer> router, GameIdAllocator ids) {
+        this.pools = pools;
+        this.router = router;
+        this.ids = ids;
+    }
+
+    /**
+     * Keeps every game in the primary database from {@link DatabaseManager}.
+     *
+     * @return the single-database layout
+     */
+    public static GameShards unsharded() {
+        return new GameShards(List.of(), gameID -> 0, null);
+    }
+
+    /**
+     * Reads the shard layout from the {@code games.*} keys, opening a pool to each shard.
+     *
+     * @param props the database properties
+     * @return the configured layout, or {@link #unsharded()} if no shards are listed
+     * @throws DataAccessException if a shard or the ID counter cannot be set up
+     */
+    public static GameShards fromProperties(Properties props) throws DataAccessException {
+        int count = Integer.parseInt(props.getProperty("games.shards", "0"));
+        if (count <= 0) {
+            return unsharded();
+        }
+        List<ConnectionPool> pools = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                String url = props.getProperty("games.shard." + i + ".url");
+                if (url == null || url.isBlank()) {
+                    throw new DataAccessException("Missing games.shard." + i + ".url");
+                }
+                // Like replicas, shards log in as the primary's user unless given their own
+                pools.add(DatabaseManager.openPool(url,
+                        props.getProperty("games.shard." + i + ".username", props.getProperty("database.username", "")),
+                        props.getProperty("games.shard." + i + ".password", props.getProperty("database.password", ""))));
+            }
+            String routing = props.getProperty("games.routing", "hash");
+            Function<Integer, Integer> router;
+            if (routing.equalsIgnoreCase("range")) {
+                int rangeSize = Integer.parseInt(props.getProperty("games.rangeSize", "10000"));
+                router = rangeRouter(count, rangeSize);
+            } else if (routing.equalsIgnoreCase("hash")) {
+                router = hashRouter(count);
+            } else {
+                throw new DataAccessException("Unknown games.routing: " + routing);
+            }
+            GameIdAllocator ids = new GameIdAllocator(pools.get(0), Integer.parseInt(
+                    props.getProperty("games.idBlockSize", String.valueOf(GameIdAllocator.DEFAULT_BLOCK_SIZE))));
+            return new GameShards(List.copyOf(pools), router, ids);
+        } catch (DataAccessException | RuntimeException e) {
+            pools.forEach(ConnectionPool::close);
+            throw e;
+        }
+    }
+
+    /**
+     * Routes IDs over a consistent-hash ring of shard numbers.
+     *
+     * @param count number of shards
+     * @return the router
+     */
+    static Function<Integer, Integer> hashRouter(int count) {
+        List<Integer> shards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            shards.add(i);
+        }
+        HashRing<Integer> ring = new HashRing<>(shards, shard -> "shard-" + shard, HashRing.DEFAULT_REPLICAS);
+        return ring::owner;
+    }
+
+    /**
+     * Routes consecutive blocks of IDs to the shards in turn.
+     *
+     * @param count     number of shards
+     * @param rangeSize IDs per block
+     * @return the router
+     */
+    static Function<Integer, Integer> rangeRouter(int count, int rangeSize) {
+        if (rangeSize <= 0) {
+            throw new IllegalArgumentException("games.rangeSize must be positive");
+        }
+        return gameID -> Math.floorMod((gameID - 1) / rangeSize, count);
+    }
+
+    /**
+     * @return the number of databases games are spread over
+     */
+    public int count() {
+        return pools.isEmpty() ? 1 : pools.size();
+    }
+
+    /**
+     * @return true if games live in the primary database rather than on shards
+     */
+    public boolean inPrimary() {
+        return pools.isEmpty();
+    }
+
+    /**
+     * @return true if game IDs come from {@link #nextGameID()} rather than AUTO_INCREMENT
+     */
+    public boolean allocatesIds() {
+        return ids != null;
+    }
+
+    /**
+     * Reserves a new game ID, unique across all shards.
+     *
+     * @return the ID
+     * @throws DataAccessException if no ID could be reserved
+     */
+    public int nextGameID() throws DataAccessException {
+        if (ids == null) {
+            throw new IllegalStateException("Unsharded games are numbered by AUTO_INCREMENT");
+        }
+        return ids.nextID();
+    }
+
+    /**
+     * @param gameID a game ID
+     * @return the shard holding that game
+     */
+    public int shardOf(int gameID) {
+        return router.apply(gameID);
+    }
+
+    /**
+     * Borrows a connection to a shard.
+     *
+     * @param shard the shard number
+     * @return a pooled connection; close it to return it
+     * @throws DataAccessException if no connection is available
+     */
+    public Connection connection(int shard) throws DataAccessException {
+        if (pools.isEmpty()) {
+            return DatabaseManager.getConnection();
+        }
+        try {
+            return pools.get(shard).getConnection();
+        } catch (SQLException e) {
+            throw new DataAccessException("Unable to get connection to game shard " + shard + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Borrows a connection to the shard holding a game.
+     *
+     * @param gameID the game ID
+     * @return a pooled connection; close it to return it
+     * @throws DataAccessException if no connection is available
+     */
+    public Connection connectionFor(int gameID) throws DataAccessException {
+        return connection(shardOf(gameID));
+    }
+
+    /**
+     * Borrows a connection to read from a shard, which may be a read replica when games are unsharded.
+     *
+     * @param shard the shard number
+     * @return a pooled connection; close it to return it
+     * @throws DataAccessException if no connection is available
+     */
+    public Connection readConnection(int shard) throws DataAccessException {
+        return pools.isEmpty() ? DatabaseManager.getReadConnection(null) : connection(shard);
+    }
+
+    /**
+     * Borrows a connection to read one game, which may be a read replica when games are unsharded
+     * and the game has not been written recently.
+     *
+     * @param gameID the game ID
+     * @return a pooled connection; close it to return it
+     * @throws DataAccessException if no connection is available
+     */
+    public Connection readConnectionFor(int gameID) throws DataAccessException {
+        return pools.isEmpty()
+                ? DatabaseManager.getReadConnection(ReadYourWrites.gameKey(gameID)) : connectionFor(gameID);
+    }
+
+    /**
+     * Closes the shard pools. The primary database's pool belongs to {@link DatabaseManager}.
+     */
+    @Override
+    public void close() {
+        pools.forEach(ConnectionPool::close);
+    }
+}
@@ -2,17 +2,17 @@ package dataAccess;
 
 import model.AuthData;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * In-memory implementation of the AuthDAO interface for managing authentication data.
- * Stores authentication tokens and associated data in a HashMap.
+ * Stores authentication tokens and associated data in a ConcurrentHashMap so it can be shared across request threads.
  */
 public class MemoryAuthDAO implements AuthDAO {
-    /** Map to store authentication tokens and their associated AuthData objects. */
-    private final Map<String, AuthData> auths = new HashMap<>();
+    /** Map to store authentication tokens and their associated AuthData objects; replaced wholesale on clear. */
+    private volatile Map<String, AuthData> auths = new ConcurrentHashMap<>();
 
     /**
      * Creates a new authentication token for the specified username.
@@ -60,19 +60,18 @@ public class MemoryAuthDAO implements AuthDAO {
      */
     @Override
     public void deleteAuthToken(String authToken) throws DataAccessException {
-        if (authToken == null || !auths.containsKey(authToken)) {
+        if (authToken == null || auths.remove(authToken) == null) {
             throw new DataAccessException("unauthorized");
         }
-        auths.remove(authToken);
     }
 
     /**
-     * Clears all authentication data from storage.
+     * Clears all authentication data from storage by swapping in an empty map, in constant time.
      *
      * @throws DataAccessException if the clear operation fails
      */
     @Override
     public void clearAll() throws DataAccessException {
-        auths.clear();
+        auths = new ConcurrentHashMap<>();
     }
 }
\ No newline at end of file
@@ -3,15 +3,16 @@ package dataAccess;
 import model.GameData;
 import chess.ChessGame;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
-// In-memory implementation of gameDAO for managing game data
+// In-memory implementation of gameDAO for managing game data, safe to share across request threads
 public class MemoryGameDAO implements GameDAO {
-    // Map to store games with game ID as key and gameData as value
-    private final Map<Integer, GameData> games = new HashMap<>();
+    // Map to store games with game ID as key and gameData as value; replaced wholesale on clear
+    private volatile ConcurrentMap<Integer, GameData> games = new ConcurrentHashMap<>();
     // Counter for generating unique game IDs
-    private int nextGameID = 1;
+    private final AtomicInteger nextGameID = new AtomicInteger(1);
 
     // Creates a new game with the given name
     @Override
@@ -22,7 +23,7 @@ public class MemoryGameDAO implements GameDAO {
             throw new DataAccessException("bad request");
         }
         // Create new gameData with next ID, null players, given name, and new ChessGame
-        GameData game = new GameData(nextGameID++, null, null, gameName, new ChessGame());
+        GameData game = new GameData(nextGameID.getAndIncrement(), null, null, gameName, new ChessGame());
         // Store gameData in the map with game ID as key
         games.put(game.gameID(), game);
         // Return the created gameData
@@ -53,19 +54,65 @@ public class MemoryGameDAO implements GameDAO {
     // Updates an existing game
     @Override
     public void updateGame(GameData game) throws DataAccessException {
-        // Check if game is null or not in map
-        if (game == null || !games.containsKey(game.gameID())) {
+        // Replace the game only if it is still in the map, so an update cannot resurrect a cleared game
+        if (game == null || games.replace(game.gameID(), game) == null) {
             // Throw exception for invalid game
             throw new DataAccessException("Bad request");
         }
-        // Update gameData in the map
-        games.put(game.gameID(), game);
+    }
+
+    // Replaces a game only if it has not changed since the caller read it
+    public boolean replaceGame(GameData expected, GameData updated) {
+        // Compare-and-set on the map entry; a concurrent update makes this return false
+        return games.replace(expected.gameID(), expected, updated);
+    }
+
+    // Seats a player if the seat is still empty, retrying if another update wins the race
+    @Override
+    public boolean claimSeat(int gameID, ChessGame.TeamColor color, String username) {
+        while (true) {
+            // Read the current game; a missing game cannot be joined
+            GameData current = games.get(gameID);
+            if (current == null || current.username(color) != null) {
+                return false;
+            }
+            // Publish the seated copy only if nobody changed the game since we read it
+            if (replaceGame(current, current.withPlayer(color, username))) {
+                return true;
+            }
+        }
+    }
+
+    // Empties a seat if the given player still holds it, retrying if another update wins the race
+    @Override
+    public boolean releaseSeat(int gameID, ChessGame.TeamColor color, String username) {
+        while (true) {
+            // Read the current game; the seat must still belong to this player
+            GameData current = games.get(gameID);
+            if (current == null || username == null || !username.equals(current.username(color))) {
+                return false;
+            }
+            // Publish the emptied seat only if nobody changed the game since we read it
+            if (replaceGame(current, current.withPlayer(color, null))) {
+                return true;
+            }
+        }
+    }
+
+    // Replaces the chess state of a game without touching its players
+    @Override
+    public void updateGameState(int gameID, ChessGame game) throws DataAccessException {
+        // Swap the state inside the map entry so concurrent seat changes are kept
+        if (games.computeIfPresent(gameID, (id, current) -> current.withGame(game)) == null) {
+            // Throw exception if game is not found
+            throw new DataAccessException("Game not found");
+        }
     }
 
     // Clears all game data from storage
     @Override
     public void clear() {
-        // Remove all entries from the games map
-        games.clear();
+        // Swap in an empty map, which takes constant time however many games there are
+        games = new ConcurrentHashMap<>();
     }
 }
\ No newline at end of file
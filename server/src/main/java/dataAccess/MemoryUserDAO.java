@@ -2,13 +2,14 @@ package dataAccess;
 
 import model.UserData;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
-// In-memory implementation of userDAO for managing user data
+// In-memory implementation of userDAO for managing user data, safe to share across request threads
 public class MemoryUserDAO implements UserDAO {
-    // Map to store users with username as key and userData as value
-    private final Map<String, UserData> users = new HashMap<>();
+    // Map to store users with username as key and userData as value; replaced wholesale on clear
+    private volatile Map<String, UserData> users = new ConcurrentHashMap<>();
 
     // Creates a new user in storage
     @Override
@@ -18,34 +19,48 @@ public class MemoryUserDAO implements UserDAO {
             // Throw exception for invalid user
             throw new DataAccessException("bad request");
         }
-        // Check if username already exists
-        if (users.containsKey(user.username())) {
+        // Store userData only if the username is free, so two registrations cannot both win
+        if (users.putIfAbsent(user.username(), user) != null) {
             // Throw exception if username is taken
-            throw new DataAccessException("already exists");
+            throw new DataAccessException("already taken");
         }
-        // Store userData in the map with username as key
-        users.put(user.username(), user);
     }
 
     // Retrieves user data for a given username
     @Override
     public UserData getUser(String username) throws DataAccessException {
-        // Get userData from map using username
-        UserData user = users.get(username);
         // Check if username is null
         if (username == null) {
             // Throw exception for null username
             throw new DataAccessException("bad request");
         }
-        // Return userData (may be null if not found)
-        return user;
+        // Return userData from map using username (may be null if not found)
+        return users.get(username);
+    }
+
+    // Passes every registered username to the action
+    @Override
+    public void forEachUsername(Consumer<String> action) {
+        users.keySet().forEach(action);
+    }
+
+    // Replaces a user's stored password, leaving the other fields as they are
+    @Override
+    public void updatePassword(String username, String password) throws DataAccessException {
+        // Check if username is null
+        if (username == null) {
+            // Throw exception for null username
+            throw new DataAccessException("bad request");
+        }
+        // Swap the password in one step so a concurrent update cannot be lost
+        users.computeIfPresent(username, (name, user) -> new UserData(name, password, user.email()));
     }
 
     // Clears all user data from storage
     @Override
     public void clear() {
-        // Remove all entries from the users map
-        users.clear();
+        // Swap in an empty map, which takes constant time however many users there are
+        users = new ConcurrentHashMap<>();
     }
 
     // Returns all users in storage
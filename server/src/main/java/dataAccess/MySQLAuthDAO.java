@@ -8,6 +8,11 @@ import java.sql.SQLException;
 import java.util.UUID;
 
 public class MySQLAuthDAO implements AuthDAO {
+    private static final String INSERT_AUTH = "INSERT INTO authTokens (authToken, username) VALUES (?, ?)";
+    private static final String SELECT_AUTH = "SELECT authToken, username FROM authTokens WHERE authToken = ?";
+    private static final String DELETE_AUTH = "DELETE FROM authTokens WHERE authToken = ?";
+    private static final String CLEAR_AUTHS = "TRUNCATE TABLE authTokens";
+
     private final DatabaseManager dbManager;
 
     public MySQLAuthDAO() throws DataAccessException {
@@ -21,12 +26,12 @@ public class MySQLAuthDAO implements AuthDAO {
     @Override
     public AuthData createAuthToken(String username) throws DataAccessException {
         String authToken = UUID.randomUUID().toString();
-        String sql = "INSERT INTO authTokens (authToken, username) VALUES (?, ?)";
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(INSERT_AUTH)) {
             stmt.setString(1, authToken);
             stmt.setString(2, username);
             stmt.executeUpdate();
+            ReadYourWrites.wrote(ReadYourWrites.authKey(authToken));
             return new AuthData(authToken, username);
         } catch (SQLException e) {
             throw new DataAccessException("Unable to create auth token: " + e.getMessage());
@@ -35,9 +40,9 @@ public class MySQLAuthDAO implements AuthDAO {
 
     @Override
     public AuthData getAuthToken(String authToken) throws DataAccessException {
-        String sql = "SELECT authToken, username FROM authTokens WHERE authToken = ?";
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        // A token just issued or revoked is read from the primary until the replicas have it
+        try (Connection conn = DatabaseManager.getReadConnection(ReadYourWrites.authKey(authToken));
+             PreparedStatement stmt = conn.prepareStatement(SELECT_AUTH)) {
             stmt.setString(1, authToken);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -55,11 +60,11 @@ public class MySQLAuthDAO implements AuthDAO {
 
     @Override
     public void deleteAuthToken(String authToken) throws DataAccessException {
-        String sql = "DELETE FROM authTokens WHERE authToken = ?";
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(DELETE_AUTH)) {
             stmt.setString(1, authToken);
             stmt.executeUpdate();
+            ReadYourWrites.wrote(ReadYourWrites.authKey(authToken));
         } catch (SQLException e) {
             throw new DataAccessException("Unable to delete auth: " + e.getMessage());
         }
@@ -67,9 +72,8 @@ public class MySQLAuthDAO implements AuthDAO {
 
     @Override
     public void clearAll() throws DataAccessException {
-        String sql = "DELETE FROM authTokens";
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(CLEAR_AUTHS)) {
             stmt.executeUpdate();
         } catch (SQLException e) {
             throw new DataAccessException("Unable to clear authTokens: " + e.getMessage());
@@ -1,17 +1,44 @@
 package dataAccess;
 
+import java.util.Properties;
+
 public class MySQLDataAccess implements DataAccess {
     private final UserDAO userDAO;
     private final GameDAO gameDAO;
     private final AuthDAO authDAO;
     private final DatabaseManager dbManager;
+    /** The user cache, emptied after the tables are truncated underneath it. */
+    private final CachingUserDAO cachedUsers;
+    /** The token cache, emptied after the tables are truncated underneath it. */
+    private final CachingAuthDAO cachedTokens;
+    /** Where games are stored; shards are not covered by {@link DatabaseManager#clearDatabase()}. */
+    private final GameShards shards;
+    /** The game DAO that writes to {@link #shards}. */
+    private final MySQLGameDAO storedGames;
 
     public MySQLDataAccess() throws DataAccessException {
         try {
             this.dbManager = new DatabaseManager();
-            this.userDAO = new MySQLUserDAO();
-            this.gameDAO = new MySQLGameDAO();
-            this.authDAO = new MySQLAuthDAO(dbManager);
+            this.cachedUsers = new CachingUserDAO(new MySQLUserDAO());
+            this.userDAO = cachedUsers;
+            Properties props = DatabaseManager.getProperties();
+            this.shards = GameShards.fromProperties(props);
+            this.storedGames = new MySQLGameDAO(shards);
+            // A cluster node must read games straight from MySQL, since other nodes change them too
+            if (Boolean.parseBoolean(props.getProperty("games.writeBehind", "true"))) {
+                this.gameDAO = new WriteBehindGameDAO(storedGames,
+                        WriteBehindGameDAO.Durability.valueOf(props.getProperty("games.durability", "ASYNC").toUpperCase()),
+                        Long.parseLong(props.getProperty("games.flushIntervalMs",
+                                String.valueOf(WriteBehindGameDAO.DEFAULT_FLUSH_INTERVAL_MS))),
+                        Integer.parseInt(props.getProperty("games.flushBatchSize",
+                                String.valueOf(WriteBehindGameDAO.DEFAULT_BATCH_SIZE))),
+                        Integer.parseInt(props.getProperty("games.maxHotGames",
+                                String.valueOf(WriteBehindGameDAO.DEFAULT_MAX_HOT_GAMES))));
+            } else {
+                this.gameDAO = storedGames;
+            }
+            this.cachedTokens = new CachingAuthDAO(new MySQLAuthDAO(dbManager));
+            this.authDAO = SignedAuthDAO.fromProperties(cachedTokens, props);
         } catch (DataAccessException e) {
             throw new DataAccessException("Failed to initialize database or DAOs: " + e.getMessage());
         }
@@ -32,10 +59,28 @@ public class MySQLDataAccess implements DataAccess {
         return authDAO;
     }
 
+    /**
+     * Truncates every table on one connection, then empties what the DAOs hold in memory, in the same
+     * order as the tables: tokens, then games, then users.
+     *
+     * @throws DataAccessException if a table cannot be truncated; the in-memory state is emptied anyway
+     */
     @Override
     public void clear() throws DataAccessException {
-        userDAO.clear();
-        gameDAO.clear();
-        authDAO.clearAll();
+        try {
+            DatabaseManager.clearDatabase();
+            if (!shards.inPrimary()) {
+                storedGames.clear();
+            }
+        } finally {
+            if (authDAO instanceof SignedAuthDAO signed) {
+                signed.forgetAll();
+            }
+            cachedTokens.forgetAll();
+            if (gameDAO instanceof WriteBehindGameDAO writeBehind) {
+                writeBehind.forgetAll();
+            }
+            cachedUsers.forgetAll();
+        }
     }
-}
\ No newline at end of file
+}
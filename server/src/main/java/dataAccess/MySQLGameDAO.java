@@ -10,21 +10,65 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Stores games in MySQL, in the primary database or spread over the shards of a {@link GameShards} layout.
+ * Single-game operations go to the game's shard; listing queries every shard in parallel and merges
+ * their gameID-ordered results. Reads may be served by a read replica; every write is recorded with
+ * {@link ReadYourWrites} so the game, and the user who wrote it, read from the primary for a while.
+ */
 public class MySQLGameDAO implements GameDAO {
+    private static final String INSERT_GAME = "INSERT INTO games (gameName, game) VALUES (?, ?)";
+    private static final String INSERT_GAME_WITH_ID = "INSERT INTO games (gameID, gameName, game) VALUES (?, ?, ?)";
+    private static final String SELECT_GAME = "SELECT gameID, whiteUsername, blackUsername, gameName, game FROM games WHERE gameID = ?";
+    private static final String SELECT_GAMES = "SELECT gameID, whiteUsername, blackUsername, gameName, game FROM games ORDER BY gameID";
+    private static final String UPDATE_GAME = "UPDATE games SET whiteUsername = ?, blackUsername = ?, gameName = ?, game = ? WHERE gameID = ?";
+    private static final String CLAIM_WHITE = "UPDATE games SET whiteUsername = ? WHERE gameID = ? AND whiteUsername IS NULL";
+    private static final String CLAIM_BLACK = "UPDATE games SET blackUsername = ? WHERE gameID = ? AND blackUsername IS NULL";
+    private static final String RELEASE_WHITE = "UPDATE games SET whiteUsername = NULL WHERE gameID = ? AND whiteUsername = ?";
+    private static final String RELEASE_BLACK = "UPDATE games SET blackUsername = NULL WHERE gameID = ? AND blackUsername = ?";
+    private static final String UPDATE_GAME_STATE = "UPDATE games SET game = ? WHERE gameID = ?";
+    private static final String CLEAR_GAMES = "TRUNCATE TABLE games";
+
     private final Gson gson;
+    private final GameShards shards;
 
+    /**
+     * Constructs a DAO over the shard layout in db.properties, or the primary database if none is configured.
+     *
+     * @throws DataAccessException if a shard cannot be set up
+     */
     public MySQLGameDAO() throws DataAccessException {
+        this(GameShards.fromProperties(DatabaseManager.getProperties()));
+    }
+
+    /**
+     * Constructs a DAO over the given shard layout.
+     *
+     * @param shards where each game is stored
+     */
+    public MySQLGameDAO(GameShards shards) {
         this.gson = new GsonBuilder()
                 .registerTypeAdapter(ChessGame.class, new ChessGameTypeAdapter())
                 .create();
+        this.shards = shards;
     }
 
     @Override
     public GameData createGame(String gameName) throws DataAccessException {
-        String sql = "INSERT INTO games (gameName, game) VALUES (?, ?)";
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
+        if (shards.allocatesIds()) {
+            return createGameWithID(shards.nextGameID(), gameName);
+        }
+        try (Connection conn = shards.connection(0);
+             PreparedStatement stmt = conn.prepareStatement(INSERT_GAME, PreparedStatement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, gameName);
             ChessGame game = new ChessGame();
             stmt.setString(2, gson.toJson(game));
@@ -32,6 +76,7 @@ public class MySQLGameDAO implements GameDAO {
             try (ResultSet rs = stmt.getGeneratedKeys()) {
                 if (rs.next()) {
                     int gameID = rs.getInt(1);
+                    ReadYourWrites.wrote(ReadYourWrites.gameKey(gameID));
                     return new GameData(gameID, null, null, gameName, game);
                 }
             }
@@ -41,22 +86,29 @@ public class MySQLGameDAO implements GameDAO {
         }
     }
 
+    private GameData createGameWithID(int gameID, String gameName) throws DataAccessException {
+        try (Connection conn = shards.connectionFor(gameID);
+             PreparedStatement stmt = conn.prepareStatement(INSERT_GAME_WITH_ID)) {
+            ChessGame game = new ChessGame();
+            stmt.setInt(1, gameID);
+            stmt.setString(2, gameName);
+            stmt.setString(3, gson.toJson(game));
+            stmt.executeUpdate();
+            ReadYourWrites.wrote(ReadYourWrites.gameKey(gameID));
+            return new GameData(gameID, null, null, gameName, game);
+        } catch (SQLException e) {
+            throw new DataAccessException("Unable to create game: " + e.getMessage());
+        }
+    }
+
     @Override
     public GameData getGame(int gameID) throws DataAccessException {
-        String sql = "SELECT gameID, whiteUsername, blackUsername, gameName, game FROM games WHERE gameID = ?";
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = shards.readConnectionFor(gameID);
+             PreparedStatement stmt = conn.prepareStatement(SELECT_GAME)) {
             stmt.setInt(1, gameID);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    ChessGame game = gson.fromJson(rs.getString("game"), ChessGame.class);
-                    return new GameData(
-                            rs.getInt("gameID"),
-                            rs.getString("whiteUsername"),
-                            rs.getString("blackUsername"),
-                            rs.getString("gameName"),
-                            game
-                    );
+                    return readGame(rs);
                 }
             }
             return null;
@@ -67,20 +119,63 @@ public class MySQLGameDAO implements GameDAO {
 
     @Override
     public Collection<GameData> listgame() throws DataAccessException {
-        Collection<GameData> games = new ArrayList<>();
-        String sql = "SELECT gameID, whiteUsername, blackUsername, gameName, game FROM games";
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+        if (shards.count() == 1) {
+            return listShard(0);
+        }
+        // Query every shard at once; each returns its games in gameID order
+        List<List<GameData>> pages = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<GameData>>> futures = new ArrayList<>();
+            for (int shard = 0; shard < shards.count(); shard++) {
+                int current = shard;
+                futures.add(executor.submit(() -> listShard(current)));
+            }
+            for (Future<List<GameData>> future : futures) {
+                pages.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof DataAccessException cause
+                    ? cause : new DataAccessException("Unable to list games: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Unable to list games: interrupted");
+        }
+        return mergeByGameID(pages);
+    }
+
+    /**
+     * Merges lists that are each sorted by gameID into one sorted list.
+     */
+    static List<GameData> mergeByGameID(List<List<GameData>> pages) {
+        // Heap entries are {page, position}, ordered by the gameID at that position
+        PriorityQueue<int[]> heads = new PriorityQueue<>(
+                (a, b) -> Integer.compare(pages.get(a[0]).get(a[1]).gameID(), pages.get(b[0]).get(b[1]).gameID()));
+        int total = 0;
+        for (int page = 0; page < pages.size(); page++) {
+            total += pages.get(page).size();
+            if (!pages.get(page).isEmpty()) {
+                heads.add(new int[]{page, 0});
+            }
+        }
+        List<GameData> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<GameData> page = pages.get(head[0]);
+            merged.add(page.get(head[1]));
+            if (head[1] + 1 < page.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    private List<GameData> listShard(int shard) throws DataAccessException {
+        List<GameData> games = new ArrayList<>();
+        try (Connection conn = shards.readConnection(shard);
+             PreparedStatement stmt = conn.prepareStatement(SELECT_GAMES);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                ChessGame game = gson.fromJson(rs.getString("game"), ChessGame.class);
-                games.add(new GameData(
-                        rs.getInt("gameID"),
-                        rs.getString("whiteUsername"),
-                        rs.getString("blackUsername"),
-                        rs.getString("gameName"),
-                        game
-                ));
+                games.add(readGame(rs));
             }
             return games;
         } catch (SQLException e) {
@@ -88,30 +183,124 @@ public class MySQLGameDAO implements GameDAO {
         }
     }
 
+    private GameData readGame(ResultSet rs) throws SQLException {
+        ChessGame game = gson.fromJson(rs.getString("game"), ChessGame.class);
+        return new GameData(
+                rs.getInt("gameID"),
+                rs.getString("whiteUsername"),
+                rs.getString("blackUsername"),
+                rs.getString("gameName"),
+                game
+        );
+    }
+
     @Override
     public void updateGame(GameData game) throws DataAccessException {
-        String sql = "UPDATE games SET whiteUsername = ?, blackUsername = ?, gameName = ?, game = ? WHERE gameID = ?";
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, game.whiteUsername());
-            stmt.setString(2, game.blackUsername());
-            stmt.setString(3, game.gameName());
-            stmt.setString(4, gson.toJson(game.game()));
-            stmt.setInt(5, game.gameID());
+        try (Connection conn = shards.connectionFor(game.gameID());
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_GAME)) {
+            bindUpdate(stmt, game);
             stmt.executeUpdate();
+            ReadYourWrites.wrote(ReadYourWrites.gameKey(game.gameID()));
         } catch (SQLException e) {
             throw new DataAccessException("Unable to update game: " + e.getMessage());
         }
     }
 
     @Override
-    public void clear() throws DataAccessException {
-        String sql = "DELETE FROM games";
-        try (Connection conn = DatabaseManager.getConnection();
+    public void updateGameStates(Collection<GameData> games) throws DataAccessException {
+        // One batch, in one transaction, per shard touched
+        Map<Integer, List<GameData>> byShard = new LinkedHashMap<>();
+        for (GameData game : games) {
+            byShard.computeIfAbsent(shards.shardOf(game.gameID()), shard -> new ArrayList<>()).add(game);
+        }
+        for (Map.Entry<Integer, List<GameData>> entry : byShard.entrySet()) {
+            try (Connection conn = shards.connection(entry.getKey());
+                 PreparedStatement stmt = conn.prepareStatement(UPDATE_GAME_STATE)) {
+                conn.setAutoCommit(false);
+                for (GameData game : entry.getValue()) {
+                    stmt.setString(1, gson.toJson(game.game()));
+                    stmt.setInt(2, game.gameID());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                for (GameData game : entry.getValue()) {
+                    ReadYourWrites.wrote(ReadYourWrites.gameKey(game.gameID()));
+                }
+            } catch (SQLException e) {
+                throw new DataAccessException("Unable to update games: " + e.getMessage());
+            }
+        }
+    }
+
+    private void bindUpdate(PreparedStatement stmt, GameData game) throws SQLException {
+        stmt.setString(1, game.whiteUsername());
+        stmt.setString(2, game.blackUsername());
+        stmt.setString(3, game.gameName());
+        stmt.setString(4, gson.toJson(game.game()));
+        stmt.setInt(5, game.gameID());
+    }
+
+    @Override
+    public boolean claimSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException {
+        String sql = color == ChessGame.TeamColor.WHITE ? CLAIM_WHITE : CLAIM_BLACK;
+        try (Connection conn = shards.connectionFor(gameID);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.executeUpdate();
+            stmt.setString(1, username);
+            stmt.setInt(2, gameID);
+            return seatChanged(gameID, stmt.executeUpdate() == 1);
         } catch (SQLException e) {
-            throw new DataAccessException("Unable to clear games: " + e.getMessage());
+            throw new DataAccessException("Unable to join game: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean releaseSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException {
+        String sql = color == ChessGame.TeamColor.WHITE ? RELEASE_WHITE : RELEASE_BLACK;
+        try (Connection conn = shards.connectionFor(gameID);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, gameID);
+            stmt.setString(2, username);
+            return seatChanged(gameID, stmt.executeUpdate() == 1);
+        } catch (SQLException e) {
+            throw new DataAccessException("Unable to leave game: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void updateGameState(int gameID, ChessGame game) throws DataAccessException {
+        try (Connection conn = shards.connectionFor(gameID);
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_GAME_STATE)) {
+            stmt.setString(1, gson.toJson(game));
+            stmt.setInt(2, gameID);
+            if (stmt.executeUpdate() == 0) {
+                throw new DataAccessException("Game not found");
+            }
+            ReadYourWrites.wrote(ReadYourWrites.gameKey(gameID));
+        } catch (SQLException e) {
+            throw new DataAccessException("Unable to update game: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records a conditional seat change that took effect.
+     */
+    private static boolean seatChanged(int gameID, boolean changed) {
+        if (changed) {
+            ReadYourWrites.wrote(ReadYourWrites.gameKey(gameID));
+        }
+        return changed;
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            try (Connection conn = shards.connection(shard);
+                 PreparedStatement stmt = conn.prepareStatement(CLEAR_GAMES)) {
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new DataAccessException("Unable to clear games: " + e.getMessage());
+            }
         }
     }
-}
\ No newline at end of file
+}
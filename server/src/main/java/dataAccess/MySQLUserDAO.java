@@ -5,8 +5,16 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.function.Consumer;
 
 public class MySQLUserDAO implements UserDAO {
+    private static final String INSERT_USER = "INSERT INTO users (username, password, email) VALUES (?, ?, ?)";
+    private static final String SELECT_USER = "SELECT username, password, email FROM users WHERE username = ?";
+    private static final String SELECT_USERNAMES = "SELECT username FROM users";
+    private static final String UPDATE_PASSWORD = "UPDATE users SET password = ? WHERE username = ?";
+    private static final String CLEAR_USERS = "TRUNCATE TABLE users";
+
     // Removed unused DatabaseManager db field and constructor parameter
 
     public MySQLUserDAO() {
@@ -15,13 +23,15 @@ public class MySQLUserDAO implements UserDAO {
 
     @Override
     public void createUser(UserData user) throws DataAccessException {
-        String sql = "INSERT INTO users (username, password, email) VALUES (?, ?, ?)";
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(INSERT_USER)) {
             stmt.setString(1, user.username());
             stmt.setString(2, user.password());
             stmt.setString(3, user.email());
             stmt.executeUpdate();
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // The primary key decides between concurrent registrations; no check-then-insert race
+            throw new DataAccessException("already taken");
         } catch (SQLException e) {
             throw new DataAccessException("Unable to create user: " + e.getMessage());
         }
@@ -29,17 +39,17 @@ public class MySQLUserDAO implements UserDAO {
 
     @Override
     public UserData getUser(String username) throws DataAccessException {
-        String sql = "SELECT username, password, email FROM users WHERE username = ?";
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SELECT_USER)) {
             stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new UserData(
-                        rs.getString("username"),
-                        rs.getString("password"),
-                        rs.getString("email")
-                );
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new UserData(
+                            rs.getString("username"),
+                            rs.getString("password"),
+                            rs.getString("email")
+                    );
+                }
             }
             return null;
         } catch (SQLException e) {
@@ -47,11 +57,35 @@ public class MySQLUserDAO implements UserDAO {
         }
     }
 
+    @Override
+    public void forEachUsername(Consumer<String> action) throws DataAccessException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_USERNAMES);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                action.accept(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Unable to list usernames: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void updatePassword(String username, String password) throws DataAccessException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_PASSWORD)) {
+            stmt.setString(1, password);
+            stmt.setString(2, username);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException("Unable to update password: " + e.getMessage());
+        }
+    }
+
     @Override
     public void clear() throws DataAccessException {
-        String sql = "DELETE FROM users";
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(CLEAR_USERS)) {
             stmt.executeUpdate();
         } catch (SQLException e) {
             throw new DataAccessException("Unable to clear users: " + e.getMessage());
@@ -0,0 +1,42 @@
+package dataAccess;
+
+import java.util.Properties;
+
+/**
+ * Sizing and timeout settings for the {@link ConnectionPool}.
+ *
+ * @param maximumPoolSize          the most physical connections the pool will open
+ * @param minimumIdle              the number of idle connections the pool tries to keep ready
+ * @param connectionTimeoutMs      how long a borrower waits for a connection before failing
+ * @param idleTimeoutMs            how long a connection may sit idle before it is retired
+ * @param validationTimeoutMs      how long a liveness check on borrow may take
+ * @param leakDetectionThresholdMs how long a connection may be held before a leak is reported, or 0 to disable
+ * @param statementCacheSize       prepared statements kept open per connection, or 0 to disable the cache
+ */
+public record PoolConfig(int maximumPoolSize, int minimumIdle, long connectionTimeoutMs,
+                         long idleTimeoutMs, long validationTimeoutMs, long leakDetectionThresholdMs,
+                         int statementCacheSize) {
+
+    /**
+     * Reads pool settings from the {@code pool.*} keys of the given properties, using defaults for missing keys.
+     *
+     * @param props the database properties
+     * @return the pool configuration
+     */
+    public static PoolConfig from(Properties props) {
+        int maximumPoolSize = Integer.parseInt(props.getProperty("pool.maximumPoolSize", "10"));
+        int minimumIdle = Integer.parseInt(props.getProperty("pool.minimumIdle", "2"));
+        if (maximumPoolSize < 1) {
+            throw new IllegalArgumentException("pool.maximumPoolSize must be at least 1");
+        }
+        return new PoolConfig(
+                maximumPoolSize,
+                Math.max(0, Math.min(minimumIdle, maximumPoolSize)),
+                Long.parseLong(props.getProperty("pool.connectionTimeoutMs", "30000")),
+                Long.parseLong(props.getProperty("pool.idleTimeoutMs", "600000")),
+                Long.parseLong(props.getProperty("pool.validationTimeoutMs", "5000")),
+                Long.parseLong(props.getProperty("pool.leakDetectionThresholdMs", "0")),
+                Integer.parseInt(props.getProperty("pool.statementCacheSize", "32"))
+        );
+    }
+}
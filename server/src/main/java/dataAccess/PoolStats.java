@@ -0,0 +1,25 @@
+package dataAccess;
+
+/**
+ * Point-in-time snapshot of {@link ConnectionPool} usage.
+ *
+ * @param active          connections currently borrowed
+ * @param idle            connections ready to be borrowed
+ * @param total           all physical connections owned by the pool
+ * @param threadsAwaiting threads currently waiting for a connection
+ * @param borrowCount     connections handed out since the pool started
+ * @param totalWaitNanos  total time borrowers spent waiting for a connection
+ * @param maxWaitNanos    longest time a single borrower waited
+ */
+public record PoolStats(int active, int idle, int total, int threadsAwaiting,
+                        long borrowCount, long totalWaitNanos, long maxWaitNanos) {
+
+    /**
+     * Returns the mean time a borrower waited for a connection.
+     *
+     * @return the average wait in milliseconds, or 0 if nothing has been borrowed
+     */
+    public double averageWaitMillis() {
+        return borrowCount == 0 ? 0 : totalWaitNanos / (double) borrowCount / 1_000_000;
+    }
+}
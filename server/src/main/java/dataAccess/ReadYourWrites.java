@@ -0,0 +1,121 @@
+package dataAccess;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers recent writes so the reads that must see them skip the read replicas until replication
+ * has had time to catch up. A write marks the row it touched, such as a game or an auth token, and
+ * the user acting on the current thread, if a service named one with {@link #actingAs(String)}.
+ * A read goes to the primary while its row or its user is marked, and to a replica otherwise.
+ * <p>
+ * Marks live in this process only, so stickiness holds for requests served by the same server.
+ */
+public final class ReadYourWrites {
+    /** Marked keys are swept for expired entries once there are this many. */
+    private static final int SWEEP_THRESHOLD = 4096;
+    private static final ThreadLocal<String> ACTING_USER = new ThreadLocal<>();
+    /** Key to the nanoTime its mark expires at. */
+    private static final Map<String, Long> MARKS = new ConcurrentHashMap<>();
+    private static volatile long windowNanos = TimeUnit.SECONDS.toNanos(2);
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Sets how long after a write its reads stay on the primary; at least the replicas' usual lag.
+     *
+     * @param millis the window in milliseconds
+     */
+    static void setWindow(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("database.readYourWritesMs must not be negative");
+        }
+        windowNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Attributes the writes and reads on this thread to a user until the returned scope is closed.
+     *
+     * @param username the user the current request acts for
+     * @return the scope; close it when the request is done
+     */
+    public static Scope actingAs(String username) {
+        String previous = ACTING_USER.get();
+        ACTING_USER.set(username);
+        return () -> {
+            if (previous == null) {
+                ACTING_USER.remove();
+            } else {
+                ACTING_USER.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Records a committed write to a row, and by the acting user if there is one.
+     *
+     * @param key the row written, from {@link #gameKey(int)} or {@link #authKey(String)}, or null
+     */
+    public static void wrote(String key) {
+        long expires = System.nanoTime() + windowNanos;
+        if (key != null) {
+            MARKS.put(key, expires);
+        }
+        String user = ACTING_USER.get();
+        if (user != null) {
+            MARKS.put(userKey(user), expires);
+        }
+        if (MARKS.size() > SWEEP_THRESHOLD) {
+            long now = System.nanoTime();
+            MARKS.values().removeIf(deadline -> deadline - now < 0);
+        }
+    }
+
+    /**
+     * Tells whether a read must go to the primary to see a recent write.
+     *
+     * @param key the row read, or null for reads spanning many rows
+     * @return true if the row or the acting user was written within the window
+     */
+    public static boolean mustReadPrimary(String key) {
+        String user = ACTING_USER.get();
+        return isMarked(key) || (user != null && isMarked(userKey(user)));
+    }
+
+    /**
+     * @param gameID a game ID
+     * @return the key of that game's row
+     */
+    public static String gameKey(int gameID) {
+        return "game:" + gameID;
+    }
+
+    /**
+     * @param authToken an auth token
+     * @return the key of that token's row
+     */
+    public static String authKey(String authToken) {
+        return "auth:" + authToken;
+    }
+
+    private static String userKey(String username) {
+        return "user:" + username;
+    }
+
+    private static boolean isMarked(String key) {
+        if (key == null) {
+            return false;
+        }
+        Long deadline = MARKS.get(key);
+        return deadline != null && deadline - System.nanoTime() > 0;
+    }
+
+    /** An {@link #actingAs(String)} attribution that ends when closed. */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
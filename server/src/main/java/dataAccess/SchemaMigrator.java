@@ -0,0 +1,246 @@
+package dataAccess;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import logging.Logger;
+
+/**
+ * Brings a database's chess tables up to the current schema with versioned migrations.
+ * Migrations are SQL scripts under {@code db/migration} on the classpath, named
+ * {@code V<version>__<description>.sql} and listed in {@link #SCRIPTS}; they run once each, in
+ * version order, and are recorded in {@code schemaVersion} with a SHA-256 of their text. On a database
+ * that is already current, startup only reads that table.
+ * <p>
+ * An applied script whose checksum no longer matches fails startup: edit the schema by adding a new
+ * script, never by changing an old one. MySQL commits each DDL statement as it runs, so a script that
+ * fails half way must be finished by hand before the server will start. Servers starting at once take
+ * a named lock, so only one of them migrates.
+ */
+final class SchemaMigrator {
+    /** Every migration, in order; a new script must be added here. */
+    static final List<String> SCRIPTS = List.of(
+            "V1__baseline.sql",
+            "V2__player_indexes_and_json_state.sql",
+            "V3__game_id_sequence.sql"
+    );
+    private static final Logger LOG = Logger.get(SchemaMigrator.class);
+    private static final String LOCATION = "db/migration/";
+    private static final String LOCK_NAME = "chess_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+    private static final String CREATE_HISTORY = """
+            CREATE TABLE IF NOT EXISTS schemaVersion (
+                version INT NOT NULL,
+                description VARCHAR(255) NOT NULL,
+                checksum CHAR(64) NOT NULL,
+                appliedAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (version)
+            )""";
+    private static final String SELECT_HISTORY = "SELECT version, checksum FROM schemaVersion";
+    private static final String RECORD = "INSERT INTO schemaVersion (version, description, checksum) VALUES (?, ?, ?)";
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Applies the migrations the database has not had yet.
+     *
+     * @param url      JDBC URL of the database
+     * @param username database user, which needs DDL rights
+     * @param password database password
+     * @return how many migrations were applied
+     * @throws RuntimeException if a script is missing or was changed after it ran, or a migration fails
+     */
+    static int migrate(String url, String username, String password) {
+        List<Migration> migrations = load();
+        try (Connection conn = DriverManager.getConnection(url, username, password)) {
+            conn.setAutoCommit(true);
+            Map<Integer, String> applied = history(conn);
+            if (applied != null && isCurrent(applied, migrations)) {
+                return 0;
+            }
+            lock(conn);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(CREATE_HISTORY);
+                }
+                // Read again under the lock; another server may have migrated meanwhile. Check every
+                // applied script before running anything, so a changed one fails with the schema untouched
+                applied = history(conn);
+                if (isCurrent(applied, migrations)) {
+                    return 0;
+                }
+                int count = 0;
+                for (Migration migration : migrations) {
+                    if (!applied.containsKey(migration.version())) {
+                        apply(conn, migration);
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    LOG.info("Applied schema migrations", "count", count, "url", url);
+                }
+                return count;
+            } finally {
+                unlock(conn);
+            }
+        } catch (SQLException e) {
+            LOG.error("Failed to migrate schema", "error", e.getMessage());
+            throw new RuntimeException("Failed to migrate schema: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks the applied migrations against the scripts.
+     *
+     * @return true if every script has been applied
+     * @throws RuntimeException if an applied script has changed since
+     */
+    private static boolean isCurrent(Map<Integer, String> applied, List<Migration> migrations) {
+        boolean current = true;
+        for (Migration migration : migrations) {
+            String checksum = applied.get(migration.version());
+            if (checksum == null) {
+                current = false;
+            } else if (!checksum.equals(migration.checksum())) {
+                throw new RuntimeException("Schema migration " + migration.name()
+                        + " was changed after it was applied; add a new migration instead");
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return applied versions and their checksums, or null if no migration has ever run here
+     */
+    private static Map<Integer, String> history(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new TreeMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_HISTORY);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getString(2));
+            }
+            return applied;
+        } catch (SQLException e) {
+            // 42S02: the history table does not exist yet
+            if ("42S02".equals(e.getSQLState())) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.statements()) {
+                stmt.execute(sql);
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(RECORD)) {
+            stmt.setInt(1, migration.version());
+            stmt.setString(2, migration.description());
+            stmt.setString(3, migration.checksum());
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void lock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another server to finish migrating");
+                }
+            }
+        }
+    }
+
+    private static void unlock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        }
+    }
+
+    /**
+     * Reads every script in {@link #SCRIPTS} from the classpath.
+     */
+    static List<Migration> load() {
+        List<Migration> migrations = new ArrayList<>();
+        int previous = 0;
+        for (String name : SCRIPTS) {
+            int separator = name.indexOf("__");
+            if (!name.startsWith("V") || separator < 0 || !name.endsWith(".sql")) {
+                throw new IllegalStateException("Migration " + name + " is not named V<version>__<description>.sql");
+            }
+            int version = Integer.parseInt(name.substring(1, separator));
+            if (version <= previous) {
+                throw new IllegalStateException("Migration " + name + " is out of order");
+            }
+            previous = version;
+            String text;
+            try (InputStream input = SchemaMigrator.class.getClassLoader().getResourceAsStream(LOCATION + name)) {
+                if (input == null) {
+                    throw new IllegalStateException("Migration " + name + " not found in classpath");
+                }
+                text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read migration " + name, e);
+            }
+            String description = name.substring(separator + 2, name.length() - ".sql".length()).replace('_', ' ');
+            migrations.add(new Migration(version, name, description, sha256(text), split(text)));
+        }
+        return migrations;
+    }
+
+    /**
+     * Splits a script into statements at semicolons that end a line, dropping {@code --} comment lines.
+     */
+    static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                statements.add(sql.substring(0, sql.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is unavailable", e);
+        }
+    }
+
+    /** One script: its version, file name, description, checksum, and statements. */
+    record Migration(int version, String name, String description, String checksum, List<String> statements) {
+    }
+}
@@ -0,0 +1,343 @@
+package dataAccess;
+
+import model.AuthData;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Issues self-validating auth tokens in front of another AuthDAO, so authenticating a request is an
+ * HMAC check instead of a store lookup. A token reads
+ * {@code <keyId>.<issuedAtMillis>.<base64url username>.<nonce>.<base64url HMAC-SHA256 of the first four>};
+ * the nonce keeps two logins in the same millisecond from sharing a token, and tokens issued without
+ * one are still accepted.
+ * Several keys can verify at once, so a new signing key can be rolled out while tokens signed by the
+ * old one are still in use.
+ * <p>
+ * Logged-out tokens are kept in a revocation set until they would have expired anyway: a bloom filter
+ * answers the common "not revoked" case, and an exact map confirms its positives. Clearing the store
+ * invalidates every token issued before the clear. Tokens that are not in the signed format, such as
+ * ones issued before signing was turned on, are passed to the delegate.
+ * <p>
+ * Revocations are held in this process. In a cluster, another node's logouts and clears reach it
+ * through {@link #revokedElsewhere(String)} and {@link #clearedElsewhere(long)}.
+ */
+public class SignedAuthDAO implements AuthDAO {
+    /** Default lifetime of a signed token. */
+    public static final long DEFAULT_TTL_MS = TimeUnit.HOURS.toMillis(24);
+    private static final String ALGORITHM = "HmacSHA256";
+    /** Revocations kept before expired ones are swept and the filter rebuilt. */
+    private static final int SWEEP_THRESHOLD = 1024;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /** Store for tokens that are not signed. */
+    private final AuthDAO delegate;
+    /** The key new tokens are signed with. */
+    private final String signingKeyId;
+    /** A MAC, initialised with its key, for every key ID accepted; cloned before use. */
+    private final Map<String, Mac> verifiers;
+    private final long ttlMillis;
+    /** Revoked tokens, mapped to the time they would have expired. */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    /** Every token in {@link #revoked}, possibly plus a few already swept out. */
+    private volatile BloomFilter revokedFilter = new BloomFilter(SWEEP_THRESHOLD, FALSE_POSITIVE_RATE);
+    /** Tokens issued at or before this time were invalidated by a clear. */
+    private volatile long notBefore;
+    /** Serialises revocations and clears with the filter rebuild. */
+    private final ReentrantLock revocationLock = new ReentrantLock();
+
+    /**
+     * Constructs a signer.
+     *
+     * @param delegate  the AuthDAO for tokens that are not signed
+     * @param keys      secret keys by key ID; the first one signs new tokens and all of them verify
+     * @param ttlMillis how long a token stays valid after it is issued
+     */
+    public SignedAuthDAO(AuthDAO delegate, Map<String, byte[]> keys, long ttlMillis) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("at least one signing key is required");
+        }
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        Map<String, Mac> macs = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> key : keys.entrySet()) {
+            if (key.getKey().isEmpty() || key.getKey().contains(".")) {
+                throw new IllegalArgumentException("key IDs must be non-empty and must not contain '.'");
+            }
+            if (key.getValue().length < 32) {
+                throw new IllegalArgumentException("signing key " + key.getKey() + " must be at least 32 bytes");
+            }
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(new SecretKeySpec(key.getValue(), ALGORITHM));
+                macs.put(key.getKey(), mac);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 is unavailable", e);
+            }
+        }
+        this.signingKeyId = keys.keySet().iterator().next();
+        this.verifiers = Map.copyOf(macs);
+    }
+
+    /**
+     * Wraps a store in a signer when db.properties asks for signed tokens:
+     * <pre>
+     * auth.tokens=signed
+     * auth.keys=k2:&lt;base64 secret&gt;,k1:&lt;base64 secret&gt;   # k2 signs, both verify
+     * auth.tokenTtlMs=86400000
+     * </pre>
+     *
+     * @param delegate the store tokens live in otherwise
+     * @param props    the database properties
+     * @return the signer, or the delegate itself if tokens are not signed
+     */
+    public static AuthDAO fromProperties(AuthDAO delegate, Properties props) {
+        if (!props.getProperty("auth.tokens", "stored").equalsIgnoreCase("signed")) {
+            return delegate;
+        }
+        Map<String, byte[]> keys = new LinkedHashMap<>();
+        for (String entry : props.getProperty("auth.keys", "").split(",")) {
+            int colon = entry.indexOf(':');
+            if (colon > 0) {
+                keys.put(entry.substring(0, colon).trim(), Base64.getDecoder().decode(entry.substring(colon + 1).trim()));
+            }
+        }
+        long ttl = Long.parseLong(props.getProperty("auth.tokenTtlMs", String.valueOf(DEFAULT_TTL_MS)));
+        return new SignedAuthDAO(delegate, keys, ttl);
+    }
+
+    /**
+     * Issues a signed token without touching the delegate.
+     *
+     * @param username the username to associate with the new authentication token
+     * @return the created AuthData object
+     * @throws DataAccessException if the username is null or empty
+     */
+    @Override
+    public AuthData createAuthToken(String username) throws DataAccessException {
+        if (username == null || username.trim().isEmpty()) {
+            throw new DataAccessException("bad request");
+        }
+        // Never issue in the millisecond of a clear, which invalidates everything issued up to it
+        long issuedAt = Math.max(System.currentTimeMillis(), notBefore + 1);
+        String body = signingKeyId + "." + issuedAt + "."
+                + ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8)) + "."
+                + Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        return new AuthData(body + "." + ENCODER.encodeToString(sign(signingKeyId, body)), username);
+    }
+
+    /**
+     * Validates a signed token with no I/O, or looks an unsigned one up in the delegate.
+     *
+     * @param authToken the authentication token to look up
+     * @return the AuthData for the token
+     * @throws DataAccessException with "unauthorized" if the token is null, forged, expired, or revoked
+     */
+    @Override
+    public AuthData getAuthToken(String authToken) throws DataAccessException {
+        if (authToken == null) {
+            throw new DataAccessException("unauthorized");
+        }
+        SignedToken token = SignedToken.parse(authToken);
+        if (token == null) {
+            return delegate.getAuthToken(authToken);
+        }
+        String username = verify(token);
+        if (username == null || isRevoked(authToken)) {
+            throw new DataAccessException("unauthorized");
+        }
+        return new AuthData(authToken, username);
+    }
+
+    /**
+     * Revokes a signed token, or deletes an unsigned one from the delegate.
+     *
+     * @param authToken the authentication token to remove
+     * @throws DataAccessException with "unauthorized" if the token is not currently valid
+     */
+    @Override
+    public void deleteAuthToken(String authToken) throws DataAccessException {
+        SignedToken token = authToken == null ? null : SignedToken.parse(authToken);
+        if (token == null) {
+            delegate.deleteAuthToken(authToken);
+            return;
+        }
+        if (verify(token) == null) {
+            throw new DataAccessException("unauthorized");
+        }
+        if (!revoke(authToken, token)) {
+            throw new DataAccessException("unauthorized");
+        }
+    }
+
+    /**
+     * Revokes a signed token another node logged out, or passes an unsigned one to the delegate.
+     *
+     * @param authToken the logged-out token
+     */
+    @Override
+    public void revokedElsewhere(String authToken) {
+        SignedToken token = authToken == null ? null : SignedToken.parse(authToken);
+        if (token == null) {
+            delegate.revokedElsewhere(authToken);
+        } else if (verify(token) != null) {
+            revoke(authToken, token);
+        }
+    }
+
+    /**
+     * Clears the delegate and invalidates every signed token issued so far.
+     *
+     * @throws DataAccessException if the delegate fails
+     */
+    @Override
+    public void clearAll() throws DataAccessException {
+        try {
+            delegate.clearAll();
+        } finally {
+            forgetAll();
+        }
+    }
+
+    /**
+     * Invalidates every signed token issued so far and drops the revocations, after the delegate was
+     * cleared some other way, such as by {@link DatabaseManager#clearDatabase()}.
+     */
+    void forgetAll() {
+        revocationLock.lock();
+        try {
+            // Past the previous clear too, since tokens issued after it may be stamped just beyond it
+            notBefore = Math.max(System.currentTimeMillis(), notBefore + 1);
+            revoked.clear();
+            revokedFilter = new BloomFilter(SWEEP_THRESHOLD, FALSE_POSITIVE_RATE);
+        } finally {
+            revocationLock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates every signed token issued up to another node's clear. Revocations are kept, since
+     * some may be of tokens issued here after it.
+     *
+     * @param clearedAtMillis when the store was cleared, in epoch milliseconds
+     */
+    @Override
+    public void clearedElsewhere(long clearedAtMillis) {
+        revocationLock.lock();
+        try {
+            notBefore = Math.max(notBefore, clearedAtMillis);
+        } finally {
+            revocationLock.unlock();
+        }
+        delegate.clearedElsewhere(clearedAtMillis);
+    }
+
+    /**
+     * Checks a token's key, signature, and age.
+     *
+     * @return the username it carries, or null if it is not valid
+     */
+    private String verify(SignedToken token) {
+        if (!verifiers.containsKey(token.keyId())) {
+            return null;
+        }
+        byte[] expected = sign(token.keyId(), token.body());
+        if (!MessageDigest.isEqual(expected, token.signature())) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (token.issuedAt() <= notBefore || now - token.issuedAt() >= ttlMillis) {
+            return null;
+        }
+        return token.username();
+    }
+
+    /**
+     * Adds a verified token to the revocation set.
+     *
+     * @return false if it was already revoked
+     */
+    private boolean revoke(String authToken, SignedToken token) {
+        revocationLock.lock();
+        try {
+            if (revoked.putIfAbsent(authToken, token.issuedAt() + ttlMillis) != null) {
+                return false;
+            }
+            revokedFilter.add(authToken);
+            if (revoked.size() > SWEEP_THRESHOLD) {
+                sweep();
+            }
+            return true;
+        } finally {
+            revocationLock.unlock();
+        }
+    }
+
+    private boolean isRevoked(String authToken) {
+        return revokedFilter.mightContain(authToken) && revoked.containsKey(authToken);
+    }
+
+    /**
+     * Drops revocations of tokens that have expired anyway and rebuilds the filter from the rest.
+     * Called with the revocation lock held.
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        BloomFilter filter = new BloomFilter(Math.max(SWEEP_THRESHOLD, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(filter::add);
+        revokedFilter = filter;
+    }
+
+    private byte[] sign(String keyId, String body) {
+        Mac mac;
+        try {
+            mac = (Mac) verifiers.get(keyId).clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC-SHA256 provider cannot clone its MAC", e);
+        }
+        return mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** A token split into its parts; the username is decoded lazily since forged tokens never need it. */
+    private record SignedToken(String keyId, long issuedAt, String encodedUsername, String body, byte[] signature) {
+        /**
+         * @return the parts of a token in the signed format, with or without a nonce, or null for anything else
+         */
+        static SignedToken parse(String token) {
+            int first = token.indexOf('.');
+            int second = token.indexOf('.', first + 1);
+            int third = token.indexOf('.', second + 1);
+            int last = token.lastIndexOf('.');
+            if (first <= 0 || second < 0 || third < 0 || token.lastIndexOf('.', last - 1) > third) {
+                return null;
+            }
+            try {
+                return new SignedToken(token.substring(0, first),
+                        Long.parseLong(token.substring(first + 1, second)),
+                        token.substring(second + 1, third),
+                        token.substring(0, last),
+                        DECODER.decode(token.substring(last + 1)));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        String username() {
+            return new String(DECODER.decode(encodedUsername), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package dataAccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-connection cache of prepared statements, keyed by SQL text.
+ * The DAOs prepare the same fixed set of statements over and over, so once a pooled connection has
+ * prepared a statement it is kept open and handed back on the next matching {@code prepareStatement}.
+ * Closing a cached statement closes the result sets it handed out, clears its parameters, and
+ * returns it to the cache.
+ * Only the thread holding the owning connection touches the cache, so it is not synchronized.
+ */
+class StatementCache {
+    private final Connection connection;
+    private final int maxSize;
+    private final Map<String, CachedStatement> statements = new HashMap<>();
+
+    /**
+     * Constructs an empty cache for a physical connection.
+     *
+     * @param connection the physical connection statements are prepared on
+     * @param maxSize    the most statements to keep open, or 0 to disable caching
+     */
+    StatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing a cached one when it is free.
+     *
+     * @param sql               the SQL text
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link Statement#NO_GENERATED_KEYS}
+     * @return a statement whose {@code close()} returns it to the cache when it is cached
+     * @throws SQLException if the statement cannot be prepared
+     */
+    PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? sql + "#keys" : sql;
+        CachedStatement cached = statements.get(key);
+        if (cached == null) {
+            if (statements.size() >= maxSize) {
+                return connection.prepareStatement(sql, autoGeneratedKeys);
+            }
+            cached = new CachedStatement(connection.prepareStatement(sql, autoGeneratedKeys));
+            statements.put(key, cached);
+        } else if (cached.inUse) {
+            // The same SQL is already open on this connection, so give the caller its own statement
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        cached.inUse = true;
+        return cached.checkout();
+    }
+
+    /**
+     * Returns any statements the caller left open to the cache. Called when the connection goes back to the pool.
+     */
+    void releaseAll() {
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) {
+                cached.release();
+            }
+        }
+    }
+
+    /**
+     * Number of statements currently held open by this cache.
+     *
+     * @return the cache size
+     */
+    int size() {
+        return statements.size();
+    }
+
+    /**
+     * A physical prepared statement kept open across borrows of its connection.
+     */
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private StatementHandler handle;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement checkout() {
+            handle = new StatementHandler(this);
+            return (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, handle);
+        }
+
+        private void release() {
+            if (handle != null) {
+                handle.closed = true;
+                handle.closeResults();
+                handle = null;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException ignored) {
+                // A broken statement surfaces on the next execute and evicts the connection
+            }
+            inUse = false;
+        }
+    }
+
+    /**
+     * Handler behind a checked-out statement; {@code close()} returns the statement instead of closing it.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private boolean closed;
+        /** Result sets handed out through this handle, which the next borrower must not inherit. */
+        private final List<ResultSet> results = new ArrayList<>();
+
+        private StatementHandler(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "Cached" + cached.statement;
+                };
+            }
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        cached.release();
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed;
+                }
+                default -> {
+                    // Fall through to the physical statement
+                }
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            Object result;
+            try {
+                result = method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet resultSet) {
+                results.add(resultSet);
+            }
+            return result;
+        }
+
+        private void closeResults() {
+            for (ResultSet resultSet : results) {
+                try {
+                    resultSet.close();
+                } catch (SQLException ignored) {
+                    // Closing is best effort; the statement is reused either way
+                }
+            }
+            results.clear();
+        }
+    }
+}
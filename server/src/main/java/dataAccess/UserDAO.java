@@ -2,13 +2,16 @@ package dataAccess;
 
 import model.UserData;
 
+import java.util.function.Consumer;
+
 // Interface defining methods for managing user data
 public interface UserDAO {
     /**
      * Creates a new user in storage.
      *
      * @param user the userData object containing user information
-     * @throws DataAccessException if the user is invalid or creation fails
+     * @throws DataAccessException if the user is invalid or creation fails, with "already taken" if the
+     *                             username is registered already
      */
     void createUser(UserData user) throws DataAccessException;
 
@@ -21,6 +24,36 @@ public interface UserDAO {
      */
     UserData getUser(String username) throws DataAccessException;
 
+    /**
+     * Tells whether a username may already be registered, without a lookup when the answer is
+     * certainly no. Stores without such an index always answer true, so callers fall back to
+     * {@link #getUser(String)}.
+     *
+     * @param username the username to check
+     * @return false if the username is certainly free, true if it may be taken
+     * @throws DataAccessException if the check fails
+     */
+    default boolean mightExist(String username) throws DataAccessException {
+        return true;
+    }
+
+    /**
+     * Passes every registered username to an action, for building in-memory indexes at startup.
+     *
+     * @param action receives each username
+     * @throws DataAccessException if the usernames cannot be read
+     */
+    void forEachUsername(Consumer<String> action) throws DataAccessException;
+
+    /**
+     * Replaces a user's stored password, such as with a hash made at a new cost.
+     *
+     * @param username the user to update
+     * @param password the new stored password
+     * @throws DataAccessException if the update fails
+     */
+    void updatePassword(String username, String password) throws DataAccessException;
+
     /**
      * Clears all user data from storage.
      *
@@ -0,0 +1,152 @@
+package dataAccess;
+
+import chess.ChessGame;
+import model.GameData;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts changes to the games written through it, so callers can tell a client its copy is still
+ * current without reading the store. Every write takes the next value of one clock and stamps it on
+ * the game it changed and on the game list, so both versions only ever increase, even across
+ * {@link #clear()}. A game not written since startup or the last clear has the version of that moment.
+ * <p>
+ * Versions are bumped after the write returns, and a caller must read the version before reading the
+ * data it describes: then a response is never tagged newer than its content. Only writes made through
+ * this object are seen, so the versions are meaningful only where every write to the games goes
+ * through one instance, as on a single server. A listing served from a lagging read replica may
+ * also be older than its version.
+ */
+public class VersionedGameDAO implements GameDAO {
+    /** The GameDAO holding the games. */
+    private final GameDAO delegate;
+    private final AtomicLong clock = new AtomicLong();
+    /** Version of each game written since {@link #base}. */
+    private final Map<Integer, Long> versions = new ConcurrentHashMap<>();
+    /** Clock value at startup or the last clear; the version of games not written since. */
+    private volatile long base;
+    private final AtomicLong listVersion = new AtomicLong();
+
+    /**
+     * @param delegate the GameDAO to track
+     */
+    public VersionedGameDAO(GameDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the version of the game list, which changes whenever any game does
+     */
+    public long listVersion() {
+        return listVersion.get();
+    }
+
+    /**
+     * @param gameID a game ID
+     * @return the version of that game
+     */
+    public long version(int gameID) {
+        Long version = versions.get(gameID);
+        return version == null ? base : version;
+    }
+
+    @Override
+    public GameData createGame(String gameName) throws DataAccessException {
+        GameData game = delegate.createGame(gameName);
+        changed(game.gameID());
+        return game;
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        return delegate.getGame(gameID);
+    }
+
+    @Override
+    public Collection<GameData> listgame() throws DataAccessException {
+        return delegate.listgame();
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        try {
+            delegate.updateGame(game);
+        } finally {
+            changed(game.gameID());
+        }
+    }
+
+    @Override
+    public void updateGameStates(Collection<GameData> games) throws DataAccessException {
+        try {
+            delegate.updateGameStates(games);
+        } finally {
+            for (GameData game : games) {
+                changed(game.gameID());
+            }
+        }
+    }
+
+    @Override
+    public boolean claimSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException {
+        boolean claimed = true;
+        try {
+            // A failure is counted as a change, since the seat may have been written before it
+            claimed = delegate.claimSeat(gameID, color, username);
+            return claimed;
+        } finally {
+            if (claimed) {
+                changed(gameID);
+            }
+        }
+    }
+
+    @Override
+    public boolean releaseSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException {
+        boolean released = true;
+        try {
+            released = delegate.releaseSeat(gameID, color, username);
+            return released;
+        } finally {
+            if (released) {
+                changed(gameID);
+            }
+        }
+    }
+
+    @Override
+    public void updateGameState(int gameID, ChessGame game) throws DataAccessException {
+        try {
+            delegate.updateGameState(gameID, game);
+        } finally {
+            changed(gameID);
+        }
+    }
+
+    @Override
+    public boolean cachesGames() {
+        return delegate.cachesGames();
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        try {
+            delegate.clear();
+        } finally {
+            long version = clock.incrementAndGet();
+            base = version;
+            versions.clear();
+            listVersion.accumulateAndGet(version, Math::max);
+        }
+    }
+
+    private void changed(int gameID) {
+        long version = clock.incrementAndGet();
+        versions.merge(gameID, version, Math::max);
+        // Writers may finish out of order; the list keeps the newest version either way
+        listVersion.accumulateAndGet(version, Math::max);
+    }
+}
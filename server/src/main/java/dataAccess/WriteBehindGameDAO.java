@@ -0,0 +1,580 @@
+package dataAccess;
+
+import chess.ChessGame;
+import model.GameData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+import logging.Logger;
+
+/**
+ * Write-behind cache in front of another GameDAO.
+ * Games that have been read or written stay in memory and are the source of truth for their chess state
+ * while they are hot. Moves replace the in-memory copy and mark the game dirty, so several moves to one
+ * game between flushes become a single write. Dirty games are flushed to the backing store in batches on
+ * a fixed interval or as soon as enough of them are waiting, and once more when the DAO is closed.
+ * <p>
+ * Only chess state is written behind. Creating a game, full updates, and seat changes go straight to the
+ * backing store, which decides seat races, and the in-memory copies follow it; a flush writes only the
+ * chess state, so it never undoes a seat change.
+ * <p>
+ * A flushed batch stays in memory as in flight until the backing store commits it, and only games
+ * neither dirty nor in flight are evicted, so the hot copy is never dropped for a store that does not
+ * have it yet. Eviction happens under the flush lock and bumps a counter first; a read that went to the
+ * backing store checks the counter and reads again if a newer copy may have been evicted meanwhile.
+ */
+public class WriteBehindGameDAO implements GameDAO, AutoCloseable {
+    /** Default time between background flushes. */
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 200;
+    /** Default number of dirty games that triggers an early flush. */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    /** Default number of clean games kept in memory. */
+    public static final int DEFAULT_MAX_HOT_GAMES = 1_000;
+    private static final Logger LOG = Logger.get(WriteBehindGameDAO.class);
+    /** How long a group commit waits for more updates to join the batch. */
+    private static final long GROUP_COMMIT_WINDOW_MS = 2;
+    /** Listings retried because of an eviction before one is made with eviction held off. */
+    private static final int LIST_ATTEMPTS = 3;
+
+    /**
+     * How long {@link #updateGame} waits before reporting success.
+     */
+    public enum Durability {
+        /** Write through to the backing store before returning. */
+        SYNC,
+        /** Return once the in-memory copy is updated; the write happens on the next flush. */
+        ASYNC,
+        /** Wait for the next flush, which batches every update that arrived in the same window. */
+        GROUP_COMMIT
+    }
+
+    /** The GameDAO holding the persistent copy of every game. */
+    private final GameDAO delegate;
+    private final Durability durability;
+    private final long flushIntervalMs;
+    private final int batchSize;
+    private final int maxHotGames;
+    /** Hot games, which may be newer than the backing store. */
+    private final Map<Integer, GameData> games = new ConcurrentHashMap<>();
+    /** Latest unflushed version of each dirty game. */
+    private final Map<Integer, GameData> dirty = new ConcurrentHashMap<>();
+    /** Games taken from {@link #dirty} by the flush now writing them, until the write commits. */
+    private final Map<Integer, GameData> inFlight = new ConcurrentHashMap<>();
+    /**
+     * Counts evictions and seat changes, bumped before each eviction and after each seat change is copied
+     * to {@link #dirty} and {@link #inFlight}, so a read that may have picked up an older copy can tell.
+     */
+    private final AtomicLong evictions = new AtomicLong();
+    /** Completed once the flush that picks up the current dirty set has been written. */
+    private volatile CompletableFuture<Void> nextFlush = new CompletableFuture<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    /** Serializes flushes with each other, with {@link #clear}, and with eviction. */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+    private final Thread shutdownHook;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a write-behind cache with the default settings and asynchronous durability.
+     *
+     * @param delegate the GameDAO to write behind to
+     */
+    public WriteBehindGameDAO(GameDAO delegate) {
+        this(delegate, Durability.ASYNC, DEFAULT_FLUSH_INTERVAL_MS, DEFAULT_BATCH_SIZE, DEFAULT_MAX_HOT_GAMES);
+    }
+
+    /**
+     * Constructs a write-behind cache.
+     *
+     * @param delegate        the GameDAO to write behind to
+     * @param durability      when updates are reported as complete
+     * @param flushIntervalMs time between background flushes
+     * @param batchSize       number of dirty games that triggers an early flush
+     * @param maxHotGames     number of clean games kept in memory
+     */
+    public WriteBehindGameDAO(GameDAO delegate, Durability durability, long flushIntervalMs, int batchSize,
+                              int maxHotGames) {
+        this.delegate = delegate;
+        this.durability = durability;
+        this.flushIntervalMs = flushIntervalMs;
+        this.batchSize = batchSize;
+        this.maxHotGames = maxHotGames;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chess-game-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs,
+                TimeUnit.MILLISECONDS);
+        this.shutdownHook = new Thread(this::close, "chess-game-flusher-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Creates the game in the backing store, which assigns its ID, and keeps it hot.
+     *
+     * @param gameName the name of the game to create
+     * @return the created game
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public GameData createGame(String gameName) throws DataAccessException {
+        GameData game = delegate.createGame(gameName);
+        if (game != null) {
+            keepHot(game);
+        }
+        return game;
+    }
+
+    /**
+     * Returns the hot copy of a game, loading it from the backing store on a miss.
+     *
+     * @param gameID the ID of the game to retrieve
+     * @return the game, or whatever the backing store returns for an unknown ID
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        while (true) {
+            GameData game = games.get(gameID);
+            if (game != null) {
+                return game;
+            }
+            long evicted = evictions.get();
+            // Checked in the order a flush moves games, so a game being drained is found in one of them
+            GameData pending = dirty.get(gameID);
+            if (pending == null) {
+                pending = inFlight.get(gameID);
+            }
+            if (pending != null) {
+                GameData hot = games.putIfAbsent(gameID, pending);
+                if (hot != null) {
+                    return hot;
+                }
+                if (evictions.get() == evicted) {
+                    return pending;
+                }
+                // A seat may have changed after the pending copy was read; read again
+                games.remove(gameID, pending);
+                continue;
+            }
+            game = delegate.getGame(gameID);
+            if (game == null) {
+                return null;
+            }
+            // An update may have landed while we were loading; the in-memory copy wins
+            GameData hot = games.putIfAbsent(gameID, game);
+            if (hot != null) {
+                return hot;
+            }
+            if (evictions.get() == evicted) {
+                trimHotGames(gameID);
+                return game;
+            }
+            // A newer copy may have been written and evicted while we read the old one; read again
+            games.remove(gameID, game);
+        }
+    }
+
+    /**
+     * Lists every game in the backing store, substituting the newer in-memory copy of hot, dirty, and
+     * in-flight games.
+     *
+     * @return all games
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public Collection<GameData> listgame() throws DataAccessException {
+        for (int attempt = 1; attempt < LIST_ATTEMPTS; attempt++) {
+            long evicted = evictions.get();
+            Collection<GameData> listing = listWithHotCopies();
+            if (evictions.get() == evicted) {
+                return listing;
+            }
+        }
+        // Keep eviction out of the last attempt, at the cost of waiting for a flush in progress
+        flushLock.lock();
+        try {
+            return listWithHotCopies();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes a whole game straight to the backing store in every durability mode, then replaces the
+     * in-memory copy. Waits for a flush in progress, so an older chess state cannot land after this one.
+     *
+     * @param game the updated game
+     * @throws DataAccessException if the game is unknown or the write fails
+     */
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        if (game == null || getGame(game.gameID()) == null) {
+            throw new DataAccessException("Bad request");
+        }
+        flushLock.lock();
+        try {
+            delegate.updateGame(game);
+            // The pending chess state is older than the one just written
+            games.compute(game.gameID(), (id, current) -> {
+                dirty.remove(id);
+                return game;
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Claims a seat in the backing store in every durability mode, so the store decides seat races, then
+     * copies the claim onto the in-memory copies.
+     *
+     * @param gameID   the ID of the game to join
+     * @param color    the seat to claim
+     * @param username the player taking the seat
+     * @return true if the seat was claimed
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public boolean claimSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException {
+        return seatChanged(gameID, color, username, delegate.claimSeat(gameID, color, username));
+    }
+
+    /**
+     * Empties a seat in the backing store in every durability mode, then copies the change onto the
+     * in-memory copies.
+     *
+     * @param gameID   the ID of the game to leave
+     * @param color    the seat to release
+     * @param username the player expected in the seat
+     * @return true if the seat was released
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public boolean releaseSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException {
+        return seatChanged(gameID, color, null, delegate.releaseSeat(gameID, color, username));
+    }
+
+    /**
+     * Replaces the chess state of the in-memory copy, keeping its players, then schedules the write like any update.
+     *
+     * @param gameID the ID of the game to update
+     * @param game   the new chess state
+     * @throws DataAccessException if the game is unknown, or the write fails in SYNC or GROUP_COMMIT mode
+     */
+    @Override
+    public void updateGameState(int gameID, ChessGame game) throws DataAccessException {
+        boolean updated = changeHot(gameID, current -> current.withGame(game), () -> {
+            delegate.updateGameState(gameID, game);
+            return true;
+        });
+        if (!updated) {
+            throw new DataAccessException("Game not found");
+        }
+    }
+
+    /**
+     * @return true, since hot games are the source of truth for their chess state
+     */
+    @Override
+    public boolean cachesGames() {
+        return true;
+    }
+
+    /**
+     * Clears the backing store, then discards pending writes and hot games.
+     *
+     * @throws DataAccessException if the backing store fails
+     */
+    @Override
+    public void clear() throws DataAccessException {
+        flushLock.lock();
+        try {
+            delegate.clear();
+        } finally {
+            forgetAll();
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Discards pending writes and hot games after the backing store was cleared some other way, such
+     * as by {@link DatabaseManager#clearDatabase()}. A flush that got in first only updates rows that
+     * are gone.
+     */
+    void forgetAll() {
+        flushLock.lock();
+        try {
+            // Reads from the store already under way must not keep their rows
+            evictions.incrementAndGet();
+            dirty.clear();
+            games.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every dirty game to the backing store in one batch.
+     *
+     * @throws DataAccessException if the batch fails; the games stay dirty and are retried on the next flush
+     */
+    public void flush() throws DataAccessException {
+        flushLock.lock();
+        try {
+            flushScheduled.set(false);
+            CompletableFuture<Void> completing = nextFlush;
+            nextFlush = new CompletableFuture<>();
+            List<GameData> batch = drainDirty();
+            try {
+                if (!batch.isEmpty()) {
+                    delegate.updateGameStates(batch);
+                }
+            } catch (DataAccessException | RuntimeException e) {
+                // Put the games back unless a newer version has been queued meanwhile. Only this flush
+                // moves games into inFlight, but a seat change may have replaced the copy there
+                for (GameData game : batch) {
+                    dirty.putIfAbsent(game.gameID(), inFlight.getOrDefault(game.gameID(), game));
+                    inFlight.remove(game.gameID());
+                }
+                completing.completeExceptionally(e);
+                throw e;
+            }
+            for (GameData game : batch) {
+                inFlight.remove(game.gameID());
+            }
+            completing.complete(null);
+            evictCleanGames(null);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Number of games with updates not yet written to the backing store.
+     *
+     * @return the dirty game count
+     */
+    public int pendingWrites() {
+        return dirty.size();
+    }
+
+    /**
+     * Stops the background flusher and writes any remaining dirty games.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(flushIntervalMs * 10, TimeUnit.MILLISECONDS);
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (DataAccessException e) {
+            LOG.error("Failed to flush games on shutdown", "pending", dirty.size(), "error", e.getMessage());
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ignored) {
+                // The JVM is already shutting down and the hook is running or has run
+            }
+        }
+    }
+
+    /**
+     * Copies a seat change the backing store has made onto every in-memory copy of the game.
+     *
+     * @param username the seat's new holder, or null if it was emptied
+     * @param changed  whether the backing store made the change
+     * @return changed
+     */
+    private boolean seatChanged(int gameID, ChessGame.TeamColor color, String username, boolean changed) {
+        if (changed) {
+            // inFlight before dirty, so a failed flush putting its copy back picks the change up either way;
+            // then warn reads that may have taken an older copy meanwhile
+            inFlight.computeIfPresent(gameID, (id, current) -> current.withPlayer(color, username));
+            dirty.computeIfPresent(gameID, (id, current) -> current.withPlayer(color, username));
+            evictions.incrementAndGet();
+            games.computeIfPresent(gameID, (id, current) -> current.withPlayer(color, username));
+        }
+        return changed;
+    }
+
+    /**
+     * Applies a change to the hot copy of a game as a compare-and-set, then marks the result dirty.
+     * In SYNC mode the backing store decides and the in-memory copy follows.
+     *
+     * @param change returns the changed game, or null if the change does not apply to the current copy
+     * @param store  the same change made directly against the backing store, for SYNC mode
+     * @return true if the change was applied
+     */
+    private boolean changeHot(int gameID, UnaryOperator<GameData> change, StoreChange store)
+            throws DataAccessException {
+        GameData loaded = getGame(gameID);
+        if (loaded == null) {
+            return false;
+        }
+        if (durability == Durability.SYNC || closed) {
+            if (!store.apply()) {
+                return false;
+            }
+            // A change that no longer applies drops the hot copy, so the next read reloads the stored one
+            games.computeIfPresent(gameID, (id, current) -> change.apply(current));
+            return true;
+        }
+        GameData[] changed = new GameData[1];
+        boolean[] evicted = new boolean[1];
+        games.compute(gameID, (id, current) -> {
+            if (current == null) {
+                // Evicted since it was loaded; load it again rather than change a copy the store may have passed
+                evicted[0] = true;
+                return null;
+            }
+            changed[0] = change.apply(current);
+            if (changed[0] == null) {
+                return current;
+            }
+            // Mark the game dirty along with the hot copy, so eviction never sees the new copy as clean
+            dirty.put(id, changed[0]);
+            return changed[0];
+        });
+        if (evicted[0]) {
+            return changeHot(gameID, change, store);
+        }
+        if (changed[0] == null) {
+            return false;
+        }
+        scheduleFlush();
+        return true;
+    }
+
+    private void scheduleFlush() throws DataAccessException {
+        // Read the flush future after marking the game dirty, so the flush it waits on includes this update
+        CompletableFuture<Void> flushed = nextFlush;
+        if (durability == Durability.GROUP_COMMIT) {
+            requestFlush(GROUP_COMMIT_WINDOW_MS);
+            awaitFlush(flushed);
+        } else if (dirty.size() >= batchSize) {
+            requestFlush(0);
+        }
+    }
+
+    private List<GameData> drainDirty() {
+        List<GameData> batch = new ArrayList<>(dirty.size());
+        for (Integer gameID : new ArrayList<>(dirty.keySet())) {
+            // Move each game in one step, so a read never finds it in neither map
+            dirty.computeIfPresent(gameID, (id, game) -> {
+                inFlight.put(id, game);
+                batch.add(game);
+                return null;
+            });
+        }
+        return batch;
+    }
+
+    private void requestFlush(long delayMs) {
+        if (!closed && flushScheduled.compareAndSet(false, true)) {
+            flusher.schedule(this::flushQuietly, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DataAccessException | RuntimeException e) {
+            LOG.warn("Write-behind flush failed", "pending", dirty.size(), "error", e.getMessage());
+        }
+    }
+
+    private void awaitFlush(CompletableFuture<Void> flushed) throws DataAccessException {
+        try {
+            flushed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Interrupted waiting for game to be saved");
+        } catch (ExecutionException e) {
+            throw new DataAccessException("Unable to update game: " + e.getCause().getMessage());
+        }
+    }
+
+    private Collection<GameData> listWithHotCopies() throws DataAccessException {
+        Map<Integer, GameData> result = new LinkedHashMap<>();
+        for (GameData game : delegate.listgame()) {
+            result.put(game.gameID(), game);
+        }
+        // Oldest to newest: a hot copy is at least as new as the dirty or in-flight one
+        overlay(result, inFlight);
+        overlay(result, dirty);
+        overlay(result, games);
+        return new ArrayList<>(result.values());
+    }
+
+    private static void overlay(Map<Integer, GameData> result, Map<Integer, GameData> newer) {
+        for (GameData game : newer.values()) {
+            result.put(game.gameID(), game);
+        }
+    }
+
+    private void keepHot(GameData game) {
+        games.putIfAbsent(game.gameID(), game);
+        trimHotGames(game.gameID());
+    }
+
+    /**
+     * Evicts clean games other than the one just made hot if there are too many, unless a flush is
+     * running; that flush evicts when it is done.
+     */
+    private void trimHotGames(int keep) {
+        if (games.size() > maxHotGames && flushLock.tryLock()) {
+            try {
+                evictCleanGames(keep);
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Evicts games whose hot copy the backing store already has; call with the flush lock held.
+     *
+     * @param keep a game to leave hot, or null
+     */
+    private void evictCleanGames(Integer keep) {
+        Iterator<Map.Entry<Integer, GameData>> entries = games.entrySet().iterator();
+        while (games.size() > maxHotGames && entries.hasNext()) {
+            Map.Entry<Integer, GameData> entry = entries.next();
+            Integer gameID = entry.getKey();
+            if (!gameID.equals(keep) && !dirty.containsKey(gameID) && !inFlight.containsKey(gameID)) {
+                evictions.incrementAndGet();
+                games.remove(gameID, entry.getValue());
+            }
+        }
+    }
+
+    /** A change made directly against the backing store. */
+    @FunctionalInterface
+    private interface StoreChange {
+        boolean apply() throws DataAccessException;
+    }
+}
@@ -0,0 +1,193 @@
+package logging;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded, lock-free queue of log events with one thread writing them out.
+ * Loggers claim a slot with a compare-and-set on the tail and publish the event by advancing the
+ * slot's sequence number, so logging never blocks and never takes a lock; when the ring is full the
+ * event is dropped and counted instead. The writer formats events in batches, writes each batch with
+ * one flush, and reports how many were dropped since the last batch.
+ */
+final class AsyncAppender {
+    /** How long the writer sleeps when the ring is empty, unless a logger wakes it sooner. */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AtomicReferenceArray<LogEvent> slots;
+    /** Per slot: equal to the position when free to write, position + 1 when holding an event. */
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final PrintStream out;
+    private final Thread writer;
+    /** Next position to read; only touched by the writer. */
+    private long head;
+    private volatile boolean sleeping;
+    private volatile boolean closing;
+
+    /**
+     * Starts an appender writing to standard error.
+     *
+     * @param capacity events held before new ones are dropped; rounded up to a power of two
+     */
+    AsyncAppender(int capacity) {
+        this(capacity, new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.err), 1 << 16),
+                false, StandardCharsets.UTF_8));
+    }
+
+    AsyncAppender(int capacity, PrintStream out) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.out = out;
+        this.writer = Thread.ofPlatform().name("chess-log-writer").daemon(true).start(this::run);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "chess-log-flush"));
+    }
+
+    /**
+     * Queues an event without blocking.
+     *
+     * @param event the event
+     * @return false if the ring was full and the event was dropped
+     */
+    boolean append(LogEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, event);
+                    sequences.set(index, position + 1);
+                    if (sleeping) {
+                        LockSupport.unpark(writer);
+                    }
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The writer has not freed this slot since the last lap: the ring is full
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Writes out what is queued and stops the writer, waiting briefly for it.
+     */
+    void close() {
+        closing = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            int written = drain(line);
+            long lost = dropped.sumThenReset();
+            if (lost > 0) {
+                line.setLength(0);
+                format(new LogEvent(System.currentTimeMillis(), Level.WARN, "logging", Thread.currentThread().getName(),
+                        "Dropped log events, buffer full", new Object[]{"count", lost}), line);
+                out.println(line);
+                written++;
+            }
+            if (written > 0) {
+                out.flush();
+                continue;
+            }
+            if (closing) {
+                return;
+            }
+            sleeping = true;
+            // Check again after announcing the sleep, so an event published meanwhile is not left waiting
+            if (!hasNext()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            sleeping = false;
+        }
+    }
+
+    private boolean hasNext() {
+        return sequences.get((int) (head & mask)) == head + 1;
+    }
+
+    private int drain(StringBuilder line) {
+        int count = 0;
+        while (hasNext()) {
+            int index = (int) (head & mask);
+            LogEvent event = slots.get(index);
+            slots.set(index, null);
+            sequences.set(index, head + mask + 1);
+            head++;
+            line.setLength(0);
+            format(event, line);
+            out.println(line);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Formats an event as one line: time, level, thread, logger, message, then logfmt key=value fields.
+     */
+    static void format(LogEvent event, StringBuilder line) {
+        line.append(Instant.ofEpochMilli(event.epochMillis())).append(' ');
+        String level = event.level().name();
+        line.append(level).append(" ".repeat(6 - level.length()));
+        line.append('[').append(event.thread()).append("] ").append(event.logger()).append(" - ").append(event.message());
+        Object[] fields = event.fields();
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            line.append(' ').append(fields[i]).append('=');
+            appendValue(line, fields[i + 1]);
+        }
+    }
+
+    private static void appendValue(StringBuilder line, Object value) {
+        String text = String.valueOf(value);
+        boolean quote = text.isEmpty();
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c <= ' ' || c == '"' || c == '=';
+        }
+        if (!quote) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                default -> line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
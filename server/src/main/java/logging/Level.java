@@ -0,0 +1,9 @@
+package logging;
+
+/**
+ * Severity of a log event, from least to most severe. A logger set to a level drops everything below it;
+ * {@link #OFF} drops everything.
+ */
+public enum Level {
+    DEBUG, INFO, WARN, ERROR, OFF
+}
@@ -0,0 +1,15 @@
+package logging;
+
+/**
+ * One queued log event. Fields are formatted on the writer thread, so their values should not change
+ * after they are logged.
+ *
+ * @param epochMillis when it was logged
+ * @param level       its severity
+ * @param logger      the name of the logger it came from
+ * @param thread      the name of the thread that logged it
+ * @param message     the fixed message
+ * @param fields      alternating keys and values
+ */
+record LogEvent(long epochMillis, Level level, String logger, String thread, String message, Object[] fields) {
+}
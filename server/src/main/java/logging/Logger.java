@@ -0,0 +1,123 @@
+package logging;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Structured logging for the server, written asynchronously so a log call costs a level check and a
+ * queue insert rather than console I/O under a lock. Events carry a fixed message plus alternating
+ * key/value fields, written as logfmt:
+ * <pre>
+ * private static final Logger LOG = Logger.get(DatabaseManager.class);
+ * LOG.warn("Read replica unavailable", "error", e.getMessage());
+ * </pre>
+ * The level is {@code chess.log.level} (INFO by default), overridable per package or class with
+ * {@code chess.log.level.<name>}, e.g. {@code -Dchess.log.level.dataAccess=DEBUG}. The ring holds
+ * {@code chess.log.bufferSize} events (8192 by default); beyond that, events are dropped and counted.
+ * Field values are formatted on the writer thread, so pass values that will not change.
+ */
+public final class Logger {
+    private static final AsyncAppender APPENDER = new AsyncAppender(Integer.getInteger("chess.log.bufferSize", 8192));
+    private static final Object[] NO_FIELDS = {};
+
+    private final String name;
+    private final Level threshold;
+    /** Log one event in this many; 1 logs all of them. */
+    private final int sampleEvery;
+    private final AtomicLong calls;
+
+    private Logger(String name, Level threshold, int sampleEvery) {
+        this.name = name;
+        this.threshold = threshold;
+        this.sampleEvery = sampleEvery;
+        this.calls = sampleEvery > 1 ? new AtomicLong() : null;
+    }
+
+    /**
+     * Returns a logger named after a class.
+     *
+     * @param owner the class logging
+     * @return the logger
+     */
+    public static Logger get(Class<?> owner) {
+        return get(owner.getName());
+    }
+
+    /**
+     * Returns a logger with the given dotted name, at the level configured for the closest enclosing name.
+     *
+     * @param name the logger name
+     * @return the logger
+     */
+    public static Logger get(String name) {
+        String key = name;
+        while (true) {
+            String configured = System.getProperty("chess.log.level." + key);
+            if (configured != null) {
+                return new Logger(name, Level.valueOf(configured.toUpperCase(Locale.ROOT)), 1);
+            }
+            int dot = key.lastIndexOf('.');
+            if (dot < 0) {
+                break;
+            }
+            key = key.substring(0, dot);
+        }
+        return new Logger(name, Level.valueOf(System.getProperty("chess.log.level", "INFO").toUpperCase(Locale.ROOT)), 1);
+    }
+
+    /**
+     * Returns a logger that writes only one in every {@code every} events it is given, for messages on
+     * paths too hot to log each time. Its events carry a {@code sampled} field with the rate.
+     *
+     * @param every how many events each written one stands for
+     * @return the sampling logger
+     */
+    public Logger sampled(int every) {
+        if (every <= 0) {
+            throw new IllegalArgumentException("sampling rate must be positive");
+        }
+        return new Logger(name, threshold, every);
+    }
+
+    /**
+     * @param level a severity
+     * @return true if events at that level are written; check first when building fields is costly
+     */
+    public boolean isEnabled(Level level) {
+        return level.compareTo(threshold) >= 0 && level != Level.OFF;
+    }
+
+    public void debug(String message, Object... fields) {
+        log(Level.DEBUG, message, fields);
+    }
+
+    public void info(String message, Object... fields) {
+        log(Level.INFO, message, fields);
+    }
+
+    public void warn(String message, Object... fields) {
+        log(Level.WARN, message, fields);
+    }
+
+    public void error(String message, Object... fields) {
+        log(Level.ERROR, message, fields);
+    }
+
+    private void log(Level level, String message, Object[] fields) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        if (calls != null) {
+            if (calls.getAndIncrement() % sampleEvery != 0) {
+                return;
+            }
+            Object[] withRate = new Object[fields.length + 2];
+            System.arraycopy(fields, 0, withRate, 0, fields.length);
+            withRate[fields.length] = "sampled";
+            withRate[fields.length + 1] = "1/" + sampleEvery;
+            fields = withRate;
+        }
+        APPENDER.append(new LogEvent(System.currentTimeMillis(), level, name, Thread.currentThread().getName(),
+                message, fields == null ? NO_FIELDS : fields));
+    }
+}
@@ -0,0 +1,16 @@
+package server;
+
+/**
+ * Result of an API call: the HTTP status code, the UTF-8 encoded JSON body, and, for responses a
+ * client may revalidate, the entity tag of the body.
+ *
+ * @param status the HTTP status code
+ * @param body   the response body, already encoded
+ * @param etag   the quoted entity tag to send, or null
+ */
+public record ApiResponse(int status, byte[] body, String etag) {
+
+    public ApiResponse(int status, byte[] body) {
+        this(status, body, null);
+    }
+}
@@ -0,0 +1,430 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dataAccess.*;
+import model.AuthData;
+import model.UserData;
+import model.GameData;
+import service.PasswordHasher;
+import service.UserService;
+import service.AuthService;
+import service.GameService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Transport-independent implementation of the HTTP API endpoints.
+ * Each method takes the pieces of the request it needs and returns the status code and JSON body,
+ * so the Spark {@link Server} and the {@link LightweightServer} answer every request identically.
+ */
+public class ChessApi {
+    /** Body returned by endpoints that succeed without data. */
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+    /** Body of a 304 Not Modified. */
+    private static final byte[] NO_CONTENT = new byte[0];
+    /** Room for serialized game lists and games, by entity tag. */
+    private static final long SERIALIZED_CACHE_BYTES = 8L << 20;
+
+    /** Service for user-related operations. */
+    private final UserService userService;
+    /** Service for authentication operations. */
+    private final AuthService authService;
+    /** Service for game-related operations. */
+    private final GameService gameService;
+    /** The stores behind the services, for clearing them all at once. */
+    private final DataAccess data;
+    /** Change counts behind the game entity tags, or null if responses carry no tags. */
+    private final VersionedGameDAO versions;
+    /** Starts every entity tag, so versions counted before a restart never match. */
+    private final String tagPrefix = Long.toString(System.currentTimeMillis(), 36);
+    /** Tagged bodies as serialized, so an unchanged list or game is not read or serialized again. */
+    private final PayloadCache serialized = new PayloadCache(SERIALIZED_CACHE_BYTES);
+    /** Gson instance for JSON serialization and deserialization. */
+    private final Gson gson;
+
+    /**
+     * Constructs the API over in-memory data access objects.
+     */
+    public ChessApi() {
+        this(new MemoryUserDAO(), new MemoryAuthDAO(), new MemoryGameDAO());
+    }
+
+    /**
+     * Constructs the API over the given data access objects.
+     *
+     * @param userDAO the user store
+     * @param authDAO the auth token store
+     * @param gameDAO the game store
+     */
+    public ChessApi(UserDAO userDAO, AuthDAO authDAO, GameDAO gameDAO) {
+        this(DataAccess.of(userDAO, authDAO, gameDAO));
+    }
+
+    /**
+     * Constructs the API over the given stores.
+     *
+     * @param data the user, auth token, and game stores
+     */
+    public ChessApi(DataAccess data) {
+        this(data, null);
+    }
+
+    /**
+     * Constructs the API over the given stores, tagging game responses so clients can poll with
+     * {@code If-None-Match}. The tags are only sound if every write to the games goes through
+     * {@code versions}, so this suits a server that is the only writer.
+     *
+     * @param data     the user, auth token, and game stores
+     * @param versions the game store as seen through its change counts, or null for no tags
+     */
+    public ChessApi(DataAccess data, VersionedGameDAO versions) {
+        this.data = data;
+        this.versions = versions;
+        this.userService = new UserService(data.getUserDAO(), data.getAuthDAO());
+        this.authService = new AuthService(data.getAuthDAO());
+        this.gameService = new GameService(data.getGameDAO(), data.getAuthDAO());
+        this.gson = new GsonBuilder().create();
+    }
+
+    /**
+     * Reports the password hashing queue: waiting requests, queue times, and the current bcrypt cost.
+     *
+     * @return the current hashing statistics
+     */
+    public PasswordHasher.Stats passwordHashingStats() {
+        return userService.hashingStats();
+    }
+
+    /**
+     * Reports how many game list and game reads reached the store, and how many requests shared them.
+     *
+     * @return the current coalescing statistics
+     */
+    public GameService.Stats gameReadStats() {
+        return gameService.coalescingStats();
+    }
+
+    /**
+     * Handles user registration by creating a new user and authentication token.
+     *
+     * @param body the request body containing user data
+     * @return the authentication data or an error message
+     */
+    public ApiResponse register(String body) {
+        UserData user;
+        try {
+            user = gson.fromJson(body, UserData.class);
+        } catch (Exception e) {
+            return error(400, "Error: bad request");
+        }
+        try {
+            AuthData authData = userService.register(user);
+            return json(200, authData);
+        } catch (DataAccessException e) {
+            String message = e.getMessage().toLowerCase().contains("already taken")
+                    ? "Error: already taken" : "Error: " + e.getMessage();
+            return error(getErrorStatus(e), message);
+        }
+    }
+
+    /**
+     * Clears all user, authentication, and game data from storage.
+     *
+     * @return an empty object or an error message
+     */
+    public ApiResponse clearAll() {
+        try {
+            // One pass over the stores, each cleared once in constant time
+            data.clear();
+            return new ApiResponse(200, EMPTY_OBJECT);
+        } catch (DataAccessException e) {
+            return error(getErrorStatus(e), "Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles joining a game with the specified game ID and player color.
+     *
+     * @param authToken the caller's authentication token
+     * @param body      the request body containing join game data
+     * @return an empty object or an error message
+     */
+    public ApiResponse joinGame(String authToken, String body) {
+        JoinGameRequest join;
+        try {
+            join = gson.fromJson(body, JoinGameRequest.class);
+        } catch (Exception e) {
+            return error(400, "Error: bad request");
+        }
+        if (join == null || join.gameID() <= 0 || join.playerColor() == null) {
+            return error(400, "Error: bad request");
+        }
+        try {
+            gameService.joinGame(authToken, join.gameID(), join.playerColor());
+            return new ApiResponse(200, EMPTY_OBJECT);
+        } catch (DataAccessException e) {
+            return error(getErrorStatus(e), "Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles creating a new game with the specified name.
+     *
+     * @param authToken the caller's authentication token
+     * @param body      the request body containing game name data
+     * @return the game ID or an error message
+     */
+    public ApiResponse createGame(String authToken, String body) {
+        GameNameRequest gameName;
+        try {
+            gameName = gson.fromJson(body, GameNameRequest.class);
+        } catch (Exception e) {
+            return error(400, "Error: bad request");
+        }
+        if (gameName == null || gameName.gameName() == null || gameName.gameName().trim().isEmpty()) {
+            return error(400, "Error: bad request");
+        }
+        try {
+            GameData game = gameService.createGame(authToken, gameName.gameName());
+            return json(200, new CreateGameResponse(game.gameID()));
+        } catch (DataAccessException e) {
+            return error(getErrorStatus(e), "Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles listing all available games.
+     *
+     * @param authToken the caller's authentication token
+     * @return the list of games or an error message
+     */
+    public ApiResponse listGames(String authToken) {
+        return listGames(authToken, null);
+    }
+
+    /**
+     * Handles listing all available games, answering 304 without reading or serializing the games
+     * when the client's tag is still current.
+     *
+     * @param authToken   the caller's authentication token
+     * @param ifNoneMatch the request's If-None-Match header, or null
+     * @return the list of games, a 304, or an error message
+     */
+    public ApiResponse listGames(String authToken, String ifNoneMatch) {
+        // Read the version before the games, so the tag is never newer than the body
+        String etag = versions == null ? null : etag("games", versions.listVersion());
+        try {
+            String matched = matchingTag(ifNoneMatch, etag);
+            if (matched != null) {
+                authService.getAuth(authToken);
+                return new ApiResponse(304, NO_CONTENT, matched);
+            }
+            byte[] cached = etag == null ? null : serialized.get(etag);
+            if (cached != null) {
+                authService.getAuth(authToken);
+                return new ApiResponse(200, cached, etag);
+            }
+            Collection<GameData> games = gameService.listGames(authToken);
+            return cache(json(200, new ListGamesResponse(games)), etag);
+        } catch (DataAccessException e) {
+            return error(getErrorStatus(e), "Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles fetching one game's state, answering 304 without reading or serializing the game when
+     * the client's tag is still current.
+     *
+     * @param authToken   the caller's authentication token
+     * @param gameID      the game ID from the path
+     * @param ifNoneMatch the request's If-None-Match header, or null
+     * @return the game, a 304, or an error message
+     */
+    public ApiResponse getGame(String authToken, String gameID, String ifNoneMatch) {
+        int id;
+        try {
+            id = Integer.parseInt(gameID);
+        } catch (NumberFormatException e) {
+            return error(400, "Error: bad request");
+        }
+        String etag = versions == null ? null : etag("game-" + id, versions.version(id));
+        try {
+            authService.getAuth(authToken);
+            String matched = matchingTag(ifNoneMatch, etag);
+            if (matched != null) {
+                return new ApiResponse(304, NO_CONTENT, matched);
+            }
+            byte[] cached = etag == null ? null : serialized.get(etag);
+            if (cached != null) {
+                return new ApiResponse(200, cached, etag);
+            }
+            return cache(json(200, gameService.viewGame(id)), etag);
+        } catch (DataAccessException e) {
+            return error(getErrorStatus(e), "Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles user logout by invalidating the authentication token.
+     *
+     * @param authToken the caller's authentication token
+     * @return an empty object or an error message
+     */
+    public ApiResponse logout(String authToken) {
+        try {
+            authService.logout(authToken);
+            return new ApiResponse(200, EMPTY_OBJECT);
+        } catch (DataAccessException e) {
+            return error(getErrorStatus(e), "Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles user login and creates an authentication token.
+     *
+     * @param requestBody the request body containing login credentials
+     * @return the authentication data or an error message
+     */
+    public ApiResponse login(String requestBody) {
+        if (requestBody == null || requestBody.trim().isEmpty()) {
+            return error(400, "Error: bad request");
+        }
+        JsonObject json;
+        try {
+            json = JsonParser.parseString(requestBody).getAsJsonObject();
+        } catch (Exception e) {
+            return error(400, "Error: bad request");
+        }
+        boolean hasUsername = json.has("username") && !json.get("username").isJsonNull();
+        boolean hasPassword = json.has("password") && !json.get("password").isJsonNull();
+        if (!hasUsername || !hasPassword) {
+            return error(400, "Error: bad request");
+        }
+        try {
+            String username = json.get("username").getAsString();
+            String password = json.get("password").getAsString();
+            if (username == null || password == null || username.trim().isEmpty() || password.trim().isEmpty()) {
+                return error(400, "Error: bad request");
+            }
+            UserData user = new UserData(username.trim(), password.trim(), null);
+            AuthData authData = userService.login(user);
+            return json(200, authData);
+        } catch (DataAccessException e) {
+            return error(getErrorStatus(e), "Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds an error response with the standard {@code {"message": ...}} body.
+     *
+     * @param status  the HTTP status code
+     * @param message the error message
+     * @return the error response
+     */
+    public ApiResponse error(int status, String message) {
+        return json(status, new ErrorResponse(message));
+    }
+
+    /**
+     * Serializes a value straight into UTF-8 bytes, without building an intermediate String.
+     */
+    private ApiResponse json(int status, Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            gson.toJson(value, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ApiResponse(status, bytes.toByteArray());
+    }
+
+    private String etag(String resource, long version) {
+        return "\"" + tagPrefix + "-" + resource + "-" + version + "\"";
+    }
+
+    /**
+     * Tags a freshly serialized body and keeps it for the next request for the same version.
+     */
+    private ApiResponse cache(ApiResponse response, String etag) {
+        if (etag == null) {
+            return response;
+        }
+        serialized.put(etag, response.body());
+        return new ApiResponse(response.status(), response.body(), etag);
+    }
+
+    /**
+     * @return the cache of serialized game lists and games
+     */
+    PayloadCache serializedPayloads() {
+        return serialized;
+    }
+
+    /**
+     * Checks an If-None-Match header, a comma-separated list of tags, against the current tag.
+     * Weak tags compare by their opaque part, as RFC 9110 requires for this header, and a tag
+     * {@link Server} gave a compressed body matches without its coding.
+     *
+     * @return the matching tag as the client sent it, less any weak prefix, so the 304 names the
+     * representation the client holds; or null if none matches
+     */
+    static String matchingTag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return null;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (ContentEncoding.untag(tag).equals(etag)) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Maps exception messages to appropriate HTTP status codes.
+     *
+     * @param e the DataAccessException to process
+     * @return the corresponding HTTP status code
+     */
+    private int getErrorStatus(DataAccessException e) {
+        String message = e.getMessage().toLowerCase();
+        if (message.contains("bad request") || message.contains("game not found")) {
+            return 400; // Bad Request
+        } else if (message.contains("unauthorized")) {
+            return 401; // Unauthorized
+        } else if (message.contains("already exists") || message.contains("already taken")) {
+            return 403; // Forbidden
+        } else if (message.contains("server busy")) {
+            return 503; // Service Unavailable
+        }
+        return 500; // Internal Server Error
+    }
+
+    /** Record for error response. */
+    private record ErrorResponse(String message) {}
+
+    /** Record for listing games response. */
+    private record ListGamesResponse(Collection<GameData> games) {}
+
+    /** Record for create game response. */
+    private record CreateGameResponse(int gameID) {}
+
+    /** Record for game name request. */
+    private record GameNameRequest(String gameName) {}
+
+    /** Record for join game request. */
+    private record JoinGameRequest(int gameID, String playerColor) {}
+}
@@ -0,0 +1,147 @@
+package server;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compressed content codings the server can send, and the choice between them for a request's
+ * Accept-Encoding header.
+ */
+public enum ContentEncoding {
+    /** RFC 1952 gzip. */
+    GZIP("gzip"),
+    /** RFC 1950 zlib, which is what HTTP calls "deflate". */
+    DEFLATE("deflate");
+
+    /** Fixed gzip header: magic, deflate method, no flags, no mtime, no extra flags, unknown OS. */
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * @return the coding's name in Content-Encoding
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Tags this coding's representation of a body. A strong tag must differ between representations,
+     * so {@code "v-3"} sent gzipped becomes {@code "v-3-gzip"}.
+     *
+     * @param etag the quoted tag of the unencoded body
+     * @return the tag of the encoded body
+     */
+    public String tag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-" + token + "\"";
+    }
+
+    /**
+     * Undoes {@link #tag(String)}.
+     *
+     * @param etag a quoted tag, of an encoded body or not
+     * @return the tag of the unencoded body
+     */
+    public static String untag(String etag) {
+        for (ContentEncoding encoding : values()) {
+            String suffix = "-" + encoding.token + "\"";
+            if (etag.endsWith(suffix)) {
+                return etag.substring(0, etag.length() - suffix.length()) + "\"";
+            }
+        }
+        return etag;
+    }
+
+    /**
+     * Picks the coding the client prefers by quality value, gzip on a tie; {@code *} stands for gzip
+     * unless gzip is listed itself.
+     *
+     * @param acceptEncoding the request's Accept-Encoding header, or null
+     * @return the coding to use, or null to send the body as is
+     */
+    public static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        double gzip = 0;
+        double deflate = 0;
+        double any = 0;
+        boolean gzipListed = false;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            switch (coding) {
+                case "gzip", "x-gzip" -> {
+                    gzip = Math.max(gzip, quality);
+                    gzipListed = true;
+                }
+                case "deflate" -> deflate = Math.max(deflate, quality);
+                case "*" -> any = quality;
+                default -> {
+                }
+            }
+        }
+        if (!gzipListed) {
+            gzip = any;
+        }
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    /**
+     * Compresses a body.
+     *
+     * @param body  the body
+     * @param level the {@link Deflater} level, from 1 (fastest) to 9 (smallest)
+     * @return the encoded body
+     */
+    public byte[] encode(byte[] body, int level) {
+        Deflater deflater = new Deflater(level, this == GZIP);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 32);
+            if (this == GZIP) {
+                out.writeBytes(GZIP_HEADER);
+            }
+            deflater.setInput(body);
+            deflater.finish();
+            byte[] buffer = new byte[Math.min(Math.max(body.length, 64), 16 * 1024)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            if (this == GZIP) {
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                writeIntLE(out, (int) crc.getValue());
+                writeIntLE(out, body.length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
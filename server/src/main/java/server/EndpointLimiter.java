@@ -0,0 +1,56 @@
+package server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many requests each endpoint handles at once. With virtual threads the server no longer
+ * runs out of threads, so this is what keeps one busy endpoint from monopolizing the connection pool.
+ */
+public class EndpointLimiter {
+    private final int maxConcurrent;
+    private final long admissionTimeoutMs;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a limiter.
+     *
+     * @param maxConcurrent      requests allowed in flight per endpoint, or 0 for no limit
+     * @param admissionTimeoutMs how long a request waits for a slot before being rejected
+     */
+    public EndpointLimiter(int maxConcurrent, long admissionTimeoutMs) {
+        this.maxConcurrent = maxConcurrent;
+        this.admissionTimeoutMs = admissionTimeoutMs;
+    }
+
+    /**
+     * Waits for a slot on the endpoint.
+     *
+     * @param endpoint the endpoint, e.g. "PUT /game"
+     * @return true if a slot was acquired and must be released, false if the endpoint stayed full
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean acquire(String endpoint) throws InterruptedException {
+        if (maxConcurrent <= 0) {
+            return true;
+        }
+        return semaphore(endpoint).tryAcquire(admissionTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Releases a slot acquired by {@link #acquire}.
+     *
+     * @param endpoint the endpoint the slot was acquired on
+     */
+    public void release(String endpoint) {
+        if (maxConcurrent > 0) {
+            semaphore(endpoint).release();
+        }
+    }
+
+    private Semaphore semaphore(String endpoint) {
+        return permits.computeIfAbsent(endpoint, key -> new Semaphore(maxConcurrent, true));
+    }
+}
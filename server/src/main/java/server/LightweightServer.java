@@ -0,0 +1,258 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dataAccess.DataAccess;
+import dataAccess.MemoryAuthDAO;
+import dataAccess.MemoryGameDAO;
+import dataAccess.MemoryUserDAO;
+import dataAccess.VersionedGameDAO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP front end built on the JDK's {@code com.sun.net.httpserver} instead of Spark and Jetty.
+ * It serves the same endpoints through the same {@link ChessApi}, with the same entity tags and
+ * {@code If-None-Match} handling, runs every exchange on its own virtual thread, and writes the
+ * pre-encoded JSON bytes with a fixed Content-Length so connections stay open for the next request.
+ * Unlike {@link Server} it never compresses a body. Meant for comparing throughput against {@link Server}.
+ */
+public class LightweightServer {
+    /** Classpath folder holding the static web client. */
+    private static final String STATIC_ROOT = "web";
+
+    /** Endpoint implementations shared with the Spark server. */
+    private final ChessApi api;
+    /** Per-endpoint cap on in-flight requests. */
+    private final EndpointLimiter limiter;
+    private HttpServer httpServer;
+    private ExecutorService executor;
+
+    /**
+     * Constructs a LightweightServer configured from system properties.
+     */
+    public LightweightServer() {
+        this(ServerOptions.fromSystemProperties());
+    }
+
+    /**
+     * Constructs a LightweightServer over a fresh set of in-memory data access objects and services.
+     * Handlers always run on virtual threads, so {@link ServerOptions#virtualThreads()} is ignored.
+     *
+     * @param options per-endpoint limits for the server
+     */
+    public LightweightServer(ServerOptions options) {
+        // This server is always the only writer of its games, so its responses can always be tagged
+        VersionedGameDAO games = new VersionedGameDAO(new MemoryGameDAO());
+        this.api = new ChessApi(DataAccess.of(new MemoryUserDAO(), new MemoryAuthDAO(), games), games);
+        this.limiter = new EndpointLimiter(options.maxConcurrentRequests(), options.admissionTimeoutMs());
+    }
+
+    /**
+     * Starts the server on the specified port.
+     *
+     * @param desiredPort the port to run the server on, or 0 for any free port
+     * @return the actual port used by the server
+     */
+    public int run(int desiredPort) {
+        // The JDK server writes headers and body separately, so without TCP_NODELAY small responses
+        // sit behind Nagle's algorithm until the client's delayed ACK (~40ms per keep-alive request)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        try {
+            httpServer = HttpServer.create(new InetSocketAddress(desiredPort), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start server on port " + desiredPort, e);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/user", this::user);
+        httpServer.createContext("/session", this::session);
+        httpServer.createContext("/game", this::game);
+        httpServer.createContext("/db", this::db);
+        httpServer.createContext("/", this::staticFile);
+        httpServer.start();
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, giving in-flight exchanges a moment to finish.
+     */
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(1);
+            executor.close();
+            httpServer = null;
+        }
+    }
+
+    private void user(HttpExchange exchange) throws IOException {
+        if (exactPath(exchange, "/user") && method(exchange, "POST")) {
+            send(exchange, limited(exchange, "POST /user", () -> api.register(body(exchange))));
+        } else {
+            notFound(exchange);
+        }
+    }
+
+    private void session(HttpExchange exchange) throws IOException {
+        if (!exactPath(exchange, "/session")) {
+            notFound(exchange);
+        } else if (method(exchange, "POST")) {
+            send(exchange, limited(exchange, "POST /session", () -> api.login(body(exchange))));
+        } else if (method(exchange, "DELETE")) {
+            send(exchange, limited(exchange, "DELETE /session", () -> api.logout(authToken(exchange))));
+        } else {
+            notFound(exchange);
+        }
+    }
+
+    private void game(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.startsWith("/game/") && method(exchange, "GET")) {
+            send(exchange, limited(exchange, "GET /game/:gameID", () -> api.getGame(authToken(exchange),
+                    path.substring("/game/".length()), ifNoneMatch(exchange))));
+        } else if (!exactPath(exchange, "/game")) {
+            notFound(exchange);
+        } else if (method(exchange, "GET")) {
+            send(exchange, limited(exchange, "GET /game",
+                    () -> api.listGames(authToken(exchange), ifNoneMatch(exchange))));
+        } else if (method(exchange, "POST")) {
+            send(exchange, limited(exchange, "POST /game",
+                    () -> api.createGame(authToken(exchange), body(exchange))));
+        } else if (method(exchange, "PUT")) {
+            send(exchange, limited(exchange, "PUT /game",
+                    () -> api.joinGame(authToken(exchange), body(exchange))));
+        } else {
+            notFound(exchange);
+        }
+    }
+
+    private void db(HttpExchange exchange) throws IOException {
+        if (exactPath(exchange, "/db") && method(exchange, "DELETE")) {
+            send(exchange, limited(exchange, "DELETE /db", api::clearAll));
+        } else {
+            notFound(exchange);
+        }
+    }
+
+    /**
+     * Serves the web client from the classpath, mapping directory paths to their index.html.
+     */
+    private void staticFile(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.endsWith("/")) {
+            path += "index.html";
+        }
+        if (!method(exchange, "GET") || path.contains("..")) {
+            notFound(exchange);
+            return;
+        }
+        byte[] content;
+        try (InputStream in = LightweightServer.class.getClassLoader().getResourceAsStream(STATIC_ROOT + path)) {
+            if (in == null) {
+                notFound(exchange);
+                return;
+            }
+            content = in.readAllBytes();
+        }
+        exchange.getResponseHeaders().set("Content-Type", contentType(path));
+        write(exchange, 200, content);
+    }
+
+    /**
+     * Runs an API call while its endpoint is under the configured concurrency limit.
+     *
+     * @return the call's response, or a 503 when the endpoint stays full past the admission timeout
+     */
+    private ApiResponse limited(HttpExchange exchange, String endpoint, ApiCall call) throws IOException {
+        boolean admitted;
+        try {
+            admitted = limiter.acquire(endpoint);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            // Drain the body so the connection can be reused
+            exchange.getRequestBody().readAllBytes();
+            return api.error(503, "Error: server busy");
+        }
+        try {
+            return call.handle();
+        } finally {
+            limiter.release(endpoint);
+        }
+    }
+
+    private void send(HttpExchange exchange, ApiResponse response) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (response.etag() != null) {
+            // Clients must revalidate before reusing a stored copy
+            exchange.getResponseHeaders().set("ETag", response.etag());
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        }
+        write(exchange, response.status(), response.body());
+    }
+
+    private void notFound(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        send(exchange, api.error(404, "Error: not found"));
+    }
+
+    private static void write(HttpExchange exchange, int status, byte[] body) throws IOException {
+        // A known length (rather than chunked encoding) lets the client keep the connection alive
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String body(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String authToken(HttpExchange exchange) {
+        return exchange.getRequestHeaders().getFirst("Authorization");
+    }
+
+    private static String ifNoneMatch(HttpExchange exchange) {
+        return exchange.getRequestHeaders().getFirst("If-None-Match");
+    }
+
+    private static boolean exactPath(HttpExchange exchange, String path) {
+        return exchange.getRequestURI().getPath().equals(path);
+    }
+
+    private static boolean method(HttpExchange exchange, String method) {
+        return exchange.getRequestMethod().equalsIgnoreCase(method);
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".html")) {
+            return "text/html";
+        } else if (path.endsWith(".css")) {
+            return "text/css";
+        } else if (path.endsWith(".js")) {
+            return "application/javascript";
+        } else if (path.endsWith(".ico")) {
+            return "image/x-icon";
+        }
+        return "application/octet-stream";
+    }
+
+    /** An API call that may need to read the request body. */
+    @FunctionalInterface
+    private interface ApiCall {
+        ApiResponse handle() throws IOException;
+    }
+}
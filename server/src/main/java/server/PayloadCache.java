@@ -0,0 +1,115 @@
+package server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of encoded response bodies, keyed by something that changes whenever the body would,
+ * such as an entity tag. Entries are never updated in place: a new version of a resource gets a new
+ * key, and the old one ages out. The least recently used bodies are dropped once the total size
+ * passes the limit.
+ */
+public class PayloadCache {
+    private final long maxBytes;
+    /** Most recently used last; guarded by {@link #lock}. */
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    /** Guards {@link #entries} and {@link #bytes}. */
+    private final ReentrantLock lock = new ReentrantLock();
+    private long bytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxBytes the most body bytes to hold
+     */
+    public PayloadCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param key the body's key
+     * @return the cached body, or null
+     */
+    public byte[] get(String key) {
+        byte[] body;
+        lock.lock();
+        try {
+            body = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+        (body == null ? misses : hits).increment();
+        return body;
+    }
+
+    /**
+     * Returns the cached body, encoding and caching it on a miss. Two callers missing at once may both
+     * encode; the bodies are equal, so either result is fine.
+     *
+     * @param key    the body's key
+     * @param encode produces the body
+     * @return the body
+     */
+    public byte[] get(String key, Supplier<byte[]> encode) {
+        byte[] body = get(key);
+        if (body == null) {
+            body = encode.get();
+            put(key, body);
+        }
+        return body;
+    }
+
+    /**
+     * Caches a body, dropping the least recently used ones to stay under the size limit.
+     *
+     * @param key  the body's key
+     * @param body the body; must not be changed afterwards
+     */
+    public void put(String key, byte[] body) {
+        if (body.length > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            byte[] previous = entries.put(key, body);
+            bytes += body.length - (previous == null ? 0 : previous.length);
+            var eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, byte[]> entry = eldest.next();
+                bytes -= entry.getValue().length;
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return lookups that found a body
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return lookups that did not
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the body bytes held now
+     */
+    public long bytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
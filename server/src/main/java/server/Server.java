@@ -1,46 +1,111 @@
 package server;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import dataAccess.*;
-import model.AuthData;
-import model.UserData;
-import model.GameData;
-import service.UserService;
-import service.AuthService;
-import service.GameService;
+import server.cluster.BroadcastingAuthDAO;
+import server.cluster.GameEventBus;
+import server.cluster.InProcessGameEventBus;
+import server.metrics.Counter;
+import server.metrics.Histogram;
+import server.metrics.JvmMetrics;
+import server.metrics.MetricsRegistry;
+import server.metrics.TimedAuthDAO;
+import server.metrics.TimedGameDAO;
+import server.metrics.TimedUserDAO;
+import server.websocket.ConnectionManager;
+import server.websocket.GameActors;
+import server.websocket.GameCommandProcessor;
+import server.websocket.OutboundStats;
+import server.websocket.WebSocketHandler;
+import service.PasswordHasher;
 import spark.Request;
-import spark.Response;
+import spark.Route;
 import spark.Spark;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
 
-import java.util.Collection;
+import javax.servlet.http.HttpServletResponse;
+import java.util.zip.Deflater;
 
 /**
  * Main server class for handling HTTP requests related to user, authentication, and game services.
  */
 public class Server {
-    /** Service for user-related operations. */
-    private final UserService userService;
-    /** Service for authentication operations. */
-    private final AuthService authService;
-    /** Service for game-related operations. */
-    private final GameService gameService;
-    /** Gson instance for JSON serialization and deserialization. */
-    private final Gson gson;
+    /** Bodies smaller than this are sent as is; compressing them saves too little to be worth it. */
+    private static final int MIN_COMPRESSED_BYTES = 1024;
+    /** Room for compressed bodies of tagged responses. */
+    private static final long COMPRESSED_CACHE_BYTES = 8L << 20;
+
+    /** Endpoint implementations shared with the other HTTP front ends. */
+    private final ChessApi api;
+    /** Gameplay commands on the /ws websocket. */
+    private final WebSocketHandler webSocketHandler;
+    /** Links this server's websocket sessions to the owners of their games. */
+    private final GameEventBus bus;
+    /** Threading settings for the embedded Jetty server. */
+    private final ServerOptions options;
+    /** Per-endpoint cap on in-flight requests. */
+    private final EndpointLimiter limiter;
+    /** Request, data access, pool, and JVM metrics served on /metrics. */
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    /** Compressed bodies of tagged responses, by coding and entity tag. */
+    private final PayloadCache compressed = new PayloadCache(COMPRESSED_CACHE_BYTES);
+    /** Jetty thread pool when running on virtual threads, otherwise null. */
+    private VirtualThreadPool virtualThreadPool;
 
     /**
-     * Constructs a Server instance, initializing data access objects and services.
+     * Constructs a Server instance configured from system properties.
      */
     public Server() {
-        UserDAO userDAO = new MemoryUserDAO();
-        AuthDAO authDAO = new MemoryAuthDAO();
-        GameDAO gameDAO = new MemoryGameDAO();
-        this.userService = new UserService(userDAO, authDAO);
-        this.authService = new AuthService(authDAO);
-        this.gameService = new GameService(gameDAO, authDAO);
-        this.gson = new GsonBuilder().create();
+        this(ServerOptions.fromSystemProperties());
+    }
+
+    /**
+     * Constructs a Server instance over a fresh set of in-memory data access objects and services.
+     *
+     * @param options threading settings for the embedded server
+     */
+    public Server(ServerOptions options) {
+        this(options, new MemoryUserDAO(), new MemoryAuthDAO(), new MemoryGameDAO(),
+                InProcessGameEventBus.standalone());
+    }
+
+    /**
+     * Constructs one node of a cluster. Every node must be given the same bus membership and
+     * data access objects backed by the same store, such as MySQL, since commands for a game
+     * may be run by a different node from the one that handled the HTTP join. That store must not
+     * be cached in process, so with MySQL set {@code games.writeBehind=false}: a node's cached copy
+     * would miss joins and moves made through the other nodes.
+     *
+     * @param options threading settings for the embedded server
+     * @param userDAO the user store
+     * @param authDAO the auth token store
+     * @param gameDAO the game store
+     * @param bus     links this node's websocket sessions to the nodes owning their games
+     * @throws IllegalArgumentException if the bus has other nodes and the game store caches games in process
+     */
+    public Server(ServerOptions options, UserDAO userDAO, AuthDAO authDAO, GameDAO gameDAO, GameEventBus bus) {
+        if (bus.nodes().size() > 1 && gameDAO.cachesGames()) {
+            throw new IllegalArgumentException("Games cached in process cannot back a cluster node;"
+                    + " give every node the shared store directly");
+        }
+        this.options = options;
+        this.limiter = new EndpointLimiter(options.maxConcurrentRequests(), options.admissionTimeoutMs());
+        userDAO = new TimedUserDAO(userDAO, metrics);
+        if (bus.nodes().size() > 1) {
+            // Logouts and clears must also reach token caches and revocation sets on the other nodes
+            authDAO = new BroadcastingAuthDAO(authDAO, bus);
+        }
+        authDAO = new TimedAuthDAO(authDAO, metrics);
+        VersionedGameDAO versioned = new VersionedGameDAO(new TimedGameDAO(gameDAO, metrics));
+        gameDAO = versioned;
+        // Other nodes change games without this node seeing it, so only a lone server tags responses
+        this.api = new ChessApi(DataAccess.of(userDAO, authDAO, gameDAO), bus.nodes().size() == 1 ? versioned : null);
+        this.bus = bus;
+        GameCommandProcessor processor = new GameCommandProcessor(authDAO, gameDAO,
+                new GameActors(options.gameMailboxCapacity()), bus);
+        this.webSocketHandler = new WebSocketHandler(processor, bus,
+                new ConnectionManager(options.sessionOutboxCapacity()));
+        registerMetrics();
     }
 
     /**
@@ -50,252 +115,266 @@ public class Server {
      * @return the actual port used by the server
      */
     public int run(int desiredPort) {
+        if (options.virtualThreads()) {
+            virtualThreadPool = new VirtualThreadPool();
+            EmbeddedServers.add(EmbeddedServers.Identifiers.JETTY,
+                    new EmbeddedJettyFactory().withThreadPool(virtualThreadPool));
+        } else {
+            EmbeddedServers.add(EmbeddedServers.Identifiers.JETTY, new EmbeddedJettyFactory());
+        }
         Spark.port(desiredPort);
+        Spark.webSocket("/ws", webSocketHandler);
         Spark.staticFiles.location("web");
-        Spark.post("/user", this::register);
-        Spark.post("/session", this::login);
-        Spark.delete("/session", this::logout);
-        Spark.get("/game", this::listGames);
-        Spark.post("/game", this::createGame);
-        Spark.put("/game", this::joinGame);
-        Spark.delete("/db", this::clearAll);
+        Spark.post("/user", endpoint("POST", "/user", json(request -> api.register(request.body()))));
+        Spark.post("/session", endpoint("POST", "/session", json(request -> api.login(request.body()))));
+        Spark.delete("/session", endpoint("DELETE", "/session",
+                json(request -> api.logout(request.headers("Authorization")))));
+        Spark.get("/game", endpoint("GET", "/game",
+                json(request -> api.listGames(request.headers("Authorization"), request.headers("If-None-Match")))));
+        Spark.get("/game/:gameID", endpoint("GET", "/game/:gameID", json(request -> api.getGame(
+                request.headers("Authorization"), request.params("gameID"), request.headers("If-None-Match")))));
+        Spark.post("/game", endpoint("POST", "/game",
+                json(request -> api.createGame(request.headers("Authorization"), request.body()))));
+        Spark.put("/game", endpoint("PUT", "/game",
+                json(request -> api.joinGame(request.headers("Authorization"), request.body()))));
+        Spark.delete("/db", endpoint("DELETE", "/db", json(request -> api.clearAll())));
+        Spark.get("/metrics", (request, response) -> {
+            response.type(MetricsRegistry.CONTENT_TYPE);
+            return metrics.scrape();
+        });
         Spark.init();
         Spark.awaitInitialization();
+        if (virtualThreadPool != null) {
+            virtualThreadPool.dispatchToExecutor();
+        }
         return Spark.port();
     }
 
     /**
-     * Stops the server and waits for it to fully shut down.
+     * Wraps an API route with its concurrency limit and its latency and status metrics.
+     *
+     * @param method the HTTP method
+     * @param path   the route path
+     * @param route  the route handler
+     * @return the route to register
      */
-    public void stop() {
-        Spark.stop();
-        Spark.awaitStop();
+    private Route endpoint(String method, String path, Route route) {
+        return timed(method, path, limited(method + " " + path, route));
     }
 
     /**
-     * Handles user registration by creating a new user and authentication token.
-     *
-     * @param request  the HTTP request containing user data
-     * @param response the HTTP response
-     * @return a JSON response with authentication data or an error message
+     * Wraps a route to record how long it takes, including any wait for admission, and the status
+     * class of its response. The histogram and counters are looked up once here, not per request.
      */
-    private Object register(Request request, Response response) {
-        response.type("application/json");
-        UserData user;
-        try {
-            user = gson.fromJson(request.body(), UserData.class);
-        } catch (Exception e) {
-            response.status(400);
-            return gson.toJson(new ErrorResponse("Error: bad request"));
-        }
-        try {
-            AuthData authData = userService.register(user);
-            response.status(200);
-            return gson.toJson(authData);
-        } catch (DataAccessException e) {
-            response.status(getErrorStatus(e));
-            String message = e.getMessage().toLowerCase().contains("already taken")
-                    ? "Error: already taken" : "Error: " + e.getMessage();
-            return gson.toJson(new ErrorResponse(message));
+    private Route timed(String method, String path, Route route) {
+        Histogram latency = metrics.histogram("chess_http_request_seconds",
+                "Time to answer an HTTP request, including admission", "method", method, "route", path);
+        Counter[] responses = new Counter[6];
+        for (int statusClass = 1; statusClass < responses.length; statusClass++) {
+            responses[statusClass] = metrics.counter("chess_http_responses_total", "HTTP responses by status class",
+                    "method", method, "route", path, "status", statusClass + "xx");
         }
+        return (request, response) -> {
+            long start = System.nanoTime();
+            try {
+                return route.handle(request, response);
+            } finally {
+                latency.recordSince(start);
+                responses[Math.clamp(response.status() / 100, 1, 5)].increment();
+            }
+        };
     }
 
     /**
-     * Clears all user, authentication, and game data from storage.
+     * Wraps a route so it only runs while its endpoint is under the configured concurrency limit.
      *
-     * @param request  the HTTP request
-     * @param response the HTTP response
-     * @return a JSON response indicating success or an error message
+     * @param endpoint the method and path, used as the limiter key
+     * @param route    the route handler
+     * @return a route that answers 503 when the endpoint stays full past the admission timeout
      */
-    private Object clearAll(Request request, Response response) {
-        response.type("application/json");
-        try {
-            userService.clearAll();
-            gameService.clear();
-            authService.clear();
-            response.status(200);
-            return "{}";
-        } catch (DataAccessException e) {
-            response.status(getErrorStatus(e));
-            return gson.toJson(new ErrorResponse("Error: " + e.getMessage()));
-        }
+    private Route limited(String endpoint, Route route) {
+        return (request, response) -> {
+            if (!limiter.acquire(endpoint)) {
+                ApiResponse busy = api.error(503, "Error: server busy");
+                response.type("application/json");
+                response.status(busy.status());
+                return busy.body();
+            }
+            try {
+                return route.handle(request, response);
+            } finally {
+                limiter.release(endpoint);
+            }
+        };
     }
+
     /**
-     * Handles joining a game with the specified game ID and player color.
+     * Reports how far behind the websocket clients are: queued messages, coalesced snapshots,
+     * and drops.
      *
-     * @param request  the HTTP request containing join game data
-     * @param response the HTTP response
-     * @return a JSON response indicating success or an error message
+     * @return the current outbound queue statistics
      */
-    private Object joinGame(Request request, Response response) {
-        response.type("application/json");
-        String authToken = request.headers("Authorization");
-        JoinGameRequest join;
-        try {
-            join = gson.fromJson(request.body(), JoinGameRequest.class);
-        } catch (Exception e) {
-            response.status(400);
-            return gson.toJson(new ErrorResponse("Error: bad request"));
-        }
-        if (join == null || join.gameID() <= 0 || join.playerColor() == null) {
-            response.status(400);
-            return gson.toJson(new ErrorResponse("Error: bad request"));
-        }
-        try {
-            gameService.joinGame(authToken, join.gameID(), join.playerColor());
-            response.status(200);
-            return "{}";
-        } catch (DataAccessException e) {
-            response.status(getErrorStatus(e));
-            return gson.toJson(new ErrorResponse("Error: " + e.getMessage()));
-        }
+    public OutboundStats websocketStats() {
+        return webSocketHandler.outboundStats();
     }
 
     /**
-     * Handles creating a new game with the specified name.
+     * Reports how logins and registrations are queueing for password hashing.
      *
-     * @param request  the HTTP request containing game name data
-     * @param response the HTTP response
-     * @return a JSON response with the game ID or an error message
+     * @return the current hashing statistics
      */
-    private Object createGame(Request request, Response response) {
-        response.type("application/json");
-        String authToken = request.headers("Authorization");
-        GameNameRequest gameName;
-        try {
-            gameName = gson.fromJson(request.body(), GameNameRequest.class);
-        } catch (Exception e) {
-            response.status(400);
-            return gson.toJson(new ErrorResponse("Error: bad request"));
-        }
-        if (gameName == null || gameName.gameName() == null || gameName.gameName().trim().isEmpty()) {
-            response.status(400);
-            return gson.toJson(new ErrorResponse("Error: bad request"));
-        }
-        try {
-            GameData game = gameService.createGame(authToken, gameName.gameName());
-            response.status(200);
-            return gson.toJson(new CreateGameResponse(game.gameID()));
-        } catch (DataAccessException e) {
-            response.status(getErrorStatus(e));
-            return gson.toJson(new ErrorResponse("Error: " + e.getMessage()));
-        }
+    public PasswordHasher.Stats passwordHashingStats() {
+        return api.passwordHashingStats();
     }
 
     /**
-     * Handles listing all available games.
+     * Returns the metrics served on /metrics, for registering more.
      *
-     * @param request  the HTTP request
-     * @param response the HTTP response
-     * @return a JSON response with the list of games or an error message
+     * @return the server's metrics
      */
-    private Object listGames(Request request, Response response) {
-        response.type("application/json");
-        String authToken = request.headers("Authorization");
-        try {
-            Collection<GameData> games = gameService.listGames(authToken);
-            response.status(200);
-            return gson.toJson(new ListGamesResponse(games));
-        } catch (DataAccessException e) {
-            response.status(getErrorStatus(e));
-            return gson.toJson(new ErrorResponse("Error: " + e.getMessage()));
-        }
+    public MetricsRegistry metrics() {
+        return metrics;
     }
 
     /**
-     * Handles user logout by invalidating the authentication token.
+     * Returns the endpoint implementations, so several nodes of a cluster can be driven in one process,
+     * where only one Spark server can run.
      *
-     * @param request  the HTTP request containing the auth token
-     * @param response the HTTP response
-     * @return a JSON response indicating success or an error message
+     * @return the server's API core
      */
-    private Object logout(Request request, Response response) {
-        response.type("application/json");
-        String authToken = request.headers("Authorization");
-        try {
-            authService.logout(authToken);
-            response.status(200);
-            return "{}";
-        } catch (DataAccessException e) {
-            response.status(getErrorStatus(e));
-            return gson.toJson(new ErrorResponse("Error: " + e.getMessage()));
-        }
+    ChessApi api() {
+        return api;
     }
 
     /**
-     * Handles user login and creates an authentication token.
-     *
-     * @param request  the HTTP request containing login credentials
-     * @param response the HTTP response
-     * @return a JSON response with authentication data or an error message
+     * Registers gauges over the statistics the server already keeps: JVM, websocket queues, password
+     * hashing, and, once the database is in use, each connection pool.
      */
-    private Object login(Request request, Response response) {
-        response.type("application/json");
-        String requestBody = request.body();
-        if (requestBody == null || requestBody.trim().isEmpty()) {
-            response.status(400);
-            return gson.toJson(new ErrorResponse("Error: bad request"));
-        }
-        JsonObject json;
-        try {
-            json = JsonParser.parseString(requestBody).getAsJsonObject();
-        } catch (Exception e) {
-            response.status(400);
-            return gson.toJson(new ErrorResponse("Error: bad request"));
-        }
-        boolean hasUsername = json.has("username") && !json.get("username").isJsonNull();
-        boolean hasPassword = json.has("password") && !json.get("password").isJsonNull();
-        if (!hasUsername || !hasPassword) {
-            response.status(400);
-            return gson.toJson(new ErrorResponse("Error: bad request"));
-        }
-        try {
-            String username = json.get("username").getAsString();
-            String password = json.get("password").getAsString();
-            if (username == null || password == null || username.trim().isEmpty() || password.trim().isEmpty()) {
-                response.status(400);
-                return gson.toJson(new ErrorResponse("Error: bad request"));
-            }
-            UserData user = new UserData(username.trim(), password.trim(), null);
-            AuthData authData = userService.login(user);
-            response.status(200);
-            return gson.toJson(authData);
-        } catch (DataAccessException e) {
-            response.status(getErrorStatus(e));
-            return gson.toJson(new ErrorResponse("Error: " + e.getMessage()));
-        }
+    private void registerMetrics() {
+        JvmMetrics.register(metrics);
+        metrics.gauge("chess_ws_queued_messages", "Websocket messages waiting to be sent",
+                () -> websocketStats().queuedMessages());
+        metrics.gauge("chess_ws_max_session_depth", "Longest websocket session queue",
+                () -> websocketStats().maxSessionDepth());
+        metrics.counter("chess_ws_coalesced_snapshots_total", "Game snapshots replaced by a newer one before sending",
+                () -> websocketStats().coalescedSnapshots());
+        metrics.counter("chess_ws_dropped_messages_total", "Websocket messages discarded for closed sessions",
+                () -> websocketStats().droppedMessages());
+        metrics.counter("chess_ws_slow_consumers_closed_total", "Websocket sessions closed for falling behind",
+                () -> websocketStats().slowConsumersClosed());
+        metrics.gauge("chess_password_hash_cost", "bcrypt cost of new password hashes",
+                () -> passwordHashingStats().cost());
+        metrics.gauge("chess_password_hash_queued", "Password hashes waiting for a thread",
+                () -> passwordHashingStats().queued());
+        metrics.counter("chess_password_hash_completed_total", "Password hashes and checks finished",
+                () -> passwordHashingStats().completed());
+        metrics.counter("chess_password_hash_rejected_total", "Password hashes refused because the queue was full",
+                () -> passwordHashingStats().rejected());
+        metrics.gauge("chess_password_hash_queue_max_seconds", "Longest wait for a password hashing thread",
+                () -> passwordHashingStats().maxQueueMillis() / 1000);
+        metrics.counter("chess_game_read_loads_total", "Game list and game reads sent to the store",
+                () -> api.gameReadStats().loads());
+        metrics.counter("chess_game_read_shared_total", "Game list and game requests served by another's read",
+                () -> api.gameReadStats().shared());
+        registerCacheMetrics("serialized", api.serializedPayloads());
+        registerCacheMetrics("compressed", compressed);
+        metrics.beforeScrape(this::registerPoolMetrics);
+    }
+
+    private void registerCacheMetrics(String name, PayloadCache payloads) {
+        metrics.counter("chess_payload_cache_hits_total", "Response bodies served from cache",
+                payloads::hits, "cache", name);
+        metrics.counter("chess_payload_cache_misses_total", "Response bodies that had to be encoded",
+                payloads::misses, "cache", name);
+        metrics.gauge("chess_payload_cache_bytes", "Response body bytes cached", payloads::bytes, "cache", name);
     }
 
     /**
-     * Maps exception messages to appropriate HTTP status codes.
-     *
-     * @param e the DataAccessException to process
-     * @return the corresponding HTTP status code
+     * Registers gauges for connection pools opened since the last scrape; pools open lazily with the database.
      */
-    private int getErrorStatus(DataAccessException e) {
-        String message = e.getMessage().toLowerCase();
-        if (message.contains("bad request") || message.contains("game not found")) {
-            return 400; // Bad Request
-        } else if (message.contains("unauthorized")) {
-            return 401; // Unauthorized
-        } else if (message.contains("already exists") || message.contains("already taken")) {
-            return 403; // Forbidden
+    private void registerPoolMetrics() {
+        for (ConnectionPool pool : ConnectionPool.openPools()) {
+            String database = pool.database();
+            metrics.gauge("chess_db_pool_active_connections", "Connections borrowed",
+                    () -> poolStats(database).active(), "pool", database);
+            metrics.gauge("chess_db_pool_idle_connections", "Connections ready to borrow",
+                    () -> poolStats(database).idle(), "pool", database);
+            metrics.gauge("chess_db_pool_threads_awaiting", "Threads waiting for a connection",
+                    () -> poolStats(database).threadsAwaiting(), "pool", database);
+            metrics.counter("chess_db_pool_borrows_total", "Connections handed out",
+                    () -> poolStats(database).borrowCount(), "pool", database);
+            metrics.counter("chess_db_pool_wait_seconds_total", "Time borrowers spent waiting for a connection",
+                    () -> poolStats(database).totalWaitNanos() / 1e9, "pool", database);
+            metrics.gauge("chess_db_pool_max_wait_seconds", "Longest wait for a connection",
+                    () -> poolStats(database).maxWaitNanos() / 1e9, "pool", database);
         }
-        return 500; // Internal Server Error
     }
 
-    /** Record for error response. */
-    private record ErrorResponse(String message) {}
-
-    /** Record for listing games response. */
-    private record ListGamesResponse(Collection<GameData> games) {}
+    /**
+     * Reads the open pool for a database, so a pool reopened after a shutdown is reported in place of
+     * the closed one.
+     */
+    private static PoolStats poolStats(String database) {
+        for (ConnectionPool pool : ConnectionPool.openPools()) {
+            if (pool.database().equals(database)) {
+                return pool.stats();
+            }
+        }
+        return new PoolStats(0, 0, 0, 0, 0, 0, 0);
+    }
 
-    /** Record for create game response. */
-    private record CreateGameResponse(int gameID) {}
+    /**
+     * Stops the server and waits for it to fully shut down.
+     */
+    public void stop() {
+        Spark.stop();
+        Spark.awaitStop();
+        bus.close();
+    }
 
-    /** Record for game name request. */
-    private record GameNameRequest(String gameName) {}
+    /**
+     * Adapts a ChessApi call to a Spark route, writing the status, any entity tag, and the pre-encoded JSON body.
+     * Large bodies are compressed with the coding the client prefers; for tagged responses the
+     * compressed bytes are cached by tag, so a popular version is compressed once, and the coding is
+     * added to the tag, as in {@code "...-gzip"}.
+     *
+     * @param handler the API call for this endpoint
+     * @return the Spark route
+     */
+    private Route json(SparkHandler handler) {
+        return (request, response) -> {
+            ApiResponse result = handler.handle(request);
+            response.type("application/json");
+            response.status(result.status());
+            response.header("Vary", "Accept-Encoding");
+            byte[] body = result.body();
+            ContentEncoding encoding = body.length < MIN_COMPRESSED_BYTES ? null
+                    : ContentEncoding.negotiate(request.headers("Accept-Encoding"));
+            if (result.etag() != null) {
+                // Each coding is its own representation, so it gets its own strong tag
+                response.header("ETag", encoding == null ? result.etag() : encoding.tag(result.etag()));
+                // Clients must revalidate before reusing a stored copy
+                response.header("Cache-Control", "no-cache");
+            }
+            if (encoding == null) {
+                return body;
+            }
+            byte[] encoded = result.etag() == null ? encoding.encode(body, Deflater.DEFAULT_COMPRESSION)
+                    : compressed.get(encoding.token() + result.etag(),
+                    () -> encoding.encode(body, Deflater.BEST_COMPRESSION));
+            // Written here rather than returned: Spark would gzip again a body marked as gzip
+            HttpServletResponse raw = response.raw();
+            raw.setHeader("Content-Encoding", encoding.token());
+            raw.setContentLength(encoded.length);
+            raw.getOutputStream().write(encoded);
+            raw.flushBuffer();
+            return "";
+        };
+    }
 
-    /** Record for join game request. */
-    private record JoinGameRequest(int gameID, String playerColor) {}
+    /** An endpoint body in terms of the Spark request. */
+    @FunctionalInterface
+    private interface SparkHandler {
+        ApiResponse handle(Request request);
+    }
 }
\ No newline at end of file
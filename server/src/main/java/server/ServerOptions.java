@@ -0,0 +1,31 @@
+package server;
+
+/**
+ * Threading settings for {@link Server}.
+ *
+ * @param virtualThreads        run request handlers on virtual threads instead of Jetty's platform thread pool
+ * @param maxConcurrentRequests requests allowed in flight per endpoint, or 0 for no limit
+ * @param admissionTimeoutMs    how long a request waits for an endpoint slot before getting a 503
+ * @param gameMailboxCapacity   websocket commands queued per game before new ones are refused as busy
+ * @param sessionOutboxCapacity websocket messages queued per session before it is disconnected as too slow
+ */
+public record ServerOptions(boolean virtualThreads, int maxConcurrentRequests, long admissionTimeoutMs,
+                            int gameMailboxCapacity, int sessionOutboxCapacity) {
+
+    /**
+     * Reads options from the {@code chess.server.*} system properties, defaulting to Jetty's own thread pool
+     * with no per-endpoint limit and room for 1024 pending commands per game
+     * and 256 pending messages per websocket session.
+     *
+     * @return the server options
+     */
+    public static ServerOptions fromSystemProperties() {
+        return new ServerOptions(
+                Boolean.getBoolean("chess.server.virtualThreads"),
+                Integer.getInteger("chess.server.maxConcurrentRequests", 0),
+                Long.getLong("chess.server.admissionTimeoutMs", 1000),
+                Integer.getInteger("chess.server.gameMailboxCapacity", 1024),
+                Integer.getInteger("chess.server.sessionOutboxCapacity", 256)
+        );
+    }
+}
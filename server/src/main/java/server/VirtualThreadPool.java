@@ -0,0 +1,73 @@
+package server;
+
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Jetty thread pool that runs request handling on a separate executor, virtual threads by default.
+ * Jetty starts its acceptor and selector loops while the server is starting, so those stay on a small
+ * set of platform threads; once {@link #dispatchToExecutor()} is called every job Jetty dispatches,
+ * including each request, runs on the executor instead. A request blocked on JDBC then parks a
+ * virtual thread rather than pinning a platform thread.
+ * <p>
+ * For the same reason, code that requests run through uses {@link java.util.concurrent.locks.ReentrantLock}
+ * rather than {@code synchronized} wherever a lock may be held while blocking. On Java 21, a virtual thread
+ * that blocks inside a {@code synchronized} block pins its carrier thread. A virtual thread waiting on a
+ * ReentrantLock does not.
+ */
+public class VirtualThreadPool extends QueuedThreadPool {
+    /** Platform threads kept for Jetty's acceptors and selectors. */
+    private static final int PLATFORM_THREADS = 16;
+
+    private final Executor executor;
+    private volatile boolean dispatching;
+
+    /**
+     * Constructs a pool that hands requests to a new virtual thread each.
+     */
+    public VirtualThreadPool() {
+        this(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chess-request-", 0).factory()));
+    }
+
+    /**
+     * Constructs a pool that hands requests to the given executor.
+     *
+     * @param executor runs every job dispatched after {@link #dispatchToExecutor()}
+     */
+    public VirtualThreadPool(Executor executor) {
+        super(PLATFORM_THREADS, PLATFORM_THREADS / 2);
+        setName("chess-jetty");
+        this.executor = executor;
+    }
+
+    /**
+     * Starts routing jobs to the executor. Called once the server's connectors are running.
+     */
+    public void dispatchToExecutor() {
+        dispatching = true;
+    }
+
+    @Override
+    public void execute(Runnable job) {
+        if (dispatching && isRunning()) {
+            executor.execute(job);
+        } else {
+            super.execute(job);
+        }
+    }
+
+    /**
+     * A fresh thread is always available from the executor, so Jetty never has to run a request on
+     * the selector thread or queue it.
+     */
+    @Override
+    public boolean tryExecute(Runnable task) {
+        if (dispatching && isRunning()) {
+            executor.execute(task);
+            return true;
+        }
+        return super.tryExecute(task);
+    }
+}
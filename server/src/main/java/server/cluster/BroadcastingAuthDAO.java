@@ -0,0 +1,67 @@
+package server.cluster;
+
+import dataAccess.AuthDAO;
+import dataAccess.DataAccessException;
+import model.AuthData;
+
+/**
+ * Tells the other nodes of a cluster about every logout and clear made through it, so a token this
+ * node stopped honouring is not still accepted from memory elsewhere, by a token cache or a signed
+ * token's revocation set. The other nodes apply the change through
+ * {@link AuthDAO#revokedElsewhere(String)} and {@link AuthDAO#clearedElsewhere(long)}. Delivery is
+ * asynchronous, so another node may accept the token for the moment it takes to arrive.
+ */
+public class BroadcastingAuthDAO implements AuthDAO {
+    private final AuthDAO delegate;
+    private final GameEventBus bus;
+
+    /**
+     * @param delegate the AuthDAO changes are made through
+     * @param bus      the cluster to tell
+     */
+    public BroadcastingAuthDAO(AuthDAO delegate, GameEventBus bus) {
+        this.delegate = delegate;
+        this.bus = bus;
+    }
+
+    @Override
+    public AuthData createAuthToken(String username) throws DataAccessException {
+        return delegate.createAuthToken(username);
+    }
+
+    @Override
+    public AuthData getAuthToken(String authToken) throws DataAccessException {
+        return delegate.getAuthToken(authToken);
+    }
+
+    @Override
+    public void deleteAuthToken(String authToken) throws DataAccessException {
+        delegate.deleteAuthToken(authToken);
+        sendToOthers(GameEvent.authRevoked(authToken));
+    }
+
+    @Override
+    public void clearAll() throws DataAccessException {
+        delegate.clearAll();
+        // Taken after the clear, so every token issued before it is covered
+        sendToOthers(GameEvent.authCleared(System.currentTimeMillis()));
+    }
+
+    @Override
+    public void revokedElsewhere(String authToken) {
+        delegate.revokedElsewhere(authToken);
+    }
+
+    @Override
+    public void clearedElsewhere(long clearedAtMillis) {
+        delegate.clearedElsewhere(clearedAtMillis);
+    }
+
+    private void sendToOthers(GameEvent event) {
+        for (String node : bus.nodes()) {
+            if (!node.equals(bus.localNode())) {
+                bus.send(node, event);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package server.cluster;
+
+/**
+ * One message on the {@link GameEventBus}. Nodes exchange commands and their effects in this form,
+ * along with logouts and clears that other nodes must stop honouring tokens for, so it carries only
+ * strings and numbers and crosses a socket as-is.
+ * Which fields are set depends on the kind; see the factory methods.
+ *
+ * @param kind      what the event is
+ * @param gameID    the game it concerns, or 0 if none
+ * @param node      the node holding the session the event is for or from, or the excluded session's node
+ * @param sessionID the session on that node, or null
+ * @param payload   a JSON command or server message, the token for AUTH_REVOKED, or the epoch
+ *                  milliseconds for AUTH_CLEARED
+ * @param snapshot  for MOVE, the LOAD_GAME JSON for sessions that do not take deltas
+ * @param username  for JOIN, the user behind the session
+ * @param deltas    for JOIN, whether the session takes MOVE_APPLIED deltas
+ */
+public record GameEvent(Kind kind, int gameID, String node, String sessionID, String payload, String snapshot,
+                        String username, boolean deltas) {
+
+    /** Event kinds. */
+    public enum Kind {
+        /** A client command, sent from the session's node to the game's owner. */
+        COMMAND,
+        /** A message for one session, sent to the node holding it. */
+        DELIVER,
+        /** Registers a session as connected to a game, sent to the node holding it. */
+        JOIN,
+        /** Removes a session from its game, sent to the node holding it. */
+        LEAVE,
+        /** A message for every session in a game but one, published to all nodes. */
+        BROADCAST,
+        /** A move for every session in a game, as a delta and as a snapshot, published to all nodes. */
+        MOVE,
+        /** A token logged out on the sending node, sent to every other node. */
+        AUTH_REVOKED,
+        /** The auth store was cleared by the sending node, sent to every other node. */
+        AUTH_CLEARED
+    }
+
+    public static GameEvent command(int gameID, String node, String sessionID, String json) {
+        return new GameEvent(Kind.COMMAND, gameID, node, sessionID, json, null, null, false);
+    }
+
+    public static GameEvent deliver(String node, String sessionID, String json) {
+        return new GameEvent(Kind.DELIVER, 0, node, sessionID, json, null, null, false);
+    }
+
+    public static GameEvent join(int gameID, String node, String sessionID, String username, boolean deltas) {
+        return new GameEvent(Kind.JOIN, gameID, node, sessionID, null, null, username, deltas);
+    }
+
+    public static GameEvent leave(String node, String sessionID) {
+        return new GameEvent(Kind.LEAVE, 0, node, sessionID, null, null, null, false);
+    }
+
+    /**
+     * @param excludeNode    node of the session to skip, or null
+     * @param excludeSession the session to skip, or null
+     */
+    public static GameEvent broadcast(int gameID, String json, String excludeNode, String excludeSession) {
+        return new GameEvent(Kind.BROADCAST, gameID, excludeNode, excludeSession, json, null, null, false);
+    }
+
+    public static GameEvent move(int gameID, String delta, String snapshot) {
+        return new GameEvent(Kind.MOVE, gameID, null, null, delta, snapshot, null, false);
+    }
+
+    public static GameEvent authRevoked(String authToken) {
+        return new GameEvent(Kind.AUTH_REVOKED, 0, null, null, authToken, null, null, false);
+    }
+
+    public static GameEvent authCleared(long clearedAtMillis) {
+        return new GameEvent(Kind.AUTH_CLEARED, 0, null, null, Long.toString(clearedAtMillis), null, null, false);
+    }
+}
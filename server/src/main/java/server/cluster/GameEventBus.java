@@ -0,0 +1,52 @@
+package server.cluster;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries gameplay events between the server nodes that host websocket sessions.
+ * Each game is owned by one node, chosen by a {@link util.HashRing} over {@link #nodes()}; commands are
+ * sent to the owner, which alone changes the game and then sends the effects back out. Events from
+ * one node to another arrive in the order they were sent, and a node's events to itself are
+ * delivered like any other, so callers never special-case the local node.
+ */
+public interface GameEventBus extends AutoCloseable {
+
+    /**
+     * @return this node's name
+     */
+    String localNode();
+
+    /**
+     * @return every node's name, this one included, identical on every node
+     */
+    List<String> nodes();
+
+    /**
+     * Starts delivering events addressed to this node. Call once, before sending anything.
+     *
+     * @param listener receives events in arrival order; must not block for long
+     */
+    void start(Consumer<GameEvent> listener);
+
+    /**
+     * Sends an event to one node.
+     *
+     * @param node  the destination
+     * @param event the event
+     */
+    void send(String node, GameEvent event);
+
+    /**
+     * Sends an event to every node, this one included.
+     *
+     * @param event the event
+     */
+    void publish(GameEvent event);
+
+    /**
+     * Stops delivery and releases connections.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,98 @@
+package server.cluster;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Event bus between nodes living in the same JVM. Events are handed to the destination's listener on
+ * the sending thread, so a single-node server pays nothing for going through the bus. Several nodes on
+ * one {@link Network} behave like a cluster, which is how multi-node routing is exercised without sockets.
+ */
+public final class InProcessGameEventBus implements GameEventBus {
+    private final Network network;
+    private final String localNode;
+    private volatile Consumer<GameEvent> listener;
+
+    private InProcessGameEventBus(Network network, String localNode) {
+        this.network = network;
+        this.localNode = localNode;
+    }
+
+    /**
+     * Creates the bus for a server that is its own, only node.
+     *
+     * @return the bus
+     */
+    public static InProcessGameEventBus standalone() {
+        return new Network(List.of("local")).node("local");
+    }
+
+    @Override
+    public String localNode() {
+        return localNode;
+    }
+
+    @Override
+    public List<String> nodes() {
+        return network.names;
+    }
+
+    @Override
+    public void start(Consumer<GameEvent> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void send(String node, GameEvent event) {
+        network.node(node).deliver(event);
+    }
+
+    @Override
+    public void publish(GameEvent event) {
+        for (String node : network.names) {
+            send(node, event);
+        }
+    }
+
+    @Override
+    public void close() {
+        listener = null;
+    }
+
+    private void deliver(GameEvent event) {
+        Consumer<GameEvent> current = listener;
+        if (current != null) {
+            current.accept(event);
+        }
+    }
+
+    /**
+     * A fixed set of in-process nodes that can reach each other.
+     */
+    public static final class Network {
+        private final List<String> names;
+        private final Map<String, InProcessGameEventBus> buses = new ConcurrentHashMap<>();
+
+        /**
+         * @param names the node names
+         */
+        public Network(List<String> names) {
+            this.names = List.copyOf(names);
+        }
+
+        /**
+         * Gets the bus for one node of this network.
+         *
+         * @param name the node name
+         * @return the node's bus
+         */
+        public InProcessGameEventBus node(String name) {
+            if (!names.contains(name)) {
+                throw new IllegalArgumentException("Unknown node: " + name);
+            }
+            return buses.computeIfAbsent(name, key -> new InProcessGameEventBus(this, key));
+        }
+    }
+}
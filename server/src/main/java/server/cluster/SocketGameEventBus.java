@@ -0,0 +1,238 @@
+package server.cluster;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import logging.Logger;
+
+/**
+ * Event bus between server processes over plain TCP, a stand-in for a real message broker.
+ * Every node listens on its own address; events to another node go over one long-lived connection
+ * per peer as length-prefixed JSON, so each peer receives them in the order they were sent.
+ * Delivery is best effort: an event that cannot be written after one reconnect is dropped and
+ * reported, and clients recover the game state with RESYNC or by reconnecting.
+ */
+public final class SocketGameEventBus implements GameEventBus {
+    private static final Logger LOG = Logger.get(SocketGameEventBus.class);
+    /** Largest event accepted from a peer. */
+    private static final int MAX_EVENT_BYTES = 1 << 20;
+
+    private final String localNode;
+    private final Map<String, InetSocketAddress> addresses;
+    private final List<String> nodes;
+    private final Map<String, Peer> peers = new LinkedHashMap<>();
+    private final Gson gson = new Gson();
+    private final ExecutorService readers =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chess-bus-", 0).factory());
+    private final Set<Socket> inbound = ConcurrentHashMap.newKeySet();
+    private volatile Consumer<GameEvent> listener;
+    private ServerSocket serverSocket;
+
+    /**
+     * Constructs a bus node.
+     *
+     * @param localNode this node's name, which must be a key of {@code addresses}
+     * @param addresses where every node listens, this one included, in the same order on every node
+     */
+    public SocketGameEventBus(String localNode, Map<String, InetSocketAddress> addresses) {
+        if (!addresses.containsKey(localNode)) {
+            throw new IllegalArgumentException("No address for local node " + localNode);
+        }
+        this.localNode = localNode;
+        this.addresses = new LinkedHashMap<>(addresses);
+        this.nodes = List.copyOf(addresses.keySet());
+        for (String node : nodes) {
+            if (!node.equals(localNode)) {
+                peers.put(node, new Peer(addresses.get(node)));
+            }
+        }
+    }
+
+    @Override
+    public String localNode() {
+        return localNode;
+    }
+
+    @Override
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    @Override
+    public void start(Consumer<GameEvent> listener) {
+        this.listener = listener;
+        try {
+            serverSocket = new ServerSocket();
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(addresses.get(localNode));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to listen for cluster events: " + e.getMessage(), e);
+        }
+        readers.execute(this::acceptLoop);
+    }
+
+    @Override
+    public void send(String node, GameEvent event) {
+        if (node.equals(localNode)) {
+            deliver(event);
+            return;
+        }
+        Peer peer = peers.get(node);
+        if (peer == null) {
+            throw new IllegalArgumentException("Unknown node: " + node);
+        }
+        peer.write(gson.toJson(event).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void publish(GameEvent event) {
+        byte[] bytes = null;
+        for (String node : nodes) {
+            if (node.equals(localNode)) {
+                deliver(event);
+            } else {
+                // Encode once for all peers
+                if (bytes == null) {
+                    bytes = gson.toJson(event).getBytes(StandardCharsets.UTF_8);
+                }
+                peers.get(node).write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        listener = null;
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            // Already closed
+        }
+        inbound.forEach(SocketGameEventBus::closeQuietly);
+        peers.values().forEach(Peer::close);
+        readers.shutdownNow();
+    }
+
+    private void deliver(GameEvent event) {
+        Consumer<GameEvent> current = listener;
+        if (current != null) {
+            current.accept(event);
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                inbound.add(socket);
+                readers.execute(() -> readLoop(socket));
+            } catch (IOException e) {
+                // Closed by close(), or a failed accept; the loop condition decides
+            }
+        }
+    }
+
+    private void readLoop(Socket socket) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (true) {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_EVENT_BYTES) {
+                    throw new IOException("Bad event length " + length);
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                deliver(gson.fromJson(new String(bytes, StandardCharsets.UTF_8), GameEvent.class));
+            }
+        } catch (IOException e) {
+            // Peer went away; it reconnects on its next send
+        } finally {
+            inbound.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nothing more to do
+        }
+    }
+
+    /**
+     * The outgoing connection to one peer, opened on first use and reopened after a failure.
+     */
+    private static final class Peer {
+        private final InetSocketAddress address;
+        /** Held while connecting or writing, so frames from different senders do not interleave. */
+        private final ReentrantLock lock = new ReentrantLock();
+        private Socket socket;
+        private DataOutputStream out;
+
+        Peer(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        void write(byte[] event) {
+            lock.lock();
+            try {
+                for (int attempt = 0; attempt < 2; attempt++) {
+                    try {
+                        if (socket == null) {
+                            socket = new Socket();
+                            socket.setTcpNoDelay(true);
+                            socket.connect(address, 1000);
+                            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                        }
+                        out.writeInt(event.length);
+                        out.write(event);
+                        out.flush();
+                        return;
+                    } catch (IOException e) {
+                        disconnect();
+                    }
+                }
+                LOG.warn("Dropped cluster event, peer unreachable", "peer", address);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                disconnect();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void disconnect() {
+            if (socket != null) {
+                closeQuietly(socket);
+            }
+            socket = null;
+            out = null;
+        }
+    }
+}
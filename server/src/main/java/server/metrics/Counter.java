@@ -0,0 +1,32 @@
+package server.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count that only goes up, such as requests answered. Backed by a {@link LongAdder}, so threads
+ * incrementing at once each update their own cell instead of contending on one value.
+ */
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * @param amount how much to add; never negative
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * @return the total so far
+     */
+    public long sum() {
+        return value.sum();
+    }
+}
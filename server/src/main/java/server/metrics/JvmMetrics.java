@@ -0,0 +1,65 @@
+package server.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Gauges for the JVM the server runs in: heap and non-heap memory, garbage collection counts and
+ * time per collector, threads, uptime, and CPU time when the platform reports it. All are read from
+ * the platform MXBeans when scraped.
+ */
+public final class JvmMetrics {
+    private JvmMetrics() {
+    }
+
+    /**
+     * Registers the JVM metrics.
+     *
+     * @param registry the registry to add them to
+     */
+    public static void register(MetricsRegistry registry) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memoryArea(registry, "heap", memory::getHeapMemoryUsage);
+        memoryArea(registry, "nonheap", memory::getNonHeapMemoryUsage);
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            registry.counter("jvm_gc_collections_total", "Garbage collections run",
+                    () -> Math.max(gc.getCollectionCount(), 0), "gc", gc.getName());
+            registry.counter("jvm_gc_collection_seconds_total", "Time spent in garbage collection",
+                    () -> Math.max(gc.getCollectionTime(), 0) / 1000.0, "gc", gc.getName());
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        registry.gauge("jvm_threads_live", "Live platform threads", threads::getThreadCount);
+        registry.gauge("jvm_threads_daemon", "Live platform daemon threads", threads::getDaemonThreadCount);
+        registry.gauge("jvm_threads_peak", "Most live platform threads at once", threads::getPeakThreadCount);
+
+        registry.gauge("process_uptime_seconds", "Time since the JVM started",
+                () -> ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        registry.gauge("system_load_average_1m", "System load average over the last minute", os::getSystemLoadAverage);
+        if (os instanceof com.sun.management.OperatingSystemMXBean process) {
+            registry.counter("process_cpu_seconds_total", "CPU time used by the JVM",
+                    () -> process.getProcessCpuTime() / 1e9);
+        }
+    }
+
+    private static void memoryArea(MetricsRegistry registry, String area, Supplier<MemoryUsage> usage) {
+        gauge(registry, "jvm_memory_used_bytes", "Memory in use", area, usage, MemoryUsage::getUsed);
+        gauge(registry, "jvm_memory_committed_bytes", "Memory reserved from the operating system", area, usage,
+                MemoryUsage::getCommitted);
+        gauge(registry, "jvm_memory_max_bytes", "Most memory that can be used, or -1 if unbounded", area, usage,
+                MemoryUsage::getMax);
+    }
+
+    private static void gauge(MetricsRegistry registry, String name, String help, String area,
+                              Supplier<MemoryUsage> usage, ToLongFunction<MemoryUsage> field) {
+        registry.gauge(name, help, () -> field.applyAsLong(usage.get()), "area", area);
+    }
+}
@@ -0,0 +1,239 @@
+package server.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Named metrics for one server, written out in the Prometheus text format by {@link #scrape()}.
+ * Callers register a counter or histogram once, keep the returned object, and record on it directly,
+ * so the hot path never looks anything up here. Gauges and counters kept elsewhere, such as pool or
+ * queue statistics, are registered as suppliers and read only when scraped.
+ * <p>
+ * Labels are given as alternating names and values. Registering the same name and labels again
+ * returns the metric already registered.
+ */
+public class MetricsRegistry {
+    /** Content type of {@link #scrape()} output. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /** In registration order; guarded by {@link #lock}. */
+    private final Map<String, Family> families = new LinkedHashMap<>();
+    /** Guards {@link #families} and each family's series. */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Runnable> beforeScrape = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a counter to increment directly.
+     *
+     * @param name   metric name, ending in {@code _total}
+     * @param help   what it counts
+     * @param labels alternating label names and values
+     * @return the counter
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return register(name, help, Type.COUNTER, labels, Counter::new, Counter.class);
+    }
+
+    /**
+     * Registers a counter kept elsewhere, read when scraped.
+     *
+     * @param name   metric name, ending in {@code _total}
+     * @param help   what it counts
+     * @param value  reads the current total
+     * @param labels alternating label names and values
+     */
+    public void counter(String name, String help, DoubleSupplier value, String... labels) {
+        register(name, help, Type.COUNTER, labels, () -> value, DoubleSupplier.class);
+    }
+
+    /**
+     * Registers a value that can go up and down, read when scraped.
+     *
+     * @param name   metric name
+     * @param help   what it measures
+     * @param value  reads the current value
+     * @param labels alternating label names and values
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        register(name, help, Type.GAUGE, labels, () -> value, DoubleSupplier.class);
+    }
+
+    /**
+     * Registers a latency histogram, written out as a summary in seconds with the 50th, 90th, 99th
+     * and 99.9th percentiles, plus a {@code <name>_max} gauge.
+     *
+     * @param name   metric name, ending in {@code _seconds}
+     * @param help   what it times
+     * @param labels alternating label names and values
+     * @return the histogram, which records nanoseconds
+     */
+    public Histogram histogram(String name, String help, String... labels) {
+        return register(name, help, Type.SUMMARY, labels, Histogram::new, Histogram.class);
+    }
+
+    /**
+     * Runs an action at the start of every scrape, for registering metrics of things that come and go.
+     *
+     * @param action the action, which may register metrics
+     */
+    public void beforeScrape(Runnable action) {
+        beforeScrape.add(action);
+    }
+
+    /**
+     * Reads every metric.
+     *
+     * @return the metrics in the Prometheus text exposition format
+     */
+    public String scrape() {
+        beforeScrape.forEach(Runnable::run);
+        List<Family> current = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Family family : families.values()) {
+                current.add(new Family(family.name, family.help, family.type, new LinkedHashMap<>(family.children)));
+            }
+        } finally {
+            lock.unlock();
+        }
+        StringBuilder out = new StringBuilder(4096);
+        for (Family family : current) {
+            family.writeTo(out);
+        }
+        return out.toString();
+    }
+
+    private <T> T register(String name, String help, Type type, String[] labels, Supplier<T> create, Class<T> kind) {
+        String labelText = labelText(labels);
+        lock.lock();
+        try {
+            Family family = families.computeIfAbsent(name, key -> new Family(name, help, type, new LinkedHashMap<>()));
+            if (family.type != type) {
+                throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+            }
+            Object existing = family.children.get(labelText);
+            if (existing != null) {
+                if (!kind.isInstance(existing)) {
+                    throw new IllegalArgumentException("Metric " + name + labelText + " is already registered");
+                }
+                return kind.cast(existing);
+            }
+            T metric = create.get();
+            family.children.put(labelText, metric);
+            return metric;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Formats labels as {@code {name="value",...}}, escaping the values.
+     */
+    private static String labelText(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name and value pairs");
+        }
+        if (labels.length == 0) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                switch (c) {
+                    case '\\' -> text.append("\\\\");
+                    case '"' -> text.append("\\\"");
+                    case '\n' -> text.append("\\n");
+                    default -> text.append(c);
+                }
+            }
+            text.append('"');
+        }
+        return text.append('}').toString();
+    }
+
+    /**
+     * Adds a label to formatted labels, e.g. the quantile of a summary.
+     */
+    private static String withLabel(String labelText, String name, String value) {
+        String label = name + "=\"" + value + "\"";
+        return labelText.isEmpty() ? "{" + label + "}"
+                : labelText.substring(0, labelText.length() - 1) + "," + label + "}";
+    }
+
+    private static String number(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        } else if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private enum Type {
+        COUNTER, GAUGE, SUMMARY;
+
+        String text() {
+            return name().toLowerCase();
+        }
+    }
+
+    /** One metric name and its children by label set. */
+    private record Family(String name, String help, Type type, Map<String, Object> children) {
+
+        void writeTo(StringBuilder out) {
+            header(out, name, help, type);
+            List<Map.Entry<String, Histogram.Snapshot>> snapshots = new ArrayList<>();
+            for (Map.Entry<String, Object> child : children.entrySet()) {
+                String labels = child.getKey();
+                switch (child.getValue()) {
+                    case Counter counter -> sample(out, name, labels, counter.sum());
+                    case DoubleSupplier supplier -> sample(out, name, labels, supplier.getAsDouble());
+                    case Histogram histogram -> {
+                        Histogram.Snapshot snapshot = histogram.snapshot();
+                        snapshots.add(Map.entry(labels, snapshot));
+                        for (double quantile : QUANTILES) {
+                            sample(out, name, withLabel(labels, "quantile", number(quantile)), snapshot.count() == 0
+                                    ? Double.NaN : snapshot.quantileNanos(quantile) / NANOS_PER_SECOND);
+                        }
+                        sample(out, name + "_sum", labels, snapshot.sumNanos() / NANOS_PER_SECOND);
+                        sample(out, name + "_count", labels, snapshot.count());
+                    }
+                    default -> throw new IllegalStateException("Unknown metric " + child.getValue());
+                }
+            }
+            if (!snapshots.isEmpty()) {
+                header(out, name + "_max", "Largest value of " + name + " since startup", Type.GAUGE);
+                for (Map.Entry<String, Histogram.Snapshot> entry : snapshots) {
+                    sample(out, name + "_max", entry.getKey(), entry.getValue().maxNanos() / NANOS_PER_SECOND);
+                }
+            }
+        }
+
+        private static void header(StringBuilder out, String name, String help, Type type) {
+            out.append("# HELP ").append(name).append(' ')
+                    .append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type.text()).append('\n');
+        }
+
+        private static void sample(StringBuilder out, String name, String labels, double value) {
+            out.append(name).append(labels).append(' ').append(number(value)).append('\n');
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package server.metrics;
+
+import dataAccess.AuthDAO;
+import dataAccess.DataAccessException;
+import model.AuthData;
+
+/**
+ * Times every call to another AuthDAO in {@code chess_dao_call_seconds}, labelled with the method.
+ */
+public class TimedAuthDAO implements AuthDAO {
+    private final AuthDAO delegate;
+    private final Histogram createAuthToken;
+    private final Histogram getAuthToken;
+    private final Histogram deleteAuthToken;
+    private final Histogram clearAll;
+
+    /**
+     * @param delegate the AuthDAO to time
+     * @param metrics  where to record the timings
+     */
+    public TimedAuthDAO(AuthDAO delegate, MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.createAuthToken = TimedGameDAO.histogram(metrics, "auth", "createAuthToken");
+        this.getAuthToken = TimedGameDAO.histogram(metrics, "auth", "getAuthToken");
+        this.deleteAuthToken = TimedGameDAO.histogram(metrics, "auth", "deleteAuthToken");
+        this.clearAll = TimedGameDAO.histogram(metrics, "auth", "clearAll");
+    }
+
+    @Override
+    public AuthData createAuthToken(String username) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            return delegate.createAuthToken(username);
+        } finally {
+            createAuthToken.recordSince(start);
+        }
+    }
+
+    @Override
+    public AuthData getAuthToken(String authToken) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAuthToken(authToken);
+        } finally {
+            getAuthToken.recordSince(start);
+        }
+    }
+
+    @Override
+    public void deleteAuthToken(String authToken) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteAuthToken(authToken);
+        } finally {
+            deleteAuthToken.recordSince(start);
+        }
+    }
+
+    @Override
+    public void clearAll() throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            delegate.clearAll();
+        } finally {
+            clearAll.recordSince(start);
+        }
+    }
+
+    @Override
+    public void revokedElsewhere(String authToken) {
+        delegate.revokedElsewhere(authToken);
+    }
+
+    @Override
+    public void clearedElsewhere(long clearedAtMillis) {
+        delegate.clearedElsewhere(clearedAtMillis);
+    }
+}
@@ -0,0 +1,144 @@
+package server.metrics;
+
+import chess.ChessGame;
+import dataAccess.DataAccessException;
+import dataAccess.GameDAO;
+import model.GameData;
+
+import java.util.Collection;
+
+/**
+ * Times every call to another GameDAO in {@code chess_dao_call_seconds}, labelled with the method.
+ */
+public class TimedGameDAO implements GameDAO {
+    private final GameDAO delegate;
+    private final Histogram createGame;
+    private final Histogram getGame;
+    private final Histogram listgame;
+    private final Histogram updateGame;
+    private final Histogram updateGameStates;
+    private final Histogram claimSeat;
+    private final Histogram releaseSeat;
+    private final Histogram updateGameState;
+    private final Histogram clear;
+
+    /**
+     * @param delegate the GameDAO to time
+     * @param metrics  where to record the timings
+     */
+    public TimedGameDAO(GameDAO delegate, MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.createGame = histogram(metrics, "game", "createGame");
+        this.getGame = histogram(metrics, "game", "getGame");
+        this.listgame = histogram(metrics, "game", "listgame");
+        this.updateGame = histogram(metrics, "game", "updateGame");
+        this.updateGameStates = histogram(metrics, "game", "updateGameStates");
+        this.claimSeat = histogram(metrics, "game", "claimSeat");
+        this.releaseSeat = histogram(metrics, "game", "releaseSeat");
+        this.updateGameState = histogram(metrics, "game", "updateGameState");
+        this.clear = histogram(metrics, "game", "clear");
+    }
+
+    /**
+     * Registers the timing of one DAO method.
+     */
+    static Histogram histogram(MetricsRegistry metrics, String dao, String method) {
+        return metrics.histogram("chess_dao_call_seconds", "Time spent in a data access call",
+                "dao", dao, "method", method);
+    }
+
+    @Override
+    public GameData createGame(String gameName) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            return delegate.createGame(gameName);
+        } finally {
+            createGame.recordSince(start);
+        }
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getGame(gameID);
+        } finally {
+            getGame.recordSince(start);
+        }
+    }
+
+    @Override
+    public Collection<GameData> listgame() throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            return delegate.listgame();
+        } finally {
+            listgame.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            delegate.updateGame(game);
+        } finally {
+            updateGame.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updateGameStates(Collection<GameData> games) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            delegate.updateGameStates(games);
+        } finally {
+            updateGameStates.recordSince(start);
+        }
+    }
+
+    @Override
+    public boolean claimSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            return delegate.claimSeat(gameID, color, username);
+        } finally {
+            claimSeat.recordSince(start);
+        }
+    }
+
+    @Override
+    public boolean releaseSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            return delegate.releaseSeat(gameID, color, username);
+        } finally {
+            releaseSeat.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updateGameState(int gameID, ChessGame game) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            delegate.updateGameState(gameID, game);
+        } finally {
+            updateGameState.recordSince(start);
+        }
+    }
+
+    @Override
+    public boolean cachesGames() {
+        return delegate.cachesGames();
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            delegate.clear();
+        } finally {
+            clear.recordSince(start);
+        }
+    }
+}
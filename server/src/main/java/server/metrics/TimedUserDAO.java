@@ -0,0 +1,94 @@
+package server.metrics;
+
+import dataAccess.DataAccessException;
+import dataAccess.UserDAO;
+import model.UserData;
+
+import java.util.function.Consumer;
+
+/**
+ * Times every call to another UserDAO in {@code chess_dao_call_seconds}, labelled with the method.
+ */
+public class TimedUserDAO implements UserDAO {
+    private final UserDAO delegate;
+    private final Histogram createUser;
+    private final Histogram getUser;
+    private final Histogram mightExist;
+    private final Histogram forEachUsername;
+    private final Histogram updatePassword;
+    private final Histogram clear;
+
+    /**
+     * @param delegate the UserDAO to time
+     * @param metrics  where to record the timings
+     */
+    public TimedUserDAO(UserDAO delegate, MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.createUser = TimedGameDAO.histogram(metrics, "user", "createUser");
+        this.getUser = TimedGameDAO.histogram(metrics, "user", "getUser");
+        this.mightExist = TimedGameDAO.histogram(metrics, "user", "mightExist");
+        this.forEachUsername = TimedGameDAO.histogram(metrics, "user", "forEachUsername");
+        this.updatePassword = TimedGameDAO.histogram(metrics, "user", "updatePassword");
+        this.clear = TimedGameDAO.histogram(metrics, "user", "clear");
+    }
+
+    @Override
+    public void createUser(UserData user) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            delegate.createUser(user);
+        } finally {
+            createUser.recordSince(start);
+        }
+    }
+
+    @Override
+    public UserData getUser(String username) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getUser(username);
+        } finally {
+            getUser.recordSince(start);
+        }
+    }
+
+    @Override
+    public boolean mightExist(String username) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            return delegate.mightExist(username);
+        } finally {
+            mightExist.recordSince(start);
+        }
+    }
+
+    @Override
+    public void forEachUsername(Consumer<String> action) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            delegate.forEachUsername(action);
+        } finally {
+            forEachUsername.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updatePassword(String username, String password) throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            delegate.updatePassword(username, password);
+        } finally {
+            updatePassword.recordSince(start);
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            delegate.clear();
+        } finally {
+            clear.recordSince(start);
+        }
+    }
+}
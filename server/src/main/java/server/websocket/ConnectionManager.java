@@ -0,0 +1,183 @@
+package server.websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the websocket sessions connected to each game, with one-pass broadcast.
+ * A session watches at most one game at a time; connecting to another game moves it.
+ * Messages are written as pre-encoded text frames, so a broadcast serializes once and
+ * hands the same bytes to every session without waiting for any of them. Each session
+ * writes through its own bounded {@link Outbox}, so a slow observer cannot hold up the players.
+ */
+public class ConnectionManager {
+    /** Messages each session may have waiting before it is disconnected as too slow. */
+    private final int outboxCapacity;
+    /** Totals behind {@link #stats()}. */
+    private final OutboundStats.Counters counters = new OutboundStats.Counters();
+    /** Outbound queue of every open session. */
+    private final Map<Session, Outbox> outboxes = new ConcurrentHashMap<>();
+    /** Sessions in each game, mapped to who connected and how. */
+    private final Map<Integer, Map<Session, Connection>> games = new ConcurrentHashMap<>();
+    /** The game each session is connected to. */
+    private final Map<Session, Integer> gameOfSession = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an empty registry.
+     *
+     * @param outboxCapacity messages each session may have waiting before it is disconnected as too slow
+     */
+    public ConnectionManager(int outboxCapacity) {
+        if (outboxCapacity <= 0) {
+            throw new IllegalArgumentException("outbox capacity must be positive");
+        }
+        this.outboxCapacity = outboxCapacity;
+    }
+
+    /**
+     * Connects a session to a game, leaving whatever game it was connected to before.
+     *
+     * @param gameID   the game to watch
+     * @param session  the client's session
+     * @param username the user behind the session
+     * @param deltas   whether the session takes MOVE_APPLIED deltas instead of full LOAD_GAME snapshots
+     */
+    public void add(int gameID, Session session, String username, boolean deltas) {
+        Integer previous = gameOfSession.put(session, gameID);
+        if (previous != null && previous != gameID) {
+            removeFromGame(previous, session);
+        }
+        // Add inside compute so an emptied map being dropped concurrently cannot swallow the session
+        games.compute(gameID, (id, sessions) -> {
+            if (sessions == null) {
+                sessions = new ConcurrentHashMap<>();
+            }
+            sessions.put(session, new Connection(username, deltas));
+            return sessions;
+        });
+    }
+
+    /**
+     * Disconnects a session from its game, if it is connected to one.
+     *
+     * @param session the client's session
+     */
+    public void remove(Session session) {
+        Integer gameID = gameOfSession.remove(session);
+        if (gameID != null) {
+            removeFromGame(gameID, session);
+        }
+    }
+
+    /**
+     * Forgets a closed session entirely, discarding anything still queued for it.
+     *
+     * @param session the client's session
+     */
+    public void close(Session session) {
+        remove(session);
+        Outbox outbox = outboxes.remove(session);
+        if (outbox != null) {
+            outbox.close();
+        }
+    }
+
+    /**
+     * Current outbound queue depth and drop counts.
+     *
+     * @return the statistics
+     */
+    public OutboundStats stats() {
+        int maxDepth = 0;
+        for (Outbox outbox : outboxes.values()) {
+            maxDepth = Math.max(maxDepth, outbox.depth());
+        }
+        return new OutboundStats(counters.queued.sum(), maxDepth, counters.coalesced.sum(),
+                counters.dropped.sum(), counters.slowConsumersClosed.sum());
+    }
+
+    /**
+     * Number of sessions connected to a game.
+     *
+     * @param gameID the game
+     * @return the session count
+     */
+    public int sessionCount(int gameID) {
+        Map<Session, Connection> sessions = games.get(gameID);
+        return sessions == null ? 0 : sessions.size();
+    }
+
+    /**
+     * Writes a message to every open session in a game.
+     *
+     * @param gameID  the game whose sessions receive the message
+     * @param message the encoded message
+     * @param exclude a session to skip, usually the one that caused the message, or null
+     */
+    public void broadcast(int gameID, EncodedMessage message, Session exclude) {
+        Map<Session, Connection> sessions = games.get(gameID);
+        if (sessions == null) {
+            return;
+        }
+        for (Session session : sessions.keySet()) {
+            if (session != exclude) {
+                send(session, message);
+            }
+        }
+    }
+
+    /**
+     * Writes a move to every open session in a game: the delta to sessions that asked for deltas, and
+     * the full game to the rest. The full game is only encoded if some session needs it, and then once.
+     *
+     * @param gameID   the game whose sessions receive the move
+     * @param delta    the encoded MOVE_APPLIED message
+     * @param snapshot encodes the LOAD_GAME message
+     */
+    public void broadcastMove(int gameID, EncodedMessage delta, Supplier<EncodedMessage> snapshot) {
+        Map<Session, Connection> sessions = games.get(gameID);
+        if (sessions == null) {
+            return;
+        }
+        EncodedMessage full = null;
+        for (Map.Entry<Session, Connection> entry : sessions.entrySet()) {
+            if (entry.getValue().deltas()) {
+                send(entry.getKey(), delta);
+            } else {
+                if (full == null) {
+                    full = snapshot.get();
+                }
+                send(entry.getKey(), full);
+            }
+        }
+    }
+
+    /**
+     * Queues a message for one session without waiting for it to be sent.
+     * A session whose write fails is closed, which removes it from the registry.
+     *
+     * @param session the recipient
+     * @param message the encoded message
+     */
+    public void send(Session session, EncodedMessage message) {
+        if (!session.isOpen()) {
+            close(session);
+            return;
+        }
+        outboxes.computeIfAbsent(session, key -> new Outbox(key, outboxCapacity, counters)).offer(message);
+    }
+
+    private void removeFromGame(int gameID, Session session) {
+        games.computeIfPresent(gameID, (id, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    /** A session's user and update format. */
+    private record Connection(String username, boolean deltas) {
+    }
+}
@@ -0,0 +1,73 @@
+package server.websocket;
+
+import com.google.gson.Gson;
+import websocket.messages.ServerMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A server message serialized once, ready to be written to any number of sessions.
+ * The UTF-8 bytes are shared; each send gets its own read-only view of them.
+ */
+public final class EncodedMessage {
+    private final String json;
+    private final ByteBuffer utf8;
+    private final boolean snapshot;
+
+    private EncodedMessage(String json, boolean snapshot) {
+        this.json = json;
+        this.utf8 = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Serializes a message.
+     *
+     * @param gson    the serializer
+     * @param message the message to send
+     * @return the encoded message
+     */
+    public static EncodedMessage of(Gson gson, ServerMessage message) {
+        return new EncodedMessage(gson.toJson(message),
+                message.getServerMessageType() == ServerMessage.ServerMessageType.LOAD_GAME);
+    }
+
+    /**
+     * Wraps a message that was already serialized, e.g. on another node.
+     *
+     * @param json     the message as JSON text
+     * @param snapshot whether it is a full game state that makes earlier unsent ones obsolete
+     * @return the encoded message
+     */
+    public static EncodedMessage ofJson(String json, boolean snapshot) {
+        return new EncodedMessage(json, snapshot);
+    }
+
+    /**
+     * The message as JSON text, for endpoints that can only send strings.
+     *
+     * @return the JSON text
+     */
+    public String json() {
+        return json;
+    }
+
+    /**
+     * Whether this is a full game state, which makes any earlier unsent one obsolete.
+     *
+     * @return true for LOAD_GAME
+     */
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * A fresh view of the encoded bytes, positioned at the start.
+     *
+     * @return the UTF-8 payload
+     */
+    public ByteBuffer payload() {
+        return utf8.duplicate();
+    }
+}
@@ -0,0 +1,152 @@
+package server.websocket;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import logging.Logger;
+
+/**
+ * Runs the commands for each game one at a time, in the order they arrived, without locks.
+ * Every game has a mailbox; whichever thread posts into an idle mailbox schedules a drain on the
+ * shared executor, and that drain is the only writer for the game until the mailbox is empty again.
+ * Different games drain in parallel. A mailbox holds a bounded number of pending commands, and
+ * posting to a full one is refused so a flood on one game cannot grow memory without limit. A mailbox
+ * that drains empty is retired and removed, so only games with commands in hand hold one.
+ */
+public class GameActors {
+    private static final Logger LOG = Logger.get(GameActors.class);
+    /** Most commands a drain runs before yielding the thread to other games. */
+    private static final int DRAIN_BATCH = 64;
+    /** {@code Mailbox.pending} of a mailbox that drained empty and no longer takes commands. */
+    private static final int RETIRED = -1;
+
+    private final Executor executor;
+    private final int capacity;
+    private final Map<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs actors that drain on a new virtual thread each.
+     *
+     * @param capacity pending commands allowed per game before new ones are refused
+     */
+    public GameActors(int capacity) {
+        this(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chess-game-", 0).factory()), capacity);
+    }
+
+    /**
+     * Constructs actors that drain on the given executor.
+     *
+     * @param executor runs mailbox drains
+     * @param capacity pending commands allowed per game before new ones are refused
+     */
+    public GameActors(Executor executor, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("mailbox capacity must be positive");
+        }
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Queues a command for a game. It runs after every command queued for the game before it.
+     *
+     * @param gameID  the game the command acts on
+     * @param command the work to run
+     * @return true if queued, false if the game's mailbox is full
+     */
+    public boolean post(int gameID, Runnable command) {
+        while (true) {
+            Mailbox mailbox = mailboxes.computeIfAbsent(gameID, Mailbox::new);
+            Offer offer = mailbox.offer(command);
+            if (offer != Offer.RETIRED) {
+                return offer == Offer.QUEUED;
+            }
+            // Retired while we held it; it is being removed, so make or find its successor
+            mailboxes.remove(gameID, mailbox);
+        }
+    }
+
+    /**
+     * Tells whether a game has commands queued or running.
+     *
+     * @param gameID the game to check
+     * @return true if the game has a mailbox
+     */
+    public boolean isActive(int gameID) {
+        return mailboxes.containsKey(gameID);
+    }
+
+    /**
+     * A game's pending commands. {@code pending} counts queued plus running commands, so the thread that
+     * moves it off zero is the one that must schedule a drain, and the drain stops exactly when it hits zero.
+     * A drain that empties the mailbox retires it by moving {@code pending} from zero to {@link #RETIRED},
+     * which no poster can move off again, then removes it.
+     */
+    private final class Mailbox implements Runnable {
+        private final int gameID;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        Mailbox(int gameID) {
+            this.gameID = gameID;
+        }
+
+        Offer offer(Runnable command) {
+            int count;
+            do {
+                count = pending.get();
+                if (count == RETIRED) {
+                    return Offer.RETIRED;
+                }
+                if (count >= capacity) {
+                    return Offer.FULL;
+                }
+            } while (!pending.compareAndSet(count, count + 1));
+            queue.add(command);
+            if (count == 0) {
+                executor.execute(this);
+            }
+            return Offer.QUEUED;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < DRAIN_BATCH; i++) {
+                Runnable command = queue.poll();
+                if (command == null) {
+                    // Counted but not yet added by its poster; go round again once it lands
+                    Thread.onSpinWait();
+                    i--;
+                    continue;
+                }
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    // One failing command must not stall the rest of the game
+                    LOG.error("Game command failed", "gameID", gameID, "error", String.valueOf(e));
+                }
+                if (pending.decrementAndGet() == 0) {
+                    // A poster that got in first has scheduled the next drain; otherwise nobody can now
+                    if (pending.compareAndSet(0, RETIRED)) {
+                        mailboxes.remove(gameID, this);
+                    }
+                    return;
+                }
+            }
+            // Still busy: requeue behind other games rather than hold the thread
+            executor.execute(this);
+        }
+    }
+
+    /** What became of a command offered to a mailbox. */
+    private enum Offer {
+        QUEUED,
+        FULL,
+        RETIRED
+    }
+}
@@ -0,0 +1,256 @@
+package server.websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dataAccess.AuthDAO;
+import dataAccess.DataAccessException;
+import dataAccess.GameDAO;
+import model.GameData;
+import server.cluster.GameEvent;
+import server.cluster.GameEventBus;
+import service.AuthService;
+import service.GameService;
+import websocket.commands.ConnectCommand;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ErrorMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveAppliedMessage;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import logging.Logger;
+
+/**
+ * Runs the gameplay commands for the games this node owns.
+ * Commands arrive as COMMAND events from whichever node holds the sender's session, are queued on
+ * the game's actor in {@link GameActors}, and are applied through {@link GameService}. Their effects
+ * go back out over the {@link GameEventBus}: replies to the sender's node, and broadcasts to every
+ * node, each of which forwards them to its own sessions in the game.
+ * <p>
+ * Delta clients get one full LOAD_GAME on connect and then a MOVE_APPLIED per move, numbered by a
+ * per-game sequence. When their sequence or position hash stops matching they send RESYNC and get a
+ * fresh LOAD_GAME.
+ */
+public class GameCommandProcessor {
+    private static final Logger LOG = Logger.get(GameCommandProcessor.class);
+    /** The auth tokens commands are checked against, told of other nodes' logouts and clears. */
+    private final AuthDAO authDAO;
+    /** Service for authenticating commands. */
+    private final AuthService authService;
+    /** Service for game state changes. */
+    private final GameService gameService;
+    /** Single writer per game for every command. */
+    private final GameActors actors;
+    /** Where replies and broadcasts are sent. */
+    private final GameEventBus bus;
+    /** Gson instance for commands and messages. */
+    private final Gson gson = new Gson();
+    /**
+     * Moves applied to each owned game since this node took it over; only touched by the game's actor.
+     * Only games that exist get an entry, and it is dropped once the game is over and no more moves follow.
+     */
+    private final Map<Integer, Long> sequences = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a processor over the given data access objects.
+     *
+     * @param authDAO the auth tokens commands are checked against
+     * @param gameDAO the games commands act on
+     * @param actors  the per-game mailboxes commands are run from
+     * @param bus     where effects are sent
+     */
+    public GameCommandProcessor(AuthDAO authDAO, GameDAO gameDAO, GameActors actors, GameEventBus bus) {
+        this.authDAO = authDAO;
+        this.authService = new AuthService(authDAO);
+        this.gameService = new GameService(gameDAO, authDAO);
+        this.actors = actors;
+        this.bus = bus;
+    }
+
+    /**
+     * Parses a command as sent by a client.
+     *
+     * @param gson the deserializer
+     * @param text the JSON command
+     * @return the command, as its most specific class, or null if it is malformed
+     */
+    public static UserGameCommand parse(Gson gson, String text) {
+        UserGameCommand command;
+        try {
+            JsonObject json = JsonParser.parseString(text).getAsJsonObject();
+            command = gson.fromJson(json, UserGameCommand.class);
+            if (command.getCommandType() == UserGameCommand.CommandType.MAKE_MOVE) {
+                command = gson.fromJson(json, MakeMoveCommand.class);
+            } else if (command.getCommandType() == UserGameCommand.CommandType.CONNECT) {
+                command = gson.fromJson(json, ConnectCommand.class);
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        if (command == null || command.getCommandType() == null || command.getGameID() == null) {
+            return null;
+        }
+        return command;
+    }
+
+    /**
+     * Makes this node stop honouring tokens another node logged out or cleared, including any it
+     * holds in memory.
+     *
+     * @param event the AUTH_REVOKED or AUTH_CLEARED event
+     */
+    public void authChangedElsewhere(GameEvent event) {
+        if (event.kind() == GameEvent.Kind.AUTH_REVOKED) {
+            authDAO.revokedElsewhere(event.payload());
+        } else {
+            authDAO.clearedElsewhere(Long.parseLong(event.payload()));
+        }
+    }
+
+    /**
+     * Queues a forwarded command on its game's actor, or tells the sender the game is unknown or too busy.
+     *
+     * @param event the COMMAND event
+     */
+    public void accept(GameEvent event) {
+        UserGameCommand command = parse(gson, event.payload());
+        SessionRef sender = new SessionRef(event.node(), event.sessionID());
+        if (command == null) {
+            sendError(sender, "bad request");
+            return;
+        }
+        if (!actors.isActive(event.gameID())) {
+            // The game ID comes from the client, so only a game that exists gets a mailbox
+            try {
+                gameService.viewGame(event.gameID());
+            } catch (DataAccessException e) {
+                sendError(sender, e.getMessage());
+                return;
+            }
+        }
+        if (!actors.post(event.gameID(), () -> run(sender, event.gameID(), command))) {
+            sendError(sender, "server busy");
+        }
+    }
+
+    /**
+     * Runs one command on its game's actor.
+     */
+    private void run(SessionRef session, int gameID, UserGameCommand command) {
+        try {
+            String username = authService.getAuth(command.getAuthToken()).username();
+            switch (command.getCommandType()) {
+                case CONNECT -> connect(session, gameID, username, ((ConnectCommand) command).isDeltaUpdates());
+                case MAKE_MOVE -> makeMove(session, gameID, username, ((MakeMoveCommand) command).getMove());
+                case LEAVE -> leave(session, gameID, username);
+                case RESIGN -> resign(gameID, username);
+                case RESYNC -> resync(session, gameID);
+            }
+        } catch (DataAccessException e) {
+            sendError(session, e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.error("Game command failed", "gameID", gameID, "command", command.getCommandType(),
+                    "error", String.valueOf(e));
+            sendError(session, "internal error");
+        }
+    }
+
+    private void connect(SessionRef session, int gameID, String username, boolean deltas) throws DataAccessException {
+        GameData game = gameService.viewGame(gameID);
+        bus.send(session.node(), GameEvent.join(gameID, session.node(), session.id(), username, deltas));
+        // Delta clients need the sequence the snapshot is at, so they can check the moves that follow it
+        Long sequence = deltas ? sequences.getOrDefault(gameID, 0L) : null;
+        reply(session, new LoadGameMessage(game.game(), sequence));
+        ChessGame.TeamColor color = GameService.seatOf(game, username);
+        String role = color == null ? "an observer" : color.name().toLowerCase();
+        notify(gameID, session, username + " joined the game as " + role);
+    }
+
+    private void makeMove(SessionRef session, int gameID, String username, ChessMove move) throws DataAccessException {
+        // The board indexes straight into its grid, so a square off the board must not reach it
+        if (move == null || move.getStartPosition() == null || move.getEndPosition() == null
+                || !move.getStartPosition().inBounds() || !move.getEndPosition().inBounds()) {
+            throw new DataAccessException("bad request");
+        }
+        GameData game = gameService.makeMove(gameID, username, move);
+        long sequence = sequences.merge(gameID, 1L, Long::sum);
+        // One encoding of the delta and one of the new board go to every node, the mover's included
+        MoveAppliedMessage delta = new MoveAppliedMessage(move.pack(), game.game().positionHash(), sequence);
+        bus.publish(GameEvent.move(gameID, gson.toJson(delta), gson.toJson(new LoadGameMessage(game.game()))));
+        notify(gameID, session, username + " moved " + square(move.getStartPosition())
+                + " to " + square(move.getEndPosition()));
+
+        ChessGame.TeamColor opponent = game.game().getTeamTurn();
+        String opponentName = displayName(game.username(opponent), opponent);
+        if (game.game().isInCheckmate(opponent)) {
+            sequences.remove(gameID);
+            notify(gameID, null, opponentName + " is in checkmate; " + username + " wins");
+        } else if (game.game().isInStalemate(opponent)) {
+            sequences.remove(gameID);
+            notify(gameID, null, opponentName + " is in stalemate; the game is a draw");
+        } else if (game.game().isInCheck(opponent)) {
+            notify(gameID, null, opponentName + " is in check");
+        }
+    }
+
+    private void leave(SessionRef session, int gameID, String username) throws DataAccessException {
+        gameService.leaveGame(gameID, username);
+        bus.send(session.node(), GameEvent.leave(session.node(), session.id()));
+        notify(gameID, null, username + " left the game");
+    }
+
+    private void resign(int gameID, String username) throws DataAccessException {
+        gameService.resign(gameID, username);
+        sequences.remove(gameID);
+        notify(gameID, null, username + " resigned; the game is over");
+    }
+
+    /**
+     * Sends the full game to a delta client that lost track of it.
+     */
+    private void resync(SessionRef session, int gameID) throws DataAccessException {
+        GameData game = gameService.viewGame(gameID);
+        reply(session, new LoadGameMessage(game.game(), sequences.getOrDefault(gameID, 0L)));
+    }
+
+    /**
+     * Sends a notification to every session in the game except the one given.
+     */
+    private void notify(int gameID, SessionRef exclude, String message) {
+        String json = gson.toJson(new NotificationMessage(message));
+        bus.publish(exclude == null
+                ? GameEvent.broadcast(gameID, json, null, null)
+                : GameEvent.broadcast(gameID, json, exclude.node(), exclude.id()));
+    }
+
+    private void reply(SessionRef session, ServerMessage message) {
+        bus.send(session.node(), GameEvent.deliver(session.node(), session.id(), gson.toJson(message)));
+    }
+
+    private void sendError(SessionRef session, String message) {
+        reply(session, new ErrorMessage("Error: " + message));
+    }
+
+    private static String displayName(String username, ChessGame.TeamColor color) {
+        return username != null ? username : color.name().toLowerCase();
+    }
+
+    /**
+     * Formats a position in algebraic notation, e.g. row 2 column 5 is "e2".
+     */
+    private static String square(ChessPosition position) {
+        return "" + (char) ('a' + position.getColumn() - 1) + position.getRow();
+    }
+
+    /** A client session, identified by the node holding it and its ID there. */
+    private record SessionRef(String node, String id) {
+    }
+}
@@ -0,0 +1,24 @@
+package server.websocket;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Point-in-time view of the websocket outbound queues.
+ *
+ * @param queuedMessages      messages waiting across all sessions, not counting those in flight
+ * @param maxSessionDepth     the longest single session queue
+ * @param coalescedSnapshots  game snapshots replaced by a newer one before they were sent
+ * @param droppedMessages     messages discarded because their session was closed
+ * @param slowConsumersClosed sessions disconnected for falling too far behind
+ */
+public record OutboundStats(long queuedMessages, int maxSessionDepth, long coalescedSnapshots,
+                            long droppedMessages, long slowConsumersClosed) {
+
+    /** Running totals shared by every {@link Outbox}. */
+    static final class Counters {
+        final LongAdder queued = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder slowConsumersClosed = new LongAdder();
+    }
+}
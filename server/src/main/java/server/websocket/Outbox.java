@@ -0,0 +1,154 @@
+package server.websocket;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.common.WebSocketRemoteEndpoint;
+import org.eclipse.jetty.websocket.common.frames.TextFrame;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded outbound queue for one websocket session. At most one frame is in flight; the next one is
+ * written from the previous write's callback, so a slow client only ever backs up its own queue.
+ * A new game snapshot replaces any snapshot still waiting, since only the latest state matters.
+ * If the queue is still full after that, the client is too slow to keep up and is disconnected.
+ */
+final class Outbox implements WriteCallback {
+    private final Session session;
+    private final int capacity;
+    private final OutboundStats.Counters counters;
+    private final ArrayDeque<EncodedMessage> queue = new ArrayDeque<>();
+    /** Guards the queue, {@link #pendingSnapshot} and {@link #writing}. */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** The snapshot waiting in the queue, if any. */
+    private EncodedMessage pendingSnapshot;
+    private boolean writing;
+    private boolean closed;
+
+    Outbox(Session session, int capacity, OutboundStats.Counters counters) {
+        this.session = session;
+        this.capacity = capacity;
+        this.counters = counters;
+    }
+
+    /**
+     * Queues a message, writing it straight away if nothing is in flight. Never blocks on the network.
+     *
+     * @param message the encoded message
+     */
+    void offer(EncodedMessage message) {
+        EncodedMessage next = null;
+        boolean overflow = false;
+        lock.lock();
+        try {
+            if (closed) {
+                counters.dropped.increment();
+                return;
+            }
+            if (message.isSnapshot() && pendingSnapshot != null) {
+                // Move the state to the back so it stays after any notification queued since the old one
+                queue.removeFirstOccurrence(pendingSnapshot);
+                counters.queued.decrement();
+                counters.coalesced.increment();
+                pendingSnapshot = null;
+            }
+            if (!writing) {
+                writing = true;
+                next = message;
+            } else if (queue.size() >= capacity) {
+                overflow = true;
+            } else {
+                queue.add(message);
+                counters.queued.increment();
+                if (message.isSnapshot()) {
+                    pendingSnapshot = message;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (next != null) {
+            write(next);
+        } else if (overflow) {
+            counters.dropped.increment();
+            counters.slowConsumersClosed.increment();
+            close();
+            session.close(StatusCode.POLICY_VIOLATION, "Too slow to keep up with the game");
+        }
+    }
+
+    /**
+     * Discards everything still queued; later offers are dropped.
+     */
+    void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            counters.queued.add(-queue.size());
+            counters.dropped.add(queue.size());
+            queue.clear();
+            pendingSnapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Messages waiting behind the one in flight.
+     */
+    int depth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void writeSuccess() {
+        EncodedMessage next;
+        lock.lock();
+        try {
+            next = queue.poll();
+            if (next == null) {
+                writing = false;
+                return;
+            }
+            counters.queued.decrement();
+            if (next == pendingSnapshot) {
+                pendingSnapshot = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        write(next);
+    }
+
+    @Override
+    public void writeFailed(Throwable error) {
+        close();
+        session.close();
+    }
+
+    private void write(EncodedMessage message) {
+        if (!session.isOpen()) {
+            writeFailed(null);
+            return;
+        }
+        RemoteEndpoint remote = session.getRemote();
+        if (remote instanceof WebSocketRemoteEndpoint endpoint) {
+            TextFrame frame = new TextFrame();
+            frame.setPayload(message.payload());
+            endpoint.uncheckedSendFrame(frame, this);
+        } else {
+            remote.sendString(message.json(), this);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package server.websocket;
+
+import com.google.gson.Gson;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import server.cluster.GameEvent;
+import server.cluster.GameEventBus;
+import util.HashRing;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ErrorMessage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handles gameplay commands sent over the {@code /ws} websocket.
+ * Each game is owned by one node of the cluster, picked by a consistent-hash ring over the bus's nodes.
+ * Commands are forwarded to the owner's {@link GameCommandProcessor}, possibly this node's own, and the
+ * LOAD_GAME, MOVE_APPLIED, NOTIFICATION, and ERROR messages it sends back are written to the sessions
+ * held here. A standalone server is simply a cluster of one.
+ */
+@WebSocket
+public class WebSocketHandler {
+    /** Sessions connected to each game on this node. */
+    private final ConnectionManager connections;
+    /** Links this node to the owners of the games its sessions play. */
+    private final GameEventBus bus;
+    /** Which node owns each game. */
+    private final HashRing<String> owners;
+    /** Runs the commands for the games this node owns. */
+    private final GameCommandProcessor processor;
+    /** Gson instance for commands and messages. */
+    private final Gson gson = new Gson();
+    /** Open sessions by the ID other nodes know them by. */
+    private final Map<String, Session> sessionsByID = new ConcurrentHashMap<>();
+    /** The ID of each open session. */
+    private final Map<Session, String> sessionIDs = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionID = new AtomicLong();
+
+    /**
+     * Constructs a handler and starts listening on the bus.
+     *
+     * @param processor   runs the commands for the games this node owns
+     * @param bus         links this node to the others
+     * @param connections the session registry messages are sent through
+     */
+    public WebSocketHandler(GameCommandProcessor processor, GameEventBus bus, ConnectionManager connections) {
+        this.processor = processor;
+        this.bus = bus;
+        this.connections = connections;
+        this.owners = HashRing.of(bus.nodes());
+        bus.start(this::onEvent);
+    }
+
+    /**
+     * Current outbound queue depth and drop counts across all sessions.
+     *
+     * @return the statistics
+     */
+    public OutboundStats outboundStats() {
+        return connections.stats();
+    }
+
+    /**
+     * Checks one command and forwards it to the node that owns its game. Malformed commands are
+     * answered here with an ERROR message.
+     *
+     * @param session the sender's session
+     * @param text    the JSON command
+     */
+    @OnWebSocketMessage
+    public void onMessage(Session session, String text) {
+        UserGameCommand command = GameCommandProcessor.parse(gson, text);
+        if (command == null) {
+            connections.send(session, EncodedMessage.of(gson, new ErrorMessage("Error: bad request")));
+            return;
+        }
+        int gameID = command.getGameID();
+        bus.send(owners.owner(gameID), GameEvent.command(gameID, bus.localNode(), idOf(session), text));
+    }
+
+    /**
+     * Drops a closed session from its game.
+     */
+    @OnWebSocketClose
+    public void onClose(Session session, int statusCode, String reason) {
+        forget(session);
+    }
+
+    /**
+     * Drops a failed session from its game; Jetty closes it afterwards.
+     */
+    @OnWebSocketError
+    public void onError(Session session, Throwable error) {
+        forget(session);
+    }
+
+    /**
+     * Applies one event from the bus: commands and auth changes go to the processor, everything else to
+     * local sessions.
+     */
+    private void onEvent(GameEvent event) {
+        switch (event.kind()) {
+            case COMMAND -> processor.accept(event);
+            case DELIVER -> {
+                Session session = sessionsByID.get(event.sessionID());
+                if (session != null) {
+                    connections.send(session, EncodedMessage.ofJson(event.payload(), false));
+                }
+            }
+            case JOIN -> {
+                Session session = sessionsByID.get(event.sessionID());
+                if (session != null) {
+                    connections.add(event.gameID(), session, event.username(), event.deltas());
+                }
+            }
+            case LEAVE -> {
+                Session session = sessionsByID.get(event.sessionID());
+                if (session != null) {
+                    connections.remove(session);
+                }
+            }
+            case BROADCAST -> {
+                Session exclude = event.sessionID() != null && bus.localNode().equals(event.node())
+                        ? sessionsByID.get(event.sessionID()) : null;
+                connections.broadcast(event.gameID(), EncodedMessage.ofJson(event.payload(), false), exclude);
+            }
+            case MOVE -> connections.broadcastMove(event.gameID(), EncodedMessage.ofJson(event.payload(), false),
+                    () -> EncodedMessage.ofJson(event.snapshot(), true));
+            case AUTH_REVOKED, AUTH_CLEARED -> processor.authChangedElsewhere(event);
+        }
+    }
+
+    private String idOf(Session session) {
+        return sessionIDs.computeIfAbsent(session, key -> {
+            String id = Long.toString(nextSessionID.incrementAndGet());
+            sessionsByID.put(id, key);
+            return id;
+        });
+    }
+
+    private void forget(Session session) {
+        String id = sessionIDs.remove(session);
+        if (id != null) {
+            sessionsByID.remove(id);
+        }
+        connections.close(session);
+    }
+}
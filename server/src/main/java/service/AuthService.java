@@ -1,6 +1,7 @@
 package service;
 import dataAccess.DataAccessException;
 import dataAccess.AuthDAO;
+import model.AuthData;
 
 public class AuthService {
     private final AuthDAO auth_DAO;
@@ -17,6 +18,14 @@ public class AuthService {
         auth_DAO.getAuthToken(authToken);
     }
 
+    public AuthData getAuth(String authToken) throws DataAccessException{
+        AuthData auth = authToken == null ? null : auth_DAO.getAuthToken(authToken);
+        if (auth == null) {
+            throw new DataAccessException("unauthorized");
+        }
+        return auth;
+    }
+
     public void clear() throws DataAccessException{
         auth_DAO.clearAll();
     }
@@ -1,16 +1,28 @@
 package service;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
 import dataAccess.AuthDAO;
 import dataAccess.GameDAO;
+import dataAccess.ReadYourWrites;
+import model.AuthData;
 import model.GameData;
 import dataAccess.DataAccessException;
 import java.util.Collection;
 
 // Service class for managing game-related operations
 public class GameService {
+    // Loads of one listing or game that may run at once; concurrent identical reads share them
+    private static final int LOADS_PER_KEY = Integer.getInteger("chess.server.coalescedLoadsPerKey", 1);
+
     // Data access objects for games and authentication
     private final GameDAO game_DAO;
     private final AuthDAO auth_DAO;
+    // Shared listings, keyed by whether the read must go to the primary
+    private final SingleFlight<Boolean, Collection<GameData>> listings = new SingleFlight<>(LOADS_PER_KEY);
+    // Shared game reads for clients that only display the game, keyed by game ID
+    private final SingleFlight<Integer, GameData> views = new SingleFlight<>(LOADS_PER_KEY);
 
     // Constructor initializes game and auth DAOs
     public GameService(GameDAO game_DAO, AuthDAO auth_DAO) {
@@ -22,32 +34,40 @@ public class GameService {
 
     // Creates a new game with the given auth token and name
     public GameData createGame(String authToken, String gameName) throws DataAccessException {
-        // Verify auth token exists
-        auth_DAO.getAuthToken(authToken);
+        AuthData auth = authToken == null ? null : auth_DAO.getAuthToken(authToken);
         // Check if auth token is null or invalid
-        if (authToken == null || auth_DAO.createAuthToken(authToken) == null) {
+        if (auth == null) {
             // Throw exception for unauthorized access
             throw new DataAccessException("unauthorized");
         }
-        // Create and return new game using gameDAO
-        return game_DAO.createGame(gameName);
+        // Attribute the write to the caller so their next listing reads it back
+        try (ReadYourWrites.Scope scope = ReadYourWrites.actingAs(auth.username())) {
+            // Create and return new game using gameDAO
+            return game_DAO.createGame(gameName);
+        }
     }
 
     // Lists all games for a valid auth token
     public Collection<GameData> listGames(String authToken) throws DataAccessException {
+        AuthData auth = authToken == null ? null : auth_DAO.getAuthToken(authToken);
         // Check if auth token is null or invalid
-        if (authToken == null || auth_DAO.getAuthToken(authToken) == null) {
+        if (auth == null) {
             // Throw exception for unauthorized access
             throw new DataAccessException("unauthorized");
         }
-        // Return all games from gameDAO
-        return game_DAO.listgame();
+        // A caller who just created or joined a game lists from the primary, others may use a replica
+        try (ReadYourWrites.Scope scope = ReadYourWrites.actingAs(auth.username())) {
+            // Share the listing with callers routed the same way; whoever loads it reads for them all
+            return listings.load(ReadYourWrites.mustReadPrimary(null), game_DAO::listgame);
+        }
     }
 
     // Joins a user to a game with the specified color
     public void joinGame(String authToken, int gameID, String playerColor) throws DataAccessException {
+        // Look up the caller once; the username is needed below
+        AuthData auth = authToken == null ? null : auth_DAO.getAuthToken(authToken);
         // Check if auth token is null or invalid
-        if (authToken == null || auth_DAO.getAuthToken(authToken) == null) {
+        if (auth == null) {
             // Throw exception for unauthorized access
             throw new DataAccessException("unauthorized");
         }
@@ -56,32 +76,116 @@ public class GameService {
             // Throw exception for invalid player color
             throw new DataAccessException("bad request");
         }
-        // Get game data by game ID
+        // Parse the requested seat
+        ChessGame.TeamColor color = ChessGame.TeamColor.valueOf(playerColor.toUpperCase());
+        try (ReadYourWrites.Scope scope = ReadYourWrites.actingAs(auth.username())) {
+            // Claim the seat in one conditional write; it fails if the seat is already taken
+            if (!game_DAO.claimSeat(gameID, color, auth.username())) {
+                // Only the failure path reads the game, to tell a missing game from a taken seat
+                if (game_DAO.getGame(gameID) == null) {
+                    // Throw exception if the game does not exist
+                    throw new DataAccessException("Game not found");
+                }
+                // Throw exception if the seat is occupied
+                throw new DataAccessException("already taken");
+            }
+        }
+    }
+
+    // Looks up a game for a player or observer who is already authenticated
+    public GameData getGame(int gameID) throws DataAccessException {
+        // Some backends return null for a missing game, others throw
         GameData game = game_DAO.getGame(gameID);
-        // Get username from auth token
-        String username = auth_DAO.getAuthToken(authToken).username();
-        // Check if white player slot is taken
-        if (playerColor.equalsIgnoreCase("WHITE") && game.whiteUsername() != null) {
-            // Throw exception if white slot is occupied
-            throw new DataAccessException("Player color required");
-        }
-        // Check if black player slot is taken
-        if (playerColor.equalsIgnoreCase("BLACK") && game.blackUsername() != null) {
-            // Throw exception if black slot is occupied
-            throw new DataAccessException("already exists");
-        }
-        // Declare variable for updated game data
-        GameData updatedGame;
-        // Assign user to white player slot if requested
-        if (playerColor.equalsIgnoreCase("WHITE")) {
-            // Create new gameData with user as white player
-            updatedGame = new GameData(game.gameID(), username, game.blackUsername(), game.gameName(), game.game());
-        } else {
-            // Create new gameData with user as black player
-            updatedGame = new GameData(game.gameID(), game.whiteUsername(), username, game.gameName(), game.game());
-        }
-        // Update game data in storage
-        game_DAO.updateGame(updatedGame);
+        if (game == null) {
+            // Throw exception if the game does not exist
+            throw new DataAccessException("Game not found");
+        }
+        return game;
+    }
+
+    // Looks up a game to send to a client, sharing the read with concurrent lookups of the same game;
+    // the result is shared, so callers must not change it
+    public GameData viewGame(int gameID) throws DataAccessException {
+        GameData game = views.load(gameID, () -> game_DAO.getGame(gameID));
+        if (game == null) {
+            // Throw exception if the game does not exist
+            throw new DataAccessException("Game not found");
+        }
+        return game;
+    }
+
+    // Reports how many listing and game reads ran, and how many callers shared another's
+    public Stats coalescingStats() {
+        return new Stats(listings.loads() + views.loads(), listings.shared() + views.shared());
+    }
+
+    // Makes a move for the player seated on the side whose turn it is, returning the updated game
+    public GameData makeMove(int gameID, String username, ChessMove move) throws DataAccessException {
+        GameData game = getGame(gameID);
+        // Only a seated player may move, and only while the game is still going
+        if (seatOf(game, username) == null) {
+            throw new DataAccessException("observers cannot make moves");
+        }
+        if (game.game().isGameOver()) {
+            throw new DataAccessException("the game is over");
+        }
+        // Compare against the seat whose turn it is, which also covers a user playing both sides
+        if (!username.equals(game.username(game.game().getTeamTurn()))) {
+            throw new DataAccessException("it is not your turn");
+        }
+        // Try the move on a copy so a rejected move leaves the stored game untouched
+        ChessGame next = new ChessGame(game.game());
+        try {
+            next.makeMove(move);
+        } catch (InvalidMoveException e) {
+            throw new DataAccessException("invalid move: " + e.getMessage());
+        }
+        // The game ends when the side to move has no legal moves left
+        ChessGame.TeamColor opponent = next.getTeamTurn();
+        if (next.isInCheckmate(opponent) || next.isInStalemate(opponent)) {
+            next.setGameOver(true);
+        }
+        // Write only the board so a concurrent join or leave is not undone
+        game_DAO.updateGameState(gameID, next);
+        return game.withGame(next);
+    }
+
+    // Ends the game on behalf of a seated player
+    public GameData resign(int gameID, String username) throws DataAccessException {
+        GameData game = getGame(gameID);
+        // Observers cannot resign, and a finished game cannot be resigned again
+        if (seatOf(game, username) == null) {
+            throw new DataAccessException("observers cannot resign");
+        }
+        if (game.game().isGameOver()) {
+            throw new DataAccessException("the game is over");
+        }
+        ChessGame ended = new ChessGame(game.game());
+        ended.setGameOver(true);
+        game_DAO.updateGameState(gameID, ended);
+        return game.withGame(ended);
+    }
+
+    // Frees the caller's seat, if they have one; observers simply stop watching
+    public void leaveGame(int gameID, String username) throws DataAccessException {
+        GameData game = getGame(gameID);
+        ChessGame.TeamColor color = seatOf(game, username);
+        if (color != null) {
+            // Conditional write, so a seat someone else took meanwhile is left alone
+            game_DAO.releaseSeat(gameID, color, username);
+        }
+    }
+
+    // Returns the color the user plays in the game, or null for an observer
+    public static ChessGame.TeamColor seatOf(GameData game, String username) {
+        if (username == null) {
+            return null;
+        } else if (username.equals(game.whiteUsername())) {
+            return ChessGame.TeamColor.WHITE;
+        } else if (username.equals(game.blackUsername())) {
+            return ChessGame.TeamColor.BLACK;
+        }
+        return null;
     }
 
     // Clears all game data
@@ -89,4 +193,8 @@ public class GameService {
         // Clear all games using gameDAO
         game_DAO.clear();
     }
+
+    // Counts of coalesced reads: loads run against the store, and calls served by another's load
+    public record Stats(long loads, long shared) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,245 @@
+package service;
+
+import dataAccess.DataAccessException;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hashes and checks passwords with bcrypt on a small dedicated pool of platform threads, so a burst
+ * of logins queues here instead of taking every request thread's CPU from move and list traffic.
+ * The queue is bounded; when it is full, callers get "server busy" rather than waiting behind it.
+ * <p>
+ * The bcrypt cost follows a target latency: every hash and check is timed, the time per unit of work
+ * (one doubling of cost) is averaged, and new hashes use the highest cost that fits the target on
+ * this machine, within fixed bounds. {@link #needsRehash(String)} tells callers when a stored hash
+ * was made at a lower cost, or is a plaintext password from before hashing, so login can upgrade it.
+ */
+public class PasswordHasher {
+    /** Samples to take at the current cost before it may change again. */
+    private static final int SAMPLES_PER_ADJUSTMENT = 16;
+    /** Weight of each new sample in the moving average. */
+    private static final double SMOOTHING = 0.2;
+    /** jBCrypt's own default, used until the first timings come in. */
+    private static final int BCRYPT_DEFAULT_COST = 10;
+
+    private final ThreadPoolExecutor executor;
+    private final long targetNanos;
+    private final int minCost;
+    private final int maxCost;
+    private volatile int cost;
+    /** Moving average of nanoseconds per 2^cost rounds; NaN until the first sample. */
+    private double nanosPerUnit = Double.NaN;
+    private int samplesSinceChange;
+    /** Guards the timing samples and changes to {@link #cost}. */
+    private final ReentrantLock tuning = new ReentrantLock();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder workNanos = new LongAdder();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+
+    /**
+     * Constructs a hasher with its own pool.
+     *
+     * @param threads       threads hashing at once
+     * @param queueCapacity requests allowed to wait for a thread
+     * @param targetMillis  how long one hash should take
+     * @param minCost       lowest bcrypt cost used for new hashes
+     * @param maxCost       highest bcrypt cost used for new hashes
+     */
+    public PasswordHasher(int threads, int queueCapacity, long targetMillis, int minCost, int maxCost) {
+        if (minCost < 4 || maxCost > 30 || minCost > maxCost) {
+            throw new IllegalArgumentException("bcrypt costs must satisfy 4 <= min <= max <= 30");
+        }
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("chess-bcrypt-", 0).daemon(true).factory());
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+        this.cost = Math.clamp(BCRYPT_DEFAULT_COST, minCost, maxCost);
+    }
+
+    /**
+     * The hasher every service shares unless given its own, configured from the
+     * {@code chess.server.passwordHash*} system properties. It defaults to half the cores, 256 waiting
+     * requests, a 100 ms target, and costs between 8 and 14.
+     *
+     * @return the shared hasher
+     */
+    public static PasswordHasher shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Hashes a password at the current cost.
+     *
+     * @param password the plaintext password
+     * @return the bcrypt hash
+     * @throws DataAccessException with "server busy" if the queue is full
+     */
+    public String hash(String password) throws DataAccessException {
+        int current = cost;
+        return run(() -> {
+            long start = System.nanoTime();
+            String hash = BCrypt.hashpw(password, BCrypt.gensalt(current));
+            record(current, System.nanoTime() - start);
+            return hash;
+        });
+    }
+
+    /**
+     * Checks a password against what is stored for the user.
+     *
+     * @param password the plaintext password given
+     * @param stored   the stored bcrypt hash, or a plaintext password stored before hashing was used
+     * @return true if they match
+     * @throws DataAccessException with "server busy" if the queue is full
+     */
+    public boolean verify(String password, String stored) throws DataAccessException {
+        if (stored == null) {
+            return false;
+        }
+        if (!isHash(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        return run(() -> {
+            long start = System.nanoTime();
+            boolean match;
+            try {
+                match = BCrypt.checkpw(password, stored);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            record(costOf(stored), System.nanoTime() - start);
+            return match;
+        });
+    }
+
+    /**
+     * Only upgrades: the cost drops when the machine is busy, and a stored hash never gets weaker for it.
+     *
+     * @param stored a stored password
+     * @return true if it is plaintext or was hashed at a cost below the current one
+     */
+    public boolean needsRehash(String stored) {
+        return stored != null && (!isHash(stored) || costOf(stored) < cost);
+    }
+
+    /**
+     * @return the bcrypt cost new hashes are made at
+     */
+    public int cost() {
+        return cost;
+    }
+
+    /**
+     * Current queue, timing, and cost figures.
+     *
+     * @return the statistics
+     */
+    public Stats stats() {
+        long done = completed.sum();
+        return new Stats(cost, executor.getQueue().size(), done, rejected.sum(),
+                done == 0 ? 0 : queueNanos.sum() / 1e6 / done,
+                maxQueueNanos.get() / 1e6,
+                done == 0 ? 0 : workNanos.sum() / 1e6 / done);
+    }
+
+    private <T> T run(Callable<T> work) throws DataAccessException {
+        long submitted = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long waited = System.nanoTime() - submitted;
+                queueNanos.add(waited);
+                maxQueueNanos.accumulateAndGet(waited, Math::max);
+                return work.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new DataAccessException("server busy");
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("interrupted while checking password");
+        } catch (ExecutionException e) {
+            throw new DataAccessException("Unable to check password: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Folds one timing into the average and moves the cost toward the target once enough samples
+     * have been taken at the current cost.
+     */
+    private void record(int workCost, long elapsedNanos) {
+        completed.increment();
+        workNanos.add(elapsedNanos);
+        tuning.lock();
+        try {
+            double unit = (double) elapsedNanos / (1L << workCost);
+            nanosPerUnit = Double.isNaN(nanosPerUnit) ? unit : nanosPerUnit + SMOOTHING * (unit - nanosPerUnit);
+            if (++samplesSinceChange < SAMPLES_PER_ADJUSTMENT) {
+                return;
+            }
+            int fitting = (int) Math.floor(Math.log(targetNanos / nanosPerUnit) / Math.log(2));
+            int next = Math.clamp(fitting, minCost, maxCost);
+            if (next != cost) {
+                cost = next;
+                samplesSinceChange = 0;
+            }
+        } finally {
+            tuning.unlock();
+        }
+    }
+
+    private static boolean isHash(String stored) {
+        return stored.length() == 60 && stored.startsWith("$2") && stored.charAt(3) == '$' && stored.charAt(6) == '$'
+                && Character.isDigit(stored.charAt(4)) && Character.isDigit(stored.charAt(5));
+    }
+
+    private static int costOf(String stored) {
+        return Integer.parseInt(stored.substring(4, 6));
+    }
+
+    /**
+     * Password hashing figures since startup.
+     *
+     * @param cost            the bcrypt cost new hashes are made at
+     * @param queued          requests waiting for a thread now
+     * @param completed       hashes and checks finished
+     * @param rejected        requests refused because the queue was full
+     * @param meanQueueMillis average time a request waited for a thread
+     * @param maxQueueMillis  longest time a request waited for a thread
+     * @param meanWorkMillis  average time spent hashing or checking
+     */
+    public record Stats(int cost, int queued, long completed, long rejected,
+                        double meanQueueMillis, double maxQueueMillis, double meanWorkMillis) {
+    }
+
+    /** Holds the shared hasher, which the JVM creates on first use of {@link #shared()}. */
+    private static final class Shared {
+        static final PasswordHasher INSTANCE = new PasswordHasher(
+                Integer.getInteger("chess.server.passwordHashThreads",
+                        Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+                Integer.getInteger("chess.server.passwordHashQueue", 256),
+                Long.getLong("chess.server.passwordHashTargetMs", 100),
+                Integer.getInteger("chess.server.passwordHashMinCost", 8),
+                Integer.getInteger("chess.server.passwordHashMaxCost", 14));
+    }
+}
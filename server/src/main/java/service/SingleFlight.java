@@ -0,0 +1,162 @@
+package service;
+
+import dataAccess.DataAccessException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collapses concurrent identical reads into shared loads, so a crowd asking for the same thing at
+ * once costs the store a couple of queries instead of one each. Callers asking for the same key
+ * while a load is waiting to start join it and get its result; a load is only shared by callers that
+ * arrived before it started, so nobody is handed data read before they asked, and a caller that just
+ * wrote, or holds a fresh version number, still sees that write.
+ * <p>
+ * At most a fixed number of loads per key run at once. A caller arriving while that many are running
+ * queues one more load, which starts when a running one finishes and serves everyone who arrives in
+ * the meantime. With a limit of one, a burst of any size costs at most two loads.
+ * <p>
+ * Every caller sharing a load gets the same object, so results must not be changed.
+ *
+ * @param <K> the key identifying identical reads
+ * @param <V> the result of a read
+ */
+public class SingleFlight<K, V> {
+    private final int maxLoadsPerKey;
+    /** Keys with a load running or queued; guarded by {@link #lock}. */
+    private final Map<K, Slot<V>> slots = new HashMap<>();
+    /** Guards {@link #slots} and the state of every slot in it. */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * @param maxLoadsPerKey loads of one key allowed to run at once
+     */
+    public SingleFlight(int maxLoadsPerKey) {
+        if (maxLoadsPerKey < 1) {
+            throw new IllegalArgumentException("maxLoadsPerKey must be at least 1");
+        }
+        this.maxLoadsPerKey = maxLoadsPerKey;
+    }
+
+    /**
+     * Returns the result of a load of the key started after this call began, running the load on this
+     * thread unless another caller's queued load will serve.
+     *
+     * @param key  what is being read
+     * @param load reads it
+     * @return the result of the load, shared with any other callers it served
+     * @throws DataAccessException if the load failed
+     */
+    public V load(K key, Loader<V> load) throws DataAccessException {
+        CompletableFuture<V> joined = null;
+        CompletableFuture<V> led = null;
+        lock.lock();
+        try {
+            Slot<V> slot = slots.computeIfAbsent(key, k -> new Slot<>(lock.newCondition()));
+            if (slot.queued != null) {
+                shared.increment();
+                joined = slot.queued;
+            } else {
+                if (slot.running >= maxLoadsPerKey) {
+                    // Callers arriving from now on join this load; it starts once a running one finishes
+                    led = new CompletableFuture<>();
+                    slot.queued = led;
+                    while (slot.running >= maxLoadsPerKey) {
+                        slot.finished.awaitUninterruptibly();
+                    }
+                    slot.queued = null;
+                }
+                // A running load is never joined, so one started at once needs no future
+                slot.running++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return joined != null ? await(joined) : run(key, load, led);
+    }
+
+    /**
+     * @return loads run
+     */
+    public long loads() {
+        return loads.sum();
+    }
+
+    /**
+     * @return calls served by another caller's load
+     */
+    public long shared() {
+        return shared.sum();
+    }
+
+    private V run(K key, Loader<V> load, CompletableFuture<V> led) throws DataAccessException {
+        loads.increment();
+        try {
+            V value = load.load();
+            if (led != null) {
+                led.complete(value);
+            }
+            return value;
+        } catch (DataAccessException | RuntimeException | Error e) {
+            if (led != null) {
+                led.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            lock.lock();
+            try {
+                Slot<V> slot = slots.get(key);
+                slot.running--;
+                if (slot.running == 0 && slot.queued == null) {
+                    slots.remove(key);
+                } else {
+                    slot.finished.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> result) throws DataAccessException {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            switch (e.getCause()) {
+                case DataAccessException cause -> throw new DataAccessException(cause.getMessage());
+                case RuntimeException cause -> throw cause;
+                case Error cause -> throw cause;
+                default -> throw e;
+            }
+        }
+    }
+
+    /** A read to share. */
+    @FunctionalInterface
+    public interface Loader<V> {
+        /**
+         * @return what was read
+         * @throws DataAccessException if it could not be read
+         */
+        V load() throws DataAccessException;
+    }
+
+    /** Loads of one key. */
+    private static final class Slot<V> {
+        final Condition finished;
+        int running;
+        /** The load waiting for a running place, which new callers join, or null. */
+        CompletableFuture<V> queued;
+
+        Slot(Condition finished) {
+            this.finished = finished;
+        }
+    }
+}
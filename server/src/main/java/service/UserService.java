@@ -5,15 +5,19 @@ import dataAccess.UserDAO;
 import model.AuthData;
 import model.UserData;
 import dataAccess.DataAccessException;
+import logging.Logger;
 
 /**
  * Service class for managing user-related operations such as registration, login, and data clearing.
  */
 public class UserService {
+    private static final Logger LOG = Logger.get(UserService.class);
     /** Data access object for user data operations. */
     private final UserDAO userDAO;
     /** Data access object for authentication operations. */
     private final AuthDAO authDAO;
+    /** Hashes and checks passwords off the request thread. */
+    private final PasswordHasher hasher;
 
     /**
      * Constructs a UserService with the specified user and auth DAOs.
@@ -22,8 +26,29 @@ public class UserService {
      * @param authDAO the data access object for authentication operations
      */
     public UserService(UserDAO userDAO, AuthDAO authDAO) {
+        this(userDAO, authDAO, PasswordHasher.shared());
+    }
+
+    /**
+     * Constructs a UserService with the specified DAOs and password hasher.
+     *
+     * @param userDAO the data access object for user operations
+     * @param authDAO the data access object for authentication operations
+     * @param hasher  hashes and checks passwords
+     */
+    public UserService(UserDAO userDAO, AuthDAO authDAO, PasswordHasher hasher) {
         this.userDAO = userDAO;
         this.authDAO = authDAO;
+        this.hasher = hasher;
+    }
+
+    /**
+     * Password hashing queue and timing figures.
+     *
+     * @return the statistics
+     */
+    public PasswordHasher.Stats hashingStats() {
+        return hasher.stats();
     }
 
     /**
@@ -39,12 +64,13 @@ public class UserService {
                 user.username().trim().isEmpty() || user.password().trim().isEmpty() || user.email().trim().isEmpty()) {
             throw new DataAccessException("Bad Request");
         }
-        // Check for existing username
-        if (userDAO.getUser(user.username()) != null) {
+        // Reject a known name before paying for the hash; a certainly-free name skips the lookup,
+        // and the store's unique key still settles races between concurrent registrations
+        if (userDAO.mightExist(user.username()) && userDAO.getUser(user.username()) != null) {
             throw new DataAccessException("already taken");
         }
-        // Store new user
-        userDAO.createUser(user);
+        // Store new user with a bcrypt hash in place of the password
+        userDAO.createUser(new UserData(user.username(), hasher.hash(user.password()), user.email()));
         // Generate and return authentication token
         return authDAO.createAuthToken(user.username());
     }
@@ -65,20 +91,37 @@ public class UserService {
         // Retrieve stored user
         UserData storedUser = userDAO.getUser(user.username());
         // Verify user existence and password
-        if (storedUser == null || !storedUser.password().equals(user.password())) {
+        if (storedUser == null || !hasher.verify(user.password(), storedUser.password())) {
             throw new DataAccessException("unauthorized");
         }
+        // Upgrade a plaintext password, or a hash made at a lower cost, while the plaintext is at hand
+        if (hasher.needsRehash(storedUser.password())) {
+            rehash(user);
+        }
         // Generate and return authentication token
         return authDAO.createAuthToken(user.username());
     }
 
+    /**
+     * Stores a fresh hash of a user's password. Best effort: if the hasher is busy or the write fails,
+     * the old password still works and the next login tries again.
+     */
+    private void rehash(UserData user) {
+        try {
+            userDAO.updatePassword(user.username(), hasher.hash(user.password()));
+        } catch (DataAccessException e) {
+            LOG.warn("Deferred password rehash", "username", user.username(), "error", e.getMessage());
+        }
+    }
+
     /**
      * Clears all user and authentication data from storage.
      *
      * @throws DataAccessException if the clear operation fails
      */
     public void clearAll() throws DataAccessException {
-        userDAO.clear();
+        // Tokens before the users they refer to, as everywhere else
         authDAO.clearAll();
+        userDAO.clear();
     }
 }
\ No newline at end of file
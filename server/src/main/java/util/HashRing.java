@@ -0,0 +1,86 @@
+package util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Consistent-hash ring assigning integer keys, such as game IDs, to members.
+ * Each member is placed at many points on the ring, so keys spread evenly, and adding or
+ * removing a member only moves the keys next to its points rather than reshuffling everything.
+ *
+ * @param <T> the member type
+ */
+public final class HashRing<T> {
+    /** Points per member; enough to keep each member's share of keys roughly even. */
+    public static final int DEFAULT_REPLICAS = 128;
+
+    private final NavigableMap<Long, T> ring = new TreeMap<>();
+    private final List<T> members;
+
+    /**
+     * Builds a ring.
+     *
+     * @param members  the members, at least one
+     * @param name     a stable name for each member; the same names give the same ring on every node
+     * @param replicas points per member
+     */
+    public HashRing(Collection<T> members, Function<T, String> name, int replicas) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("a hash ring needs at least one member");
+        }
+        this.members = List.copyOf(members);
+        for (T member : this.members) {
+            for (int i = 0; i < replicas; i++) {
+                ring.put(hash(name.apply(member) + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * Builds a ring of named members with {@link #DEFAULT_REPLICAS} points each.
+     *
+     * @param members the member names
+     * @return the ring
+     */
+    public static HashRing<String> of(Collection<String> members) {
+        return new HashRing<>(members, Function.identity(), DEFAULT_REPLICAS);
+    }
+
+    /**
+     * Finds the member that owns a key.
+     *
+     * @param key the key, e.g. a game ID
+     * @return the first member clockwise from the key's point
+     */
+    public T owner(long key) {
+        var entry = ring.ceilingEntry(mix(key));
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    /**
+     * @return every member, in the order given
+     */
+    public List<T> members() {
+        return members;
+    }
+
+    private static long hash(String name) {
+        // FNV-1a, then mixed so similar names land far apart
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ b) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /** SplitMix64 finalizer: spreads sequential keys like 1, 2, 3 across the whole ring. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
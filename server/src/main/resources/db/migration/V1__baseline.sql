@@ -0,0 +1,22 @@
+-- The tables as they were before versioned migrations; IF NOT EXISTS adopts existing databases
+CREATE TABLE IF NOT EXISTS users (
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255),
+    PRIMARY KEY (username)
+);
+
+CREATE TABLE IF NOT EXISTS games (
+    gameID INT NOT NULL AUTO_INCREMENT,
+    whiteUsername VARCHAR(255),
+    blackUsername VARCHAR(255),
+    gameName VARCHAR(255) NOT NULL,
+    game TEXT NOT NULL,
+    PRIMARY KEY (gameID)
+);
+
+CREATE TABLE IF NOT EXISTS authTokens (
+    authToken VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    PRIMARY KEY (authToken)
+);
@@ -0,0 +1,7 @@
+-- Per-player lookups: a player's games, and a user's tokens
+CREATE INDEX idx_games_white ON games (whiteUsername);
+CREATE INDEX idx_games_black ON games (blackUsername);
+CREATE INDEX idx_authTokens_username ON authTokens (username);
+
+-- Game state is always JSON from ChessGameTypeAdapter; store it as JSON so MySQL validates and packs it
+ALTER TABLE games MODIFY game JSON NOT NULL;
@@ -0,0 +1,8 @@
+-- Counter that GameIdAllocator reserves cross-shard game IDs from
+CREATE TABLE IF NOT EXISTS gameIdSequence (
+    id TINYINT NOT NULL,
+    nextID BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT IGNORE INTO gameIdSequence (id, nextID) VALUES (1, 1);
@@ -0,0 +1,135 @@
+package dataAccess;
+
+import model.AuthData;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class CachingAuthDAOTests {
+    private GatedAuthDAO store;
+    private CachingAuthDAO auth;
+    private ExecutorService threads;
+
+    @BeforeEach
+    public void setUp() {
+        store = new GatedAuthDAO();
+        auth = new CachingAuthDAO(store);
+        threads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.release.countDown();
+        threads.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Lookup Racing Logout Does Not Re-Cache Token")
+    public void lookupRacingLogoutDoesNotRecacheToken() throws Exception {
+        String token = store.createAuthToken("alice").authToken();
+        Future<AuthData> lookup = lookupHeldAfterRead(token);
+
+        auth.deleteAuthToken(token);
+        store.release.countDown();
+        Assertions.assertEquals("alice", lookup.get(5, TimeUnit.SECONDS).username(),
+                "Lookup that began before the logout should still see what it read");
+        Assertions.assertThrows(DataAccessException.class, () -> auth.getAuthToken(token),
+                "Logged-out token was cached again by the racing lookup");
+    }
+
+    @Test
+    @DisplayName("Lookup Racing Clear Does Not Re-Cache Token")
+    public void lookupRacingClearDoesNotRecacheToken() throws Exception {
+        String token = store.createAuthToken("alice").authToken();
+        Future<AuthData> lookup = lookupHeldAfterRead(token);
+
+        auth.clearAll();
+        store.release.countDown();
+        lookup.get(5, TimeUnit.SECONDS);
+        Assertions.assertThrows(DataAccessException.class, () -> auth.getAuthToken(token),
+                "Cleared token was cached again by the racing lookup");
+    }
+
+    @Test
+    @DisplayName("Concurrent Lookups And Logouts Never Leave Token Cached")
+    public void concurrentLookupsAndLogoutsNeverLeaveTokenCached() throws Exception {
+        MemoryAuthDAO memory = new MemoryAuthDAO();
+        CachingAuthDAO cache = new CachingAuthDAO(memory);
+        for (int i = 0; i < 20_000; i++) {
+            String token = memory.createAuthToken("user" + i).authToken();
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?> lookup = threads.submit(() -> {
+                start.await();
+                try {
+                    cache.getAuthToken(token);
+                } catch (DataAccessException ignored) {
+                    // Lost the race to the logout
+                }
+                return null;
+            });
+            Future<?> logout = threads.submit(() -> {
+                start.await();
+                cache.deleteAuthToken(token);
+                return null;
+            });
+            start.countDown();
+            lookup.get(5, TimeUnit.SECONDS);
+            logout.get(5, TimeUnit.SECONDS);
+            int attempt = i;
+            Assertions.assertThrows(DataAccessException.class, () -> cache.getAuthToken(token),
+                    "Token logged out on attempt " + attempt + " is still cached");
+        }
+    }
+
+    @Test
+    @DisplayName("Full Cache Keeps Serving")
+    public void fullCacheKeepsServing() throws Exception {
+        CachingAuthDAO small = new CachingAuthDAO(new MemoryAuthDAO(), 16, 60_000, 60_000);
+        String last = null;
+        for (int i = 0; i < 100; i++) {
+            last = small.createAuthToken("user" + i).authToken();
+        }
+        Assertions.assertEquals("user99", small.getAuthToken(last).username());
+    }
+
+    /**
+     * Starts a lookup of a token the cache has not seen, and waits until it has read the store and is
+     * about to cache what it read.
+     */
+    private Future<AuthData> lookupHeldAfterRead(String token) throws InterruptedException {
+        store.gate();
+        Future<AuthData> lookup = threads.submit(() -> auth.getAuthToken(token));
+        Assertions.assertTrue(store.entered.await(5, TimeUnit.SECONDS), "Lookup never reached the store");
+        return lookup;
+    }
+
+    /** Memory store whose next lookup can be held after it has read the token. */
+    static class GatedAuthDAO extends MemoryAuthDAO {
+        volatile CountDownLatch entered = new CountDownLatch(0);
+        volatile CountDownLatch release = new CountDownLatch(0);
+
+        void gate() {
+            entered = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public AuthData getAuthToken(String authToken) throws DataAccessException {
+            AuthData authData = super.getAuthToken(authToken);
+            entered.countDown();
+            try {
+                if (!release.await(5, TimeUnit.SECONDS)) {
+                    throw new DataAccessException("gate was never released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DataAccessException("interrupted");
+            }
+            return authData;
+        }
+    }
+}
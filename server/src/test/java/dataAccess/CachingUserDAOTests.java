@@ -0,0 +1,116 @@
+package dataAccess;
+
+import model.UserData;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class CachingUserDAOTests {
+    private GatedUserDAO store;
+    private CachingUserDAO users;
+    private ExecutorService threads;
+
+    @BeforeEach
+    public void setUp() throws DataAccessException {
+        store = new GatedUserDAO();
+        users = new CachingUserDAO(store);
+        threads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.release.countDown();
+        threads.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Lookup Racing Clear Does Not Re-Cache User")
+    public void lookupRacingClearDoesNotRecacheUser() throws Exception {
+        store.createUser(new UserData("alice", "hash", "a@a"));
+        Future<UserData> lookup = lookupHeldAfterRead("alice");
+
+        users.clear();
+        store.release.countDown();
+        lookup.get(5, TimeUnit.SECONDS);
+        Assertions.assertNull(users.getUser("alice"), "Cleared user was cached again by the racing lookup");
+    }
+
+    @Test
+    @DisplayName("Lookup Racing Password Update Does Not Re-Cache Old Hash")
+    public void lookupRacingPasswordUpdateDoesNotRecacheOldHash() throws Exception {
+        store.createUser(new UserData("alice", "old", "a@a"));
+        Future<UserData> lookup = lookupHeldAfterRead("alice");
+
+        users.updatePassword("alice", "new");
+        store.release.countDown();
+        Assertions.assertEquals("old", lookup.get(5, TimeUnit.SECONDS).password());
+        Assertions.assertEquals("new", users.getUser("alice").password(), "Old hash was cached again");
+    }
+
+    @Test
+    @DisplayName("Concurrent Lookups And Updates Never Leave Old Hash Cached")
+    public void concurrentLookupsAndUpdatesNeverLeaveOldHashCached() throws Exception {
+        MemoryUserDAO memory = new MemoryUserDAO();
+        CachingUserDAO cache = new CachingUserDAO(memory);
+        for (int i = 0; i < 20_000; i++) {
+            String username = "user" + i;
+            memory.createUser(new UserData(username, "old", "u@u"));
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?> lookup = threads.submit(() -> {
+                start.await();
+                return cache.getUser(username);
+            });
+            Future<?> update = threads.submit(() -> {
+                start.await();
+                cache.updatePassword(username, "new");
+                return null;
+            });
+            start.countDown();
+            lookup.get(5, TimeUnit.SECONDS);
+            update.get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals("new", cache.getUser(username).password(),
+                    "Old hash of " + username + " is still cached");
+        }
+    }
+
+    /**
+     * Starts a lookup of a user the cache has not seen, and waits until it has read the store and is
+     * about to cache what it read.
+     */
+    private Future<UserData> lookupHeldAfterRead(String username) throws InterruptedException {
+        store.gate();
+        Future<UserData> lookup = threads.submit(() -> users.getUser(username));
+        Assertions.assertTrue(store.entered.await(5, TimeUnit.SECONDS), "Lookup never reached the store");
+        return lookup;
+    }
+
+    /** Memory store whose next lookup can be held after it has read the user. */
+    static class GatedUserDAO extends MemoryUserDAO {
+        volatile CountDownLatch entered = new CountDownLatch(0);
+        volatile CountDownLatch release = new CountDownLatch(0);
+
+        void gate() {
+            entered = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public UserData getUser(String username) throws DataAccessException {
+            UserData user = super.getUser(username);
+            entered.countDown();
+            try {
+                if (!release.await(5, TimeUnit.SECONDS)) {
+                    throw new DataAccessException("gate was never released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DataAccessException("interrupted");
+            }
+            return user;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package dataAccess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentBagTests {
+    private AtomicInteger requested;
+    private ConcurrentBag<Item> bag;
+
+    @BeforeEach
+    public void setUp() {
+        requested = new AtomicInteger();
+        bag = new ConcurrentBag<>(waiting -> requested.incrementAndGet());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bag.close();
+    }
+
+    @Test
+    @DisplayName("Borrow And Requite")
+    public void borrowAndRequite() throws Exception {
+        Item item = new Item();
+        bag.add(item);
+
+        Assertions.assertSame(item, bag.borrow(1, TimeUnit.SECONDS), "Idle entry was not borrowed");
+        Assertions.assertEquals(ConcurrentBag.Entry.STATE_IN_USE, item.getState(), "Borrowed entry not in use");
+        Assertions.assertNull(bag.borrow(10, TimeUnit.MILLISECONDS), "Borrowed an entry already in use");
+        Assertions.assertEquals(1, requested.get(), "Empty bag did not ask for a new entry");
+
+        bag.requite(item);
+        Assertions.assertEquals(ConcurrentBag.Entry.STATE_NOT_IN_USE, item.getState(), "Returned entry still in use");
+        Assertions.assertSame(item, bag.borrow(1, TimeUnit.SECONDS), "Returned entry was not borrowed again");
+        Assertions.assertEquals(1, bag.size(), "Borrowing changed the bag's size");
+    }
+
+    @Test
+    @DisplayName("Requite Hands Off To Waiter")
+    public void requiteHandsOffToWaiter() throws Exception {
+        Item item = new Item();
+        bag.add(item);
+        Assertions.assertSame(item, bag.borrow(1, TimeUnit.SECONDS));
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Item> waiter = threads.submit(() -> bag.borrow(5, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (bag.getWaitingThreadCount() == 0) {
+                Assertions.assertTrue(System.nanoTime() < deadline, "Borrower never started waiting");
+                Thread.onSpinWait();
+            }
+            bag.requite(item);
+            Assertions.assertSame(item, waiter.get(5, TimeUnit.SECONDS), "Waiter did not receive the returned entry");
+        }
+        Assertions.assertEquals(ConcurrentBag.Entry.STATE_IN_USE, item.getState(), "Handed-off entry not in use");
+        Assertions.assertEquals(0, bag.getWaitingThreadCount(), "Waiter still counted after the handoff");
+    }
+
+    @Test
+    @DisplayName("Contended Borrowers Never Share An Entry")
+    public void contendedBorrowersNeverShareAnEntry() throws Exception {
+        int entries = 4;
+        int borrowers = 32;
+        int rounds = 500;
+        for (int i = 0; i < entries; i++) {
+            bag.add(new Item());
+        }
+
+        AtomicInteger shared = new AtomicInteger();
+        AtomicInteger timedOut = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(borrowers)) {
+            for (int t = 0; t < borrowers; t++) {
+                results.add(threads.submit(() -> {
+                    start.await();
+                    for (int r = 0; r < rounds; r++) {
+                        Item item = bag.borrow(5, TimeUnit.SECONDS);
+                        if (item == null) {
+                            timedOut.incrementAndGet();
+                            continue;
+                        }
+                        if (item.holders.incrementAndGet() != 1) {
+                            shared.incrementAndGet();
+                        }
+                        Thread.yield();
+                        item.holders.decrementAndGet();
+                        bag.requite(item);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        Assertions.assertEquals(0, shared.get(), "An entry was held by two borrowers at once");
+        Assertions.assertEquals(0, timedOut.get(), "Borrowers timed out with entries being returned");
+        Assertions.assertEquals(entries, bag.size(), "Entries were lost or duplicated");
+        Assertions.assertEquals(entries, bag.getCount(ConcurrentBag.Entry.STATE_NOT_IN_USE),
+                "Entries left in use after every borrower returned them");
+        Assertions.assertEquals(0, bag.getWaitingThreadCount(), "Borrowers still counted as waiting");
+    }
+
+    /** Entry that counts the borrowers holding it. */
+    private static class Item implements ConcurrentBag.Entry {
+        private final AtomicInteger state = new AtomicInteger(STATE_NOT_IN_USE);
+        final AtomicInteger holders = new AtomicInteger();
+
+        @Override
+        public boolean compareAndSet(int expectState, int newState) {
+            return state.compareAndSet(expectState, newState);
+        }
+
+        @Override
+        public void setState(int newState) {
+            state.set(newState);
+        }
+
+        @Override
+        public int getState() {
+            return state.get();
+        }
+    }
+}
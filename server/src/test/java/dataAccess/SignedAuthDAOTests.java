@@ -0,0 +1,225 @@
+package dataAccess;
+
+import model.AuthData;
+import org.junit.jupiter.api.*;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SignedAuthDAOTests {
+    private static final long TTL_MS = 60_000;
+    private static final byte[] OLD_KEY = key(1);
+    private static final byte[] NEW_KEY = key(2);
+
+    private MemoryAuthDAO store;
+    private SignedAuthDAO auth;
+
+    @BeforeEach
+    public void setUp() {
+        store = new MemoryAuthDAO();
+        auth = new SignedAuthDAO(store, Map.of("k1", OLD_KEY), TTL_MS);
+    }
+
+    @Test
+    @DisplayName("Signed Token Validates Without The Store")
+    public void signedTokenValidatesWithoutTheStore() throws DataAccessException {
+        AuthData issued = auth.createAuthToken("alice");
+        Assertions.assertEquals("alice", auth.getAuthToken(issued.authToken()).username());
+        Assertions.assertThrows(DataAccessException.class, () -> store.getAuthToken(issued.authToken()),
+                "Signed token was written to the store");
+    }
+
+    @Test
+    @DisplayName("Forged Tokens Are Rejected")
+    public void forgedTokensAreRejected() throws DataAccessException {
+        String token = auth.createAuthToken("alice").authToken();
+        String[] parts = token.split("\\.");
+        Assertions.assertEquals(5, parts.length, "Expected key, time, username, nonce and signature");
+        String signature = parts[4];
+        byte[] flipped = Base64.getUrlDecoder().decode(signature);
+        flipped[0] ^= 1;
+        List<String> forgeries = List.of(
+                String.join(".", parts[0], parts[1], encode("mallory"), parts[3], signature),
+                String.join(".", parts[0], String.valueOf(Long.parseLong(parts[1]) + 1), parts[2], parts[3], signature),
+                String.join(".", parts[0], parts[1], parts[2], parts[3] + "0", signature),
+                String.join(".", parts[0], parts[1], parts[2], signature),
+                String.join(".", parts[0], parts[1], parts[2], parts[3],
+                        Base64.getUrlEncoder().withoutPadding().encodeToString(flipped)),
+                String.join(".", "k9", parts[1], parts[2], parts[3], signature),
+                new SignedAuthDAO(store, Map.of("k1", key(3)), TTL_MS).createAuthToken("alice").authToken());
+        for (String forgery : forgeries) {
+            Assertions.assertThrows(DataAccessException.class, () -> auth.getAuthToken(forgery),
+                    "Accepted forged token " + forgery);
+            Assertions.assertThrows(DataAccessException.class, () -> auth.deleteAuthToken(forgery),
+                    "Logged out forged token " + forgery);
+        }
+    }
+
+    @Test
+    @DisplayName("Token Without Nonce Still Verifies")
+    public void tokenWithoutNonceStillVerifies() throws Exception {
+        String body = "k1." + System.currentTimeMillis() + "." + encode("alice");
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(OLD_KEY, "HmacSHA256"));
+        String token = body + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals("alice", auth.getAuthToken(token).username());
+        auth.deleteAuthToken(token);
+        Assertions.assertThrows(DataAccessException.class, () -> auth.getAuthToken(token));
+    }
+
+    @Test
+    @DisplayName("Expired Token Is Rejected")
+    public void expiredTokenIsRejected() throws Exception {
+        SignedAuthDAO shortLived = new SignedAuthDAO(store, Map.of("k1", OLD_KEY), 50);
+        String token = shortLived.createAuthToken("alice").authToken();
+        Thread.sleep(100);
+        Assertions.assertThrows(DataAccessException.class, () -> shortLived.getAuthToken(token));
+    }
+
+    @Test
+    @DisplayName("Logout Revokes Only That Token")
+    public void logoutRevokesOnlyThatToken() throws DataAccessException {
+        // Two logins in one millisecond must still be two sessions
+        String first = auth.createAuthToken("alice").authToken();
+        String second = auth.createAuthToken("alice").authToken();
+        Assertions.assertNotEquals(first, second, "Two logins were given the same token");
+        auth.deleteAuthToken(first);
+        Assertions.assertThrows(DataAccessException.class, () -> auth.getAuthToken(first));
+        Assertions.assertThrows(DataAccessException.class, () -> auth.deleteAuthToken(first),
+                "Token was logged out twice");
+        Assertions.assertEquals("alice", auth.getAuthToken(second).username());
+    }
+
+    @Test
+    @DisplayName("Clear Invalidates Earlier Tokens Only")
+    public void clearInvalidatesEarlierTokensOnly() throws DataAccessException {
+        String before = auth.createAuthToken("alice").authToken();
+        String revoked = auth.createAuthToken("bob").authToken();
+        auth.deleteAuthToken(revoked);
+        auth.clearAll();
+        Assertions.assertThrows(DataAccessException.class, () -> auth.getAuthToken(before));
+        String after = auth.createAuthToken("alice").authToken();
+        Assertions.assertEquals("alice", auth.getAuthToken(after).username(),
+                "Token issued in the millisecond of the clear was invalidated");
+    }
+
+    @Test
+    @DisplayName("Rotated Key Still Verifies Old Tokens")
+    public void rotatedKeyStillVerifiesOldTokens() throws DataAccessException {
+        String oldToken = auth.createAuthToken("alice").authToken();
+        Map<String, byte[]> keys = new LinkedHashMap<>();
+        keys.put("k2", NEW_KEY);
+        keys.put("k1", OLD_KEY);
+        SignedAuthDAO rotated = new SignedAuthDAO(store, keys, TTL_MS);
+
+        Assertions.assertEquals("alice", rotated.getAuthToken(oldToken).username(), "Old key stopped verifying");
+        String newToken = rotated.createAuthToken("bob").authToken();
+        Assertions.assertTrue(newToken.startsWith("k2."), "New tokens are not signed by the first key");
+        Assertions.assertThrows(DataAccessException.class, () -> auth.getAuthToken(newToken),
+                "A server without the new key accepted its token");
+
+        SignedAuthDAO retired = new SignedAuthDAO(store, Map.of("k2", NEW_KEY), TTL_MS);
+        Assertions.assertThrows(DataAccessException.class, () -> retired.getAuthToken(oldToken),
+                "Token of a retired key is still accepted");
+    }
+
+    @Test
+    @DisplayName("Unsigned Tokens Go To The Store")
+    public void unsignedTokensGoToTheStore() throws DataAccessException {
+        String stored = store.createAuthToken("alice").authToken();
+        Assertions.assertEquals("alice", auth.getAuthToken(stored).username());
+        auth.deleteAuthToken(stored);
+        Assertions.assertThrows(DataAccessException.class, () -> store.getAuthToken(stored));
+    }
+
+    @Test
+    @DisplayName("Logout And Clear Elsewhere Reach This Node")
+    public void logoutAndClearElsewhereReachThisNode() throws Exception {
+        SignedAuthDAO other = new SignedAuthDAO(store, Map.of("k1", OLD_KEY), TTL_MS);
+        String loggedOut = other.createAuthToken("alice").authToken();
+        String kept = other.createAuthToken("bob").authToken();
+        other.deleteAuthToken(loggedOut);
+        Assertions.assertEquals("alice", auth.getAuthToken(loggedOut).username(),
+                "Revocations are expected to stay on the node that made them");
+
+        auth.revokedElsewhere(loggedOut);
+        Assertions.assertThrows(DataAccessException.class, () -> auth.getAuthToken(loggedOut));
+        Assertions.assertEquals("bob", auth.getAuthToken(kept).username());
+
+        Thread.sleep(2);
+        String revokedHere = auth.createAuthToken("carol").authToken();
+        auth.deleteAuthToken(revokedHere);
+        auth.clearedElsewhere(System.currentTimeMillis());
+        Assertions.assertThrows(DataAccessException.class, () -> auth.getAuthToken(kept));
+        Assertions.assertEquals("dave", auth.getAuthToken(auth.createAuthToken("dave").authToken()).username(),
+                "Token issued after the other node's clear was rejected");
+        Assertions.assertThrows(DataAccessException.class, () -> auth.getAuthToken(revokedHere));
+    }
+
+    @Test
+    @DisplayName("Revocations Survive Sweeps")
+    public void revocationsSurviveSweeps() throws DataAccessException {
+        // Several times the sweep threshold, so the filter is rebuilt more than once
+        List<String> revoked = new ArrayList<>();
+        List<String> live = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            String token = auth.createAuthToken("user" + i).authToken();
+            auth.deleteAuthToken(token);
+            revoked.add(token);
+            live.add(auth.createAuthToken("user" + i).authToken());
+        }
+        for (String token : revoked) {
+            Assertions.assertThrows(DataAccessException.class, () -> auth.getAuthToken(token),
+                    "A sweep dropped an unexpired revocation");
+        }
+        for (String token : live) {
+            Assertions.assertNotNull(auth.getAuthToken(token));
+        }
+    }
+
+    @Test
+    @DisplayName("Expired Revocations Are Swept")
+    public void expiredRevocationsAreSwept() throws Exception {
+        SignedAuthDAO shortLived = new SignedAuthDAO(store, Map.of("k1", OLD_KEY), 200);
+        List<String> expired = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String token = shortLived.createAuthToken("old" + i).authToken();
+            shortLived.deleteAuthToken(token);
+            expired.add(token);
+        }
+        Thread.sleep(250);
+        // Enough new revocations to pass the threshold and sweep out the expired ones
+        List<String> fresh = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String token = shortLived.createAuthToken("new" + i).authToken();
+            shortLived.deleteAuthToken(token);
+            fresh.add(token);
+        }
+        for (String token : fresh) {
+            Assertions.assertThrows(DataAccessException.class, () -> shortLived.getAuthToken(token),
+                    "Sweep dropped a revocation that has not expired");
+        }
+        for (String token : expired) {
+            Assertions.assertThrows(DataAccessException.class, () -> shortLived.getAuthToken(token),
+                    "Expired token became valid once its revocation was swept");
+        }
+    }
+
+    private static String encode(String username) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] key(int seed) {
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) seed);
+        return key;
+    }
+}
@@ -0,0 +1,93 @@
+package dataAccess;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StatementCacheTests {
+    private static final String SQL = "SELECT game FROM games WHERE gameID = ?";
+
+    private final List<StubStatement> prepared = new ArrayList<>();
+    private StatementCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement")) {
+                        StubStatement statement = new StubStatement();
+                        prepared.add(statement);
+                        return statement.proxy;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        cache = new StatementCache(connection, 8);
+    }
+
+    @Test
+    @DisplayName("Closing Statement Closes Its Result Sets")
+    public void closingStatementClosesItsResultSets() throws Exception {
+        PreparedStatement statement = cache.prepare(SQL, Statement.RETURN_GENERATED_KEYS);
+        ResultSet rows = statement.executeQuery();
+        ResultSet keys = statement.getGeneratedKeys();
+        statement.close();
+
+        Assertions.assertTrue(rows.isClosed(), "Query result outlived its statement's close");
+        Assertions.assertTrue(keys.isClosed(), "Generated keys outlived their statement's close");
+        Assertions.assertFalse(prepared.get(0).closed, "Cached statement was closed instead of kept");
+    }
+
+    @Test
+    @DisplayName("Returning Connection Closes Result Sets Left Open")
+    public void returningConnectionClosesResultSetsLeftOpen() throws Exception {
+        ResultSet rows = cache.prepare(SQL, Statement.NO_GENERATED_KEYS).executeQuery();
+        cache.releaseAll();
+        Assertions.assertTrue(rows.isClosed(), "Result set of a statement left open outlived the borrow");
+    }
+
+    @Test
+    @DisplayName("Closed Statement Is Reused")
+    public void closedStatementIsReused() throws Exception {
+        PreparedStatement first = cache.prepare(SQL, Statement.NO_GENERATED_KEYS);
+        first.executeQuery();
+        first.close();
+        ResultSet rows = cache.prepare(SQL, Statement.NO_GENERATED_KEYS).executeQuery();
+        Assertions.assertEquals(1, prepared.size(), "Statement was prepared again");
+        Assertions.assertFalse(rows.isClosed(), "New borrower's result set was closed");
+        Assertions.assertTrue(first.isClosed());
+    }
+
+    /** A physical statement whose result sets record whether they were closed. */
+    private static final class StubStatement {
+        boolean closed;
+        final PreparedStatement proxy = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "executeQuery", "getGeneratedKeys" -> resultSet();
+                    case "clearParameters", "clearBatch" -> null;
+                    case "close" -> {
+                        closed = true;
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        private static ResultSet resultSet() {
+            boolean[] closed = {false};
+            return (ResultSet) Proxy.newProxyInstance(StubStatement.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            closed[0] = true;
+                            yield null;
+                        }
+                        case "isClosed" -> closed[0];
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
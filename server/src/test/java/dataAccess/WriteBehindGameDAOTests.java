@@ -0,0 +1,211 @@
+package dataAccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import model.GameData;
+import org.junit.jupiter.api.*;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class WriteBehindGameDAOTests {
+    /** Long enough that only the flushes a test makes itself run. */
+    private static final long NO_BACKGROUND_FLUSH_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private GatedGameDAO store;
+    private WriteBehindGameDAO games;
+
+    @BeforeEach
+    public void setUp() {
+        store = new GatedGameDAO();
+        games = new WriteBehindGameDAO(store, WriteBehindGameDAO.Durability.ASYNC, NO_BACKGROUND_FLUSH_MS, 1000, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.release.countDown();
+        games.close();
+    }
+
+    @Test
+    @DisplayName("Reads During Flush See In-Flight Games")
+    public void readsDuringFlushSeeInFlightGames() throws Exception {
+        GameData first = games.createGame("first");
+        ChessGame moved = move(first.game());
+        games.updateGameState(first.gameID(), moved);
+
+        store.gate();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread flusher = Thread.ofVirtual().start(() -> {
+            try {
+                games.flush();
+            } catch (DataAccessException e) {
+                failure.set(e);
+            }
+        });
+        Assertions.assertTrue(store.entered.await(5, TimeUnit.SECONDS), "Flush never reached the store");
+
+        // More games than are kept hot arrive while the batch is still being written
+        for (int i = 0; i < 5; i++) {
+            GameData other = games.createGame("other " + i);
+            games.getGame(other.gameID());
+        }
+        Assertions.assertEquals(moved, games.getGame(first.gameID()).game(),
+                "Read during the flush returned the stored game instead of the one being written");
+        Assertions.assertEquals(moved, find(games.listgame(), first.gameID()).game(),
+                "Listing during the flush returned the stored game instead of the one being written");
+
+        store.release.countDown();
+        flusher.join();
+        Assertions.assertNull(failure.get(), "Flush failed");
+        Assertions.assertEquals(moved, store.getGame(first.gameID()).game(), "Flush did not write the move");
+        Assertions.assertEquals(moved, games.getGame(first.gameID()).game(), "Read after the flush lost the move");
+
+        // Once written the game may be evicted; a move made after reloading it builds on the stored one
+        ChessGame again = move(games.getGame(first.gameID()).game());
+        games.updateGameState(first.gameID(), again);
+        games.flush();
+        Assertions.assertEquals(again, store.getGame(first.gameID()).game(), "Second move was not written");
+    }
+
+    @Test
+    @DisplayName("Failed Flush Requeues Games")
+    public void failedFlushRequeuesGames() throws Exception {
+        GameData game = games.createGame("game");
+        ChessGame moved = move(game.game());
+        games.updateGameState(game.gameID(), moved);
+
+        store.failures = 1;
+        Assertions.assertThrows(DataAccessException.class, () -> games.flush());
+        Assertions.assertEquals(1, games.pendingWrites(), "Failed write was not put back");
+        Assertions.assertEquals(game.game(), store.getGame(game.gameID()).game(), "Failed write reached the store");
+        Assertions.assertEquals(moved, games.getGame(game.gameID()).game(), "Read after the failure lost the move");
+
+        games.flush();
+        Assertions.assertEquals(0, games.pendingWrites(), "Retried write is still pending");
+        Assertions.assertEquals(moved, store.getGame(game.gameID()).game(), "Retry did not write the move");
+    }
+
+    @Test
+    @DisplayName("Failed Flush Keeps Newer Update")
+    public void failedFlushKeepsNewerUpdate() throws Exception {
+        GameData game = games.createGame("game");
+        ChessGame first = move(game.game());
+        games.updateGameState(game.gameID(), first);
+
+        store.failures = 1;
+        store.gate();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread flusher = Thread.ofVirtual().start(() -> {
+            try {
+                games.flush();
+            } catch (DataAccessException e) {
+                failure.set(e);
+            }
+        });
+        Assertions.assertTrue(store.entered.await(5, TimeUnit.SECONDS), "Flush never reached the store");
+
+        // A move made while the failing batch is out must not be overwritten when the batch is put back
+        ChessGame second = move(first);
+        games.updateGameState(game.gameID(), second);
+        store.release.countDown();
+        flusher.join();
+        Assertions.assertNotNull(failure.get(), "Flush did not report the failure");
+        Assertions.assertEquals(1, games.pendingWrites(), "Game was queued more than once, or not at all");
+        Assertions.assertEquals(second, games.getGame(game.gameID()).game(), "Requeued batch replaced the newer move");
+
+        games.flush();
+        Assertions.assertEquals(second, store.getGame(game.gameID()).game(), "Retry wrote the older move");
+    }
+
+    @Test
+    @DisplayName("Seat Changes Write Through")
+    public void seatChangesWriteThrough() throws Exception {
+        GameData game = games.createGame("game");
+        ChessGame moved = move(game.game());
+        games.updateGameState(game.gameID(), moved);
+
+        Assertions.assertTrue(games.claimSeat(game.gameID(), ChessGame.TeamColor.WHITE, "alice"));
+        Assertions.assertEquals("alice", store.getGame(game.gameID()).whiteUsername(), "Claim was not written through");
+        Assertions.assertEquals("alice", games.getGame(game.gameID()).whiteUsername(), "Hot copy missed the claim");
+
+        // Another node takes black straight in the store; the store decides, not the stale hot copy
+        Assertions.assertTrue(store.claimSeat(game.gameID(), ChessGame.TeamColor.BLACK, "bob"));
+        Assertions.assertFalse(games.claimSeat(game.gameID(), ChessGame.TeamColor.BLACK, "carol"),
+                "Seat taken in the store was claimed again from memory");
+
+        games.flush();
+        GameData stored = store.getGame(game.gameID());
+        Assertions.assertEquals(moved, stored.game(), "Flush did not write the move");
+        Assertions.assertEquals("alice", stored.whiteUsername(), "Flush undid a seat claim");
+        Assertions.assertEquals("bob", stored.blackUsername(), "Flush overwrote a seat claimed elsewhere");
+
+        Assertions.assertTrue(games.releaseSeat(game.gameID(), ChessGame.TeamColor.WHITE, "alice"));
+        Assertions.assertNull(store.getGame(game.gameID()).whiteUsername(), "Release was not written through");
+        Assertions.assertNull(games.getGame(game.gameID()).whiteUsername(), "Hot copy missed the release");
+    }
+
+    @Test
+    @DisplayName("Store Cleared Underneath Drops Hot And Dirty Games")
+    public void storeClearedUnderneathDropsHotAndDirtyGames() throws Exception {
+        GameData game = games.createGame("game");
+        games.updateGameState(game.gameID(), move(game.game()));
+
+        // As when MySQLDataAccess truncates the tables itself
+        store.clear();
+        games.forgetAll();
+        Assertions.assertThrows(DataAccessException.class, () -> games.getGame(game.gameID()),
+                "Hot copy outlived the clear");
+        games.flush();
+        Assertions.assertTrue(store.listgame().isEmpty(), "Pending write outlived the clear");
+    }
+
+    private static ChessGame move(ChessGame game) throws Exception {
+        ChessGame next = new ChessGame(game);
+        ChessPosition from = next.getTeamTurn() == ChessGame.TeamColor.WHITE
+                ? new ChessPosition(2, 5) : new ChessPosition(7, 5);
+        ChessPosition to = next.getTeamTurn() == ChessGame.TeamColor.WHITE
+                ? new ChessPosition(4, 5) : new ChessPosition(5, 5);
+        next.makeMove(new ChessMove(from, to, null));
+        return next;
+    }
+
+    private static GameData find(Collection<GameData> listing, int gameID) {
+        return listing.stream().filter(game -> game.gameID() == gameID).findFirst()
+                .orElseThrow(() -> new AssertionError("Game " + gameID + " missing from the listing"));
+    }
+
+    /** Memory store whose batch writes can be held open, and made to fail. */
+    static class GatedGameDAO extends MemoryGameDAO {
+        volatile CountDownLatch entered = new CountDownLatch(0);
+        volatile CountDownLatch release = new CountDownLatch(0);
+        volatile int failures;
+
+        /** Holds the next batch write until {@link #release} is counted down. */
+        void gate() {
+            entered = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public void updateGameStates(Collection<GameData> games) throws DataAccessException {
+            entered.countDown();
+            try {
+                if (!release.await(5, TimeUnit.SECONDS)) {
+                    throw new DataAccessException("gate was never released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DataAccessException("interrupted");
+            }
+            if (failures > 0) {
+                failures--;
+                throw new DataAccessException("store unavailable");
+            }
+            super.updateGameStates(games);
+        }
+    }
+}
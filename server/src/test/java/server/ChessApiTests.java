@@ -0,0 +1,95 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import dataAccess.*;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+
+public class ChessApiTests {
+    private static final Gson GSON = new Gson();
+
+    private ChessApi api;
+    private String token;
+    private String gameID;
+
+    @BeforeEach
+    public void setUp() {
+        VersionedGameDAO games = new VersionedGameDAO(new MemoryGameDAO());
+        api = new ChessApi(DataAccess.of(new MemoryUserDAO(), new MemoryAuthDAO(), games), games);
+        ApiResponse registered = api.register("{\"username\":\"alice\",\"password\":\"pw\",\"email\":\"a@a\"}");
+        token = json(registered).get("authToken").getAsString();
+        gameID = json(api.createGame(token, "{\"gameName\":\"game\"}")).get("gameID").getAsString();
+    }
+
+    @Test
+    @DisplayName("Current Tag Gets 304 Without A Body")
+    public void currentTagGets304WithoutABody() {
+        ApiResponse first = api.getGame(token, gameID, null);
+        Assertions.assertEquals(200, first.status());
+        Assertions.assertNotNull(first.etag(), "Game response was not tagged");
+
+        ApiResponse again = api.getGame(token, gameID, first.etag());
+        Assertions.assertEquals(304, again.status());
+        Assertions.assertEquals(0, again.body().length, "304 carried a body");
+        Assertions.assertEquals(first.etag(), again.etag());
+    }
+
+    @Test
+    @DisplayName("Change Invalidates Tag")
+    public void changeInvalidatesTag() {
+        String gameTag = api.getGame(token, gameID, null).etag();
+        String listTag = api.listGames(token, null).etag();
+        ApiResponse joined = api.joinGame(token, "{\"gameID\":" + gameID + ",\"playerColor\":\"WHITE\"}");
+        Assertions.assertEquals(200, joined.status());
+
+        ApiResponse game = api.getGame(token, gameID, gameTag);
+        Assertions.assertEquals(200, game.status(), "Changed game was answered with 304");
+        Assertions.assertNotEquals(gameTag, game.etag());
+        Assertions.assertEquals("alice", json(game).get("whiteUsername").getAsString());
+        Assertions.assertEquals(200, api.listGames(token, listTag).status(), "Changed list was answered with 304");
+    }
+
+    @Test
+    @DisplayName("304 Still Requires Authorization")
+    public void notModifiedStillRequiresAuthorization() {
+        String gameTag = api.getGame(token, gameID, null).etag();
+        String listTag = api.listGames(token, null).etag();
+        Assertions.assertEquals(401, api.getGame("bogus", gameID, gameTag).status());
+        Assertions.assertEquals(401, api.listGames("bogus", listTag).status());
+    }
+
+    @Test
+    @DisplayName("Weak And Listed Tags Match")
+    public void weakAndListedTagsMatch() {
+        String etag = "\"v-7\"";
+        Assertions.assertEquals(etag, ChessApi.matchingTag(etag, etag));
+        Assertions.assertEquals(etag, ChessApi.matchingTag("W/" + etag, etag), "Weak form did not match");
+        Assertions.assertEquals(etag, ChessApi.matchingTag("\"v-5\", " + etag + " , \"v-6\"", etag),
+                "Tag inside a list did not match");
+        Assertions.assertEquals(etag, ChessApi.matchingTag("\"v-5\",W/" + etag, etag), "Weak tag inside a list did not match");
+        Assertions.assertEquals("\"v-7-gzip\"", ChessApi.matchingTag("W/\"v-7-gzip\"", etag));
+        Assertions.assertNull(ChessApi.matchingTag("\"v-6\", \"v-8\"", etag));
+        Assertions.assertNull(ChessApi.matchingTag("\"v-7-brotli\"", etag), "Unknown coding suffix matched");
+        Assertions.assertNull(ChessApi.matchingTag(null, etag));
+        Assertions.assertNull(ChessApi.matchingTag(etag, null), "Matched though responses are untagged");
+    }
+
+    @Test
+    @DisplayName("Compressed Tag Revalidates As Itself")
+    public void compressedTagRevalidatesAsItself() {
+        String etag = api.getGame(token, gameID, null).etag();
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            String encodedTag = encoding.tag(etag);
+            Assertions.assertNotEquals(etag, encodedTag, encoding + " body shares the identity body's tag");
+            ApiResponse revalidated = api.getGame(token, gameID, encodedTag);
+            Assertions.assertEquals(304, revalidated.status(), "Tag of the " + encoding + " body did not match");
+            Assertions.assertEquals(encodedTag, revalidated.etag(), "304 named a different representation");
+        }
+    }
+
+    private static JsonObject json(ApiResponse response) {
+        return GSON.fromJson(new String(response.body(), StandardCharsets.UTF_8), JsonObject.class);
+    }
+}
@@ -0,0 +1,99 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import dataAccess.*;
+import org.junit.jupiter.api.*;
+import server.cluster.InProcessGameEventBus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ClusterNodeTests {
+    private static final ServerOptions OPTIONS = new ServerOptions(false, 0, 1000, 1024, 256);
+    private static final Gson GSON = new Gson();
+
+    @Test
+    @DisplayName("Cluster Node Refuses Cached Games")
+    public void clusterNodeRefusesCachedGames() {
+        InProcessGameEventBus.Network network = new InProcessGameEventBus.Network(List.of("a", "b"));
+        try (WriteBehindGameDAO cached = new WriteBehindGameDAO(new MemoryGameDAO())) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new Server(OPTIONS,
+                    new MemoryUserDAO(), new MemoryAuthDAO(), cached, network.node("a")));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new Server(OPTIONS,
+                    new MemoryUserDAO(), new MemoryAuthDAO(), new VersionedGameDAO(cached), network.node("a")),
+                    "A decorator hid the cache from the check");
+            Assertions.assertDoesNotThrow(() -> new Server(OPTIONS,
+                    new MemoryUserDAO(), new MemoryAuthDAO(), cached, InProcessGameEventBus.standalone()),
+                    "A lone server may cache its games");
+        }
+    }
+
+    @Test
+    @DisplayName("Joins On Different Nodes Cannot Share A Seat")
+    public void joinsOnDifferentNodesCannotShareASeat() throws Exception {
+        InProcessGameEventBus.Network network = new InProcessGameEventBus.Network(List.of("a", "b"));
+        UserDAO users = new MemoryUserDAO();
+        AuthDAO auth = new MemoryAuthDAO();
+        GameDAO games = new MemoryGameDAO();
+        List<ChessApi> nodes = List.of(
+                new Server(OPTIONS, users, auth, games, network.node("a")).api(),
+                new Server(OPTIONS, users, auth, games, network.node("b")).api());
+
+        int players = 16;
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            ApiResponse registered = nodes.get(i % 2).register(
+                    "{\"username\":\"player" + i + "\",\"password\":\"pw\",\"email\":\"p@p\"}");
+            Assertions.assertEquals(200, registered.status(), body(registered));
+            tokens.add(json(registered).get("authToken").getAsString());
+        }
+        ApiResponse created = nodes.get(0).createGame(tokens.get(0), "{\"gameName\":\"contested\"}");
+        int gameID = json(created).get("gameID").getAsInt();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ApiResponse>> joins = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(players)) {
+            for (int i = 0; i < players; i++) {
+                ChessApi node = nodes.get(i % 2);
+                String token = tokens.get(i);
+                joins.add(threads.submit(() -> {
+                    start.await();
+                    return node.joinGame(token, "{\"gameID\":" + gameID + ",\"playerColor\":\"WHITE\"}");
+                }));
+            }
+            start.countDown();
+            int joined = 0;
+            for (Future<ApiResponse> join : joins) {
+                ApiResponse response = join.get();
+                if (response.status() == 200) {
+                    joined++;
+                } else {
+                    Assertions.assertEquals(403, response.status(), body(response));
+                }
+            }
+            Assertions.assertEquals(1, joined, "White was given to more than one player across the nodes");
+        }
+
+        String white = games.getGame(gameID).whiteUsername();
+        Assertions.assertNotNull(white, "Nobody got the seat");
+        for (ChessApi node : nodes) {
+            ApiResponse game = node.getGame(tokens.get(0), String.valueOf(gameID), null);
+            Assertions.assertEquals(white, json(game).get("whiteUsername").getAsString(),
+                    "A node reports a different white player from the store");
+        }
+    }
+
+    private static String body(ApiResponse response) {
+        return new String(response.body(), StandardCharsets.UTF_8);
+    }
+
+    private static JsonObject json(ApiResponse response) {
+        return GSON.fromJson(body(response), JsonObject.class);
+    }
+}
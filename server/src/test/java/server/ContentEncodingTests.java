@@ -0,0 +1,75 @@
+package server;
+
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+public class ContentEncodingTests {
+
+    @Test
+    @DisplayName("Negotiates By Quality")
+    public void negotiatesByQuality() {
+        Assertions.assertNull(ContentEncoding.negotiate(null));
+        Assertions.assertNull(ContentEncoding.negotiate(""));
+        Assertions.assertNull(ContentEncoding.negotiate("identity"));
+        Assertions.assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip"));
+        Assertions.assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("x-gzip"));
+        Assertions.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("deflate"));
+        Assertions.assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("deflate, gzip"), "Tie did not go to gzip");
+        Assertions.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0.5, deflate"));
+        Assertions.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("br, deflate;q=0.1"));
+    }
+
+    @Test
+    @DisplayName("Zero Quality Refuses A Coding")
+    public void zeroQualityRefusesACoding() {
+        Assertions.assertNull(ContentEncoding.negotiate("gzip;q=0"));
+        Assertions.assertNull(ContentEncoding.negotiate("gzip;q=0.0, deflate;q=0"));
+        Assertions.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0, deflate"));
+        Assertions.assertNull(ContentEncoding.negotiate("gzip;q=nonsense"), "Unreadable quality was not treated as 0");
+    }
+
+    @Test
+    @DisplayName("Wildcard Stands For Unlisted Gzip")
+    public void wildcardStandsForUnlistedGzip() {
+        Assertions.assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*"));
+        Assertions.assertNull(ContentEncoding.negotiate("*;q=0"));
+        Assertions.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("deflate, *;q=0.5"));
+        Assertions.assertNull(ContentEncoding.negotiate("gzip;q=0, *"), "Wildcard overrode a refused gzip");
+        Assertions.assertNull(ContentEncoding.negotiate("GZIP;q=0, *"), "Wildcard overrode a refused GZIP");
+    }
+
+    @Test
+    @DisplayName("Encoded Bodies Decode")
+    public void encodedBodiesDecode() throws IOException {
+        byte[] body = "{\"games\":[]}".repeat(200).getBytes(StandardCharsets.UTF_8);
+        byte[] gzip = ContentEncoding.GZIP.encode(body, Deflater.BEST_COMPRESSION);
+        byte[] deflate = ContentEncoding.DEFLATE.encode(body, Deflater.DEFAULT_COMPRESSION);
+        Assertions.assertArrayEquals(body, readAll(new GZIPInputStream(new ByteArrayInputStream(gzip))));
+        Assertions.assertArrayEquals(body, readAll(new InflaterInputStream(new ByteArrayInputStream(deflate))));
+        Assertions.assertTrue(gzip.length < body.length && deflate.length < body.length, "Body did not shrink");
+    }
+
+    @Test
+    @DisplayName("Coding Tags Round Trip")
+    public void codingTagsRoundTrip() {
+        String etag = "\"abc-game-1-12\"";
+        Assertions.assertEquals("\"abc-game-1-12-gzip\"", ContentEncoding.GZIP.tag(etag));
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            Assertions.assertEquals(etag, ContentEncoding.untag(encoding.tag(etag)));
+        }
+        Assertions.assertEquals(etag, ContentEncoding.untag(etag), "Untagged tag was changed");
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package server;
+
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PayloadCacheTests {
+
+    @Test
+    @DisplayName("Least Recently Used Body Is Dropped")
+    public void leastRecentlyUsedBodyIsDropped() {
+        PayloadCache cache = new PayloadCache(100);
+        cache.put("a", new byte[40]);
+        cache.put("b", new byte[40]);
+        cache.get("a");
+        cache.put("c", new byte[40]);
+        Assertions.assertNull(cache.get("b"), "Dropped the recently used body instead of the least");
+        Assertions.assertNotNull(cache.get("a"));
+        Assertions.assertNotNull(cache.get("c"));
+        Assertions.assertEquals(80, cache.bytes());
+    }
+
+    @Test
+    @DisplayName("Replacing A Body Counts Only The New One")
+    public void replacingABodyCountsOnlyTheNewOne() {
+        PayloadCache cache = new PayloadCache(100);
+        cache.put("a", new byte[30]);
+        cache.put("a", new byte[50]);
+        Assertions.assertEquals(50, cache.bytes());
+        cache.put("a", new byte[10]);
+        Assertions.assertEquals(10, cache.bytes());
+    }
+
+    @Test
+    @DisplayName("Oversized Body Is Not Cached")
+    public void oversizedBodyIsNotCached() {
+        PayloadCache cache = new PayloadCache(100);
+        cache.put("a", new byte[60]);
+        cache.put("huge", new byte[101]);
+        Assertions.assertNull(cache.get("huge"));
+        Assertions.assertNotNull(cache.get("a"), "Oversized body pushed out a smaller one");
+        Assertions.assertEquals(60, cache.bytes());
+    }
+
+    @Test
+    @DisplayName("Many Bodies Stay Under The Limit")
+    public void manyBodiesStayUnderTheLimit() {
+        PayloadCache cache = new PayloadCache(1000);
+        long expected = 0;
+        for (int i = 0; i < 500; i++) {
+            cache.put("k" + i, new byte[1 + i % 97]);
+        }
+        for (int i = 0; i < 500; i++) {
+            byte[] body = cache.get("k" + i);
+            expected += body == null ? 0 : body.length;
+        }
+        Assertions.assertTrue(cache.bytes() <= 1000, "Holding " + cache.bytes() + " bytes");
+        Assertions.assertEquals(expected, cache.bytes(), "Byte count does not match the bodies held");
+    }
+
+    @Test
+    @DisplayName("Miss Encodes Once")
+    public void missEncodesOnce() {
+        PayloadCache cache = new PayloadCache(100);
+        AtomicInteger encodes = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            cache.get("a", () -> {
+                encodes.incrementAndGet();
+                return new byte[10];
+            });
+        }
+        Assertions.assertEquals(1, encodes.get());
+        Assertions.assertEquals(1, cache.misses());
+        Assertions.assertEquals(2, cache.hits());
+    }
+}
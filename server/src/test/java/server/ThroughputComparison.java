@@ -0,0 +1,106 @@
+package server;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Side-by-side throughput comparison of the Spark {@link Server} and the {@link LightweightServer}.
+ * Not a unit test: run it with
+ * {@code mvn -pl server exec:java -Dexec.mainClass=server.ThroughputComparison -Dexec.classpathScope=test}.
+ * Each server gets the same data set and the same keep-alive client load of authenticated
+ * {@code GET /game} and {@code POST /session} requests, and the requests per second are printed.
+ * Arguments: [clients] [requestsPerClient] [games], defaulting to 32, 500 and 10.
+ */
+public class ThroughputComparison {
+    private static final Pattern AUTH_TOKEN = Pattern.compile("\"authToken\":\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        Server spark = new Server(new ServerOptions(false, 0, 1000, 1024, 256));
+        int sparkPort = spark.run(0);
+        LightweightServer lightweight = new LightweightServer(new ServerOptions(true, 0, 1000, 1024, 256));
+        int lightweightPort = lightweight.run(0);
+        try {
+            for (int round = 0; round < 2; round++) {
+                // The first round warms up both servers and the JIT, the second is the one to read
+                String label = round == 0 ? "warm-up" : "measured";
+                run("spark/jetty", sparkPort, clients, requestsPerClient, games, label);
+                run("jdk httpserver", lightweightPort, clients, requestsPerClient, games, label);
+            }
+        } finally {
+            lightweight.stop();
+            spark.stop();
+        }
+    }
+
+    private static void run(String name, int port, int clients, int requestsPerClient, int games, String label)
+            throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String base = "http://localhost:" + port;
+        send(client, HttpRequest.newBuilder(URI.create(base + "/db")).DELETE().build());
+        String login = "{\"username\":\"bench\",\"password\":\"bench\"}";
+        String registered = send(client, HttpRequest.newBuilder(URI.create(base + "/user"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"bench\",\"password\":\"bench\",\"email\":\"b@b\"}"))
+                .build()).body();
+        Matcher matcher = AUTH_TOKEN.matcher(registered);
+        if (!matcher.find()) {
+            throw new IllegalStateException(name + " did not register: " + registered);
+        }
+        String authToken = matcher.group(1);
+        for (int i = 0; i < games; i++) {
+            send(client, HttpRequest.newBuilder(URI.create(base + "/game"))
+                    .header("Authorization", authToken)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"gameName\":\"game" + i + "\"}"))
+                    .build());
+        }
+
+        HttpRequest listGames = HttpRequest.newBuilder(URI.create(base + "/game"))
+                .header("Authorization", authToken).GET().build();
+        HttpRequest session = HttpRequest.newBuilder(URI.create(base + "/session"))
+                .POST(HttpRequest.BodyPublishers.ofString(login)).build();
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(clients)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        HttpResponse<String> response = send(client, i % 4 == 0 ? session : listGames);
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int total = clients * requestsPerClient;
+        System.out.printf("%-9s %-15s %8d requests in %6.2fs  %10.0f req/s  %d failures%n",
+                label, name, total, seconds, total / seconds, failures.get());
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,119 @@
+package server.cluster;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class SocketGameEventBusTests {
+    private final BlockingQueue<GameEvent> receivedByB = new LinkedBlockingQueue<>();
+    private Map<String, InetSocketAddress> addresses;
+    private SocketGameEventBus a;
+    private SocketGameEventBus b;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        addresses = new LinkedHashMap<>();
+        addresses.put("a", loopbackAddress());
+        addresses.put("b", loopbackAddress());
+        a = new SocketGameEventBus("a", addresses);
+        a.start(event -> {
+        });
+        b = startB();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        a.close();
+        b.close();
+    }
+
+    @Test
+    @DisplayName("Events Reach A Peer In The Order Each Sender Sent Them")
+    public void eventsReachAPeerInTheOrderEachSenderSentThem() throws Exception {
+        int senders = 4;
+        int events = 500;
+        List<Future<?>> sending = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(senders)) {
+            for (int s = 0; s < senders; s++) {
+                int sender = s;
+                sending.add(threads.submit(() -> {
+                    for (int i = 0; i < events; i++) {
+                        // Direct sends and broadcasts share the one connection to the peer
+                        String payload = sender + ":" + i;
+                        if (i % 2 == 0) {
+                            a.send("b", GameEvent.deliver("b", "session", payload));
+                        } else {
+                            a.publish(GameEvent.broadcast(1, payload, null, null));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : sending) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        Map<Integer, Integer> next = new HashMap<>();
+        for (int received = 0; received < senders * events; received++) {
+            GameEvent event = receivedByB.poll(10, TimeUnit.SECONDS);
+            Assertions.assertNotNull(event, "Only " + received + " events arrived");
+            String[] parts = event.payload().split(":");
+            int sender = Integer.parseInt(parts[0]);
+            int expected = next.getOrDefault(sender, 0);
+            Assertions.assertEquals(expected, Integer.parseInt(parts[1]), "Sender " + sender + "'s events were reordered");
+            next.put(sender, expected + 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Sender Reconnects After Peer Restarts")
+    public void senderReconnectsAfterPeerRestarts() throws Exception {
+        a.send("b", GameEvent.deliver("b", "session", "before"));
+        Assertions.assertEquals("before", receivedByB.poll(10, TimeUnit.SECONDS).payload());
+
+        b.close();
+        b = startB();
+        int events = 200;
+        for (int i = 0; i < events; i++) {
+            a.send("b", GameEvent.deliver("b", "session", String.valueOf(i)));
+        }
+
+        // Writes to the dead connection may be lost until the sender notices it is gone; none after that
+        List<Integer> received = new ArrayList<>();
+        while (received.isEmpty() || received.get(received.size() - 1) < events - 1) {
+            GameEvent event = receivedByB.poll(10, TimeUnit.SECONDS);
+            Assertions.assertNotNull(event, "Events stopped after " + received);
+            received.add(Integer.parseInt(event.payload()));
+        }
+        Assertions.assertTrue(received.get(0) < 10, "Sender took " + received.get(0) + " events to reconnect");
+        for (int i = 1; i < received.size(); i++) {
+            Assertions.assertEquals(received.get(i - 1) + 1, received.get(i), "An event was lost after reconnecting");
+        }
+    }
+
+    private SocketGameEventBus startB() {
+        SocketGameEventBus bus = new SocketGameEventBus("b", addresses);
+        bus.start(receivedByB::add);
+        return bus;
+    }
+
+    private static InetSocketAddress loopbackAddress() throws IOException {
+        try (ServerSocket probe = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), probe.getLocalPort());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package server.websocket;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameActorsTests {
+    private ExecutorService executor;
+    private GameActors actors;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        actors = new GameActors(executor, 1_000_000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Failing Command Does Not Stall Game")
+    public void failingCommandDoesNotStallGame() throws Exception {
+        CountDownLatch ran = new CountDownLatch(1);
+        Assertions.assertTrue(actors.post(1, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        Assertions.assertTrue(actors.post(1, ran::countDown));
+        Assertions.assertTrue(ran.await(5, TimeUnit.SECONDS), "Command after a failing one never ran");
+        awaitIdle(1);
+    }
+
+    @Test
+    @DisplayName("Idle Mailboxes Are Removed While Commands Stay Serial")
+    public void idleMailboxesAreRemovedWhileCommandsStaySerial() throws Exception {
+        int posters = 8;
+        int commands = 20_000;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(posters)) {
+            for (int p = 0; p < posters; p++) {
+                results.add(threads.submit(() -> {
+                    for (int i = 0; i < commands; i++) {
+                        // Short bursts, so the mailbox keeps draining empty and being replaced
+                        Assertions.assertTrue(actors.post(7, () -> {
+                            if (running.incrementAndGet() != 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            running.decrementAndGet();
+                            done.incrementAndGet();
+                        }));
+                        if (i % 16 == 0) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        }
+        awaitIdle(7);
+        Assertions.assertEquals(posters * commands, done.get(), "Commands were lost");
+        Assertions.assertEquals(0, overlaps.get(), "Two commands for one game ran at once");
+    }
+
+    private void awaitIdle(int gameID) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (actors.isActive(gameID)) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "Mailbox was never removed");
+            Thread.onSpinWait();
+        }
+    }
+}
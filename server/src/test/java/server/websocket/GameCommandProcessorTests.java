@@ -0,0 +1,112 @@
+package server.websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import dataAccess.DataAccessException;
+import dataAccess.MemoryAuthDAO;
+import dataAccess.MemoryGameDAO;
+import org.junit.jupiter.api.*;
+import server.cluster.GameEvent;
+import server.cluster.InProcessGameEventBus;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class GameCommandProcessorTests {
+    private final Gson gson = new Gson();
+    private final List<GameEvent> sent = new CopyOnWriteArrayList<>();
+    private FailingGameDAO games;
+    private GameActors actors;
+    private GameCommandProcessor processor;
+    private String token;
+    private int gameID;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        MemoryAuthDAO auth = new MemoryAuthDAO();
+        games = new FailingGameDAO();
+        InProcessGameEventBus bus = InProcessGameEventBus.standalone();
+        bus.start(sent::add);
+        // Commands run on the posting thread, so each reply is in by the time accept returns
+        actors = new GameActors(Runnable::run, 16);
+        processor = new GameCommandProcessor(auth, games, actors, bus);
+        token = auth.createAuthToken("alice").authToken();
+        gameID = games.createGame("game").gameID();
+        games.claimSeat(gameID, ChessGame.TeamColor.WHITE, "alice");
+    }
+
+    @Test
+    @DisplayName("Move Off The Board Is A Bad Request")
+    public void moveOffTheBoardIsABadRequest() throws Exception {
+        List<ChessMove> offBoard = List.of(
+                new ChessMove(new ChessPosition(0, 5), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(9, 5), null),
+                new ChessMove(new ChessPosition(2, -1), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 42), null));
+        for (ChessMove move : offBoard) {
+            sent.clear();
+            processor.accept(GameEvent.command(gameID, "local", "session",
+                    gson.toJson(new MakeMoveCommand(token, gameID, move))));
+            Assertions.assertEquals(1, sent.size(), "Expected exactly one reply to " + move);
+            GameEvent reply = sent.get(0);
+            Assertions.assertEquals(GameEvent.Kind.DELIVER, reply.kind());
+            Assertions.assertTrue(reply.payload().contains("\"ERROR\"") && reply.payload().contains("bad request"),
+                    "Expected a bad request error, got " + reply.payload());
+        }
+        Assertions.assertEquals(new ChessGame(), games.getGame(gameID).game(), "A move off the board changed the game");
+    }
+
+    @Test
+    @DisplayName("Move On The Board Is Applied")
+    public void moveOnTheBoardIsApplied() throws Exception {
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        processor.accept(GameEvent.command(gameID, "local", "session",
+                gson.toJson(new MakeMoveCommand(token, gameID, move))));
+        Assertions.assertTrue(sent.stream().anyMatch(event -> event.kind() == GameEvent.Kind.MOVE),
+                "Legal move was not broadcast");
+        Assertions.assertNotEquals(new ChessGame(), games.getGame(gameID).game(), "Legal move was not saved");
+    }
+
+    @Test
+    @DisplayName("Unexpected Failure Is Reported To Sender")
+    public void unexpectedFailureIsReportedToSender() {
+        games.failure = new IllegalStateException("corrupt game");
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        processor.accept(GameEvent.command(gameID, "local", "session",
+                gson.toJson(new MakeMoveCommand(token, gameID, move))));
+        Assertions.assertTrue(sent.stream().anyMatch(event -> event.kind() == GameEvent.Kind.DELIVER
+                        && event.payload().contains("\"ERROR\"")),
+                "Sender was not told the command failed");
+        Assertions.assertFalse(actors.isActive(gameID), "Mailbox outlived its last command");
+    }
+
+    @Test
+    @DisplayName("Unknown Game Gets No Mailbox")
+    public void unknownGameGetsNoMailbox() {
+        for (int unknown = 1000; unknown < 1100; unknown++) {
+            sent.clear();
+            processor.accept(GameEvent.command(unknown, "local", "session", gson.toJson(
+                    new UserGameCommand(UserGameCommand.CommandType.RESYNC, token, unknown))));
+            Assertions.assertFalse(actors.isActive(unknown), "Made a mailbox for unknown game " + unknown);
+            Assertions.assertEquals(1, sent.size());
+            Assertions.assertTrue(sent.get(0).payload().contains("Game not found"), sent.get(0).payload());
+        }
+    }
+
+    /** Memory store that can be made to fail a move with an unexpected exception. */
+    static class FailingGameDAO extends MemoryGameDAO {
+        volatile RuntimeException failure;
+
+        @Override
+        public void updateGameState(int gameID, ChessGame game) throws DataAccessException {
+            if (failure != null) {
+                throw failure;
+            }
+            super.updateGameState(gameID, game);
+        }
+    }
+}
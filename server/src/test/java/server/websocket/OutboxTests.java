@@ -0,0 +1,108 @@
+package server.websocket;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OutboxTests {
+    private StubSession session;
+    private OutboundStats.Counters counters;
+
+    @BeforeEach
+    public void setUp() {
+        session = new StubSession();
+        counters = new OutboundStats.Counters();
+    }
+
+    @Test
+    @DisplayName("Newer Snapshot Replaces Queued One")
+    public void newerSnapshotReplacesQueuedOne() {
+        Outbox outbox = new Outbox(session.proxy, 8, counters);
+        outbox.offer(EncodedMessage.ofJson("notification 1", false));
+        outbox.offer(EncodedMessage.ofJson("snapshot 1", true));
+        outbox.offer(EncodedMessage.ofJson("notification 2", false));
+        outbox.offer(EncodedMessage.ofJson("snapshot 2", true));
+        Assertions.assertEquals(2, outbox.depth(), "Older snapshot is still queued");
+        Assertions.assertEquals(1, counters.coalesced.sum());
+
+        session.completeAll(outbox);
+        // The state goes after the notification queued since the snapshot it replaced
+        Assertions.assertEquals(List.of("notification 1", "notification 2", "snapshot 2"), session.sent);
+        Assertions.assertEquals(0, counters.queued.sum(), "Queue gauge did not return to zero");
+    }
+
+    @Test
+    @DisplayName("Snapshots Alone Never Overflow")
+    public void snapshotsAloneNeverOverflow() {
+        Outbox outbox = new Outbox(session.proxy, 1, counters);
+        for (int i = 0; i < 100; i++) {
+            outbox.offer(EncodedMessage.ofJson("snapshot " + i, true));
+        }
+        Assertions.assertNull(session.closeStatus, "Client was disconnected though every snapshot replaced the last");
+        session.completeAll(outbox);
+        Assertions.assertEquals(List.of("snapshot 0", "snapshot 99"), session.sent);
+    }
+
+    @Test
+    @DisplayName("Overflowing Client Is Disconnected")
+    public void overflowingClientIsDisconnected() {
+        Outbox outbox = new Outbox(session.proxy, 2, counters);
+        for (int i = 0; i < 4; i++) {
+            outbox.offer(EncodedMessage.ofJson("notification " + i, false));
+        }
+        Assertions.assertEquals(StatusCode.POLICY_VIOLATION, session.closeStatus, "Slow client was not disconnected");
+        Assertions.assertEquals(1, counters.slowConsumersClosed.sum());
+        Assertions.assertEquals(0, outbox.depth(), "Queue was kept after disconnecting");
+        Assertions.assertEquals(0, counters.queued.sum());
+
+        outbox.offer(EncodedMessage.ofJson("late", false));
+        Assertions.assertEquals(List.of("notification 0"), session.sent, "Wrote to a disconnected client");
+        Assertions.assertEquals(4, counters.dropped.sum(), "Expected the overflowing, queued and late messages dropped");
+    }
+
+    /**
+     * A session whose writes stay in flight until the test completes them.
+     */
+    private static final class StubSession {
+        final List<String> sent = new ArrayList<>();
+        final List<WriteCallback> inFlight = new ArrayList<>();
+        Integer closeStatus;
+        boolean open = true;
+        final RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString") && args.length == 2) {
+                        sent.add((String) args[0]);
+                        inFlight.add((WriteCallback) args[1]);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        final Session proxy = (Session) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Session.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "isOpen" -> open;
+                    case "getRemote" -> remote;
+                    case "close" -> {
+                        open = false;
+                        closeStatus = args != null && args.length == 2 ? (Integer) args[0] : StatusCode.NORMAL;
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        /** Completes writes until nothing is left in flight. */
+        void completeAll(Outbox outbox) {
+            while (!inFlight.isEmpty()) {
+                inFlight.remove(0).writeSuccess();
+            }
+            Assertions.assertEquals(0, outbox.depth());
+        }
+    }
+}
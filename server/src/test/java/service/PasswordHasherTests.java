@@ -0,0 +1,97 @@
+package service;
+
+import dataAccess.DataAccessException;
+import org.junit.jupiter.api.*;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class PasswordHasherTests {
+    /** More hashes than the hasher samples before it may change the cost. */
+    private static final int HASHES = 40;
+
+    @Test
+    @DisplayName("Impossible Target Stops At Min Cost")
+    public void impossibleTargetStopsAtMinCost() throws DataAccessException {
+        PasswordHasher hasher = new PasswordHasher(1, 16, 0, 5, 6);
+        for (int i = 0; i < HASHES; i++) {
+            assertCostWithin(hasher.hash("password"), 5, 6);
+        }
+        Assertions.assertEquals(5, hasher.cost(), "Cost did not fall to the minimum");
+    }
+
+    @Test
+    @DisplayName("Generous Target Stops At Max Cost")
+    public void generousTargetStopsAtMaxCost() throws DataAccessException {
+        PasswordHasher hasher = new PasswordHasher(1, 16, TimeUnit.MINUTES.toMillis(1), 4, 5);
+        for (int i = 0; i < HASHES; i++) {
+            assertCostWithin(hasher.hash("password"), 4, 5);
+        }
+        Assertions.assertEquals(5, hasher.cost(), "Cost did not rise to the maximum");
+    }
+
+    @Test
+    @DisplayName("Full Queue Answers Server Busy")
+    public void fullQueueAnswersServerBusy() throws Exception {
+        // One thread and one queue slot; each hash takes long enough for the rest to pile up behind it
+        PasswordHasher hasher = new PasswordHasher(1, 1, 1000, 12, 12);
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                results.add(threads.submit(() -> {
+                    start.await();
+                    return hasher.hash("password");
+                }));
+            }
+            start.countDown();
+            int busy = 0;
+            for (Future<String> result : results) {
+                try {
+                    Assertions.assertTrue(BCrypt.checkpw("password", result.get(30, TimeUnit.SECONDS)));
+                } catch (ExecutionException e) {
+                    Assertions.assertEquals("server busy", e.getCause().getMessage());
+                    busy++;
+                }
+            }
+            Assertions.assertTrue(busy > 0, "No caller was turned away");
+            Assertions.assertEquals(busy, hasher.stats().rejected(), "Rejections were not counted");
+        }
+    }
+
+    @Test
+    @DisplayName("Needs Rehash For Plaintext And Lower Cost Only")
+    public void needsRehashForPlaintextAndLowerCostOnly() throws DataAccessException {
+        PasswordHasher hasher = new PasswordHasher(1, 16, 1000, 5, 5);
+        Assertions.assertTrue(hasher.needsRehash("password"), "Plaintext was not flagged");
+        Assertions.assertTrue(hasher.needsRehash(BCrypt.hashpw("password", BCrypt.gensalt(4))), "Lower cost was not flagged");
+        Assertions.assertFalse(hasher.needsRehash(hasher.hash("password")), "Current cost was flagged");
+        Assertions.assertFalse(hasher.needsRehash(BCrypt.hashpw("password", BCrypt.gensalt(6))), "Higher cost was flagged");
+        Assertions.assertFalse(hasher.needsRehash(null));
+    }
+
+    @Test
+    @DisplayName("Verifies Hashes And Legacy Plaintext")
+    public void verifiesHashesAndLegacyPlaintext() throws DataAccessException {
+        PasswordHasher hasher = new PasswordHasher(1, 16, 1000, 4, 4);
+        String hash = hasher.hash("password");
+        Assertions.assertTrue(hasher.verify("password", hash));
+        Assertions.assertFalse(hasher.verify("wrong", hash));
+        Assertions.assertTrue(hasher.verify("password", "password"));
+        Assertions.assertFalse(hasher.verify("wrong", "password"));
+        Assertions.assertFalse(hasher.verify("password", null));
+    }
+
+    private static void assertCostWithin(String hash, int min, int max) {
+        int cost = Integer.parseInt(hash.substring(4, 6));
+        Assertions.assertTrue(cost >= min && cost <= max, "Hashed at cost " + cost);
+    }
+}
@@ -0,0 +1,128 @@
+package service;
+
+import dataAccess.DataAccessException;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+public class SingleFlightTests {
+    private static final int FOLLOWERS = 20;
+
+    private SingleFlight<String, Integer> flight;
+    private ExecutorService threads;
+    private CountDownLatch firstStarted;
+    private CountDownLatch releaseFirst;
+
+    @BeforeEach
+    public void setUp() {
+        flight = new SingleFlight<>(1);
+        threads = Executors.newVirtualThreadPerTaskExecutor();
+        firstStarted = new CountDownLatch(1);
+        releaseFirst = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseFirst.countDown();
+        threads.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Followers Share One Queued Load")
+    public void followersShareOneQueuedLoad() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        SingleFlight.Loader<Integer> load = () -> {
+            int read = reads.incrementAndGet();
+            if (read == 1) {
+                held();
+            }
+            return read;
+        };
+
+        Future<Integer> leader = threads.submit(() -> flight.load("game", load));
+        Assertions.assertTrue(firstStarted.await(5, TimeUnit.SECONDS), "First load never started");
+        List<Future<Integer>> followers = startFollowers(load);
+
+        Assertions.assertEquals(1, leader.get(5, TimeUnit.SECONDS), "Leader did not get its own load");
+        for (Future<Integer> follower : followers) {
+            // Arrived after the first load started, so must not be handed what it read
+            Assertions.assertEquals(2, follower.get(5, TimeUnit.SECONDS), "Follower did not get the queued load");
+        }
+        Assertions.assertEquals(2, flight.loads(), "Burst was not coalesced into one follow-up load");
+        Assertions.assertEquals(2, reads.get(), "Store was read more than twice");
+
+        Assertions.assertEquals(3, flight.load("game", load), "Load after the burst reused an old result");
+    }
+
+    @Test
+    @DisplayName("Followers Share Queued Load Failure")
+    public void followersShareQueuedLoadFailure() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        SingleFlight.Loader<Integer> load = () -> {
+            int read = reads.incrementAndGet();
+            if (read == 1) {
+                held();
+                return read;
+            }
+            throw new DataAccessException("store unavailable");
+        };
+
+        Future<Integer> leader = threads.submit(() -> flight.load("game", load));
+        Assertions.assertTrue(firstStarted.await(5, TimeUnit.SECONDS), "First load never started");
+        List<Future<Integer>> followers = startFollowers(load);
+
+        Assertions.assertEquals(1, leader.get(5, TimeUnit.SECONDS), "Leader did not get its own load");
+        for (Future<Integer> follower : followers) {
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                    () -> follower.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(DataAccessException.class, e.getCause(), "Wrong failure type");
+            Assertions.assertEquals("store unavailable", e.getCause().getMessage(), "Wrong failure message");
+        }
+        Assertions.assertEquals(2, flight.loads(), "Failed load was retried per follower");
+    }
+
+    /**
+     * Starts followers while the first load is held, and waits until one has queued a load and the
+     * rest have joined it.
+     */
+    private List<Future<Integer>> startFollowers(SingleFlight.Loader<Integer> load) {
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(threads.submit(() -> flight.load("game", load)));
+        }
+        awaitTrue(() -> flight.shared() == FOLLOWERS - 1, "Followers never joined the queued load");
+        releaseFirst.countDown();
+        return followers;
+    }
+
+    private void held() throws DataAccessException {
+        firstStarted.countDown();
+        try {
+            if (!releaseFirst.await(5, TimeUnit.SECONDS)) {
+                throw new DataAccessException("first load was never released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("interrupted");
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                Assertions.fail(message);
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
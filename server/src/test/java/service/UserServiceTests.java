@@ -0,0 +1,46 @@
+package service;
+
+import dataAccess.DataAccessException;
+import dataAccess.MemoryAuthDAO;
+import dataAccess.MemoryUserDAO;
+import model.UserData;
+import org.junit.jupiter.api.*;
+import org.mindrot.jbcrypt.BCrypt;
+
+public class UserServiceTests {
+    private MemoryUserDAO users;
+    private UserService service;
+
+    @BeforeEach
+    public void setUp() {
+        users = new MemoryUserDAO();
+        service = new UserService(users, new MemoryAuthDAO(), new PasswordHasher(1, 16, 1000, 5, 5));
+    }
+
+    @Test
+    @DisplayName("Login Hashes Plaintext Password")
+    public void loginHashesPlaintextPassword() throws DataAccessException {
+        users.createUser(new UserData("alice", "password", "a@a"));
+        service.login(new UserData("alice", "password", null));
+        String stored = users.getUser("alice").password();
+        Assertions.assertTrue(stored.startsWith("$2") && BCrypt.checkpw("password", stored),
+                "Plaintext password was not replaced by a hash");
+        Assertions.assertNotNull(service.login(new UserData("alice", "password", null)), "Rehashed password stopped working");
+    }
+
+    @Test
+    @DisplayName("Login Upgrades Lower Cost Hash")
+    public void loginUpgradesLowerCostHash() throws DataAccessException {
+        users.createUser(new UserData("alice", BCrypt.hashpw("password", BCrypt.gensalt(4)), "a@a"));
+        service.login(new UserData("alice", "password", null));
+        Assertions.assertEquals("05", users.getUser("alice").password().substring(4, 6), "Hash was not upgraded");
+    }
+
+    @Test
+    @DisplayName("Failed Login Does Not Rehash")
+    public void failedLoginDoesNotRehash() throws DataAccessException {
+        users.createUser(new UserData("alice", "password", "a@a"));
+        Assertions.assertThrows(DataAccessException.class, () -> service.login(new UserData("alice", "wrong", null)));
+        Assertions.assertEquals("password", users.getUser("alice").password());
+    }
+}
@@ -0,0 +1,59 @@
+package util;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class HashRingTests {
+    private static final int KEYS = 100_000;
+
+    @Test
+    @DisplayName("Same Members Give Same Owners")
+    public void sameMembersGiveSameOwners() {
+        HashRing<String> first = HashRing.of(List.of("a", "b", "c"));
+        HashRing<String> second = HashRing.of(List.of("a", "b", "c"));
+        for (long key = 1; key <= KEYS; key++) {
+            Assertions.assertEquals(first.owner(key), second.owner(key), "Nodes disagree on the owner of " + key);
+        }
+    }
+
+    @Test
+    @DisplayName("Keys Spread Evenly")
+    public void keysSpreadEvenly() {
+        HashRing<String> ring = HashRing.of(List.of("a", "b", "c", "d"));
+        Map<String, Integer> shares = new HashMap<>();
+        for (long key = 1; key <= KEYS; key++) {
+            shares.merge(ring.owner(key), 1, Integer::sum);
+        }
+        for (String member : ring.members()) {
+            double share = shares.getOrDefault(member, 0) / (double) KEYS;
+            Assertions.assertTrue(share > 0.15 && share < 0.35, member + " owns " + share + " of the keys");
+        }
+    }
+
+    @Test
+    @DisplayName("Adding A Member Only Moves Keys To It")
+    public void addingAMemberOnlyMovesKeysToIt() {
+        HashRing<String> before = HashRing.of(List.of("a", "b", "c"));
+        HashRing<String> after = HashRing.of(List.of("a", "b", "c", "d"));
+        int moved = 0;
+        for (long key = 1; key <= KEYS; key++) {
+            String owner = after.owner(key);
+            if (!owner.equals(before.owner(key))) {
+                Assertions.assertEquals("d", owner, "Key " + key + " moved between existing members");
+                moved++;
+            }
+        }
+        double fraction = moved / (double) KEYS;
+        Assertions.assertTrue(fraction > 0.15 && fraction < 0.35,
+                "Expected about a quarter of the keys to move, got " + fraction);
+    }
+
+    @Test
+    @DisplayName("Empty Ring Is Rejected")
+    public void emptyRingIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> HashRing.of(List.of()));
+    }
+}
@@ -13,6 +13,7 @@ import java.util.Objects;
 public class ChessGame {
     private ChessBoard board;
     private TeamColor turn;
+    private boolean gameOver;
 
     @Override
     public boolean equals(Object o) {
@@ -20,12 +21,12 @@ public class ChessGame {
             return false;
         }
         ChessGame chessGame = (ChessGame) o;
-        return Objects.equals(board, chessGame.board) && turn == chessGame.turn;
+        return gameOver == chessGame.gameOver && Objects.equals(board, chessGame.board) && turn == chessGame.turn;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, turn);
+        return Objects.hash(board, turn, gameOver);
     }
 
     @Override
@@ -33,6 +34,7 @@ public class ChessGame {
         return "ChessGame{" +
                 "board=" + board +
                 ", turn=" + turn +
+                ", gameOver=" + gameOver +
                 '}';
     }
 
@@ -43,6 +45,17 @@ public class ChessGame {
 
     }
 
+    /**
+     * Creates an independent copy of another game, so moves can be tried without touching the original
+     *
+     * @param copy the game to copy
+     */
+    public ChessGame(ChessGame copy) {
+        turn = copy.turn;
+        board = new ChessBoard(copy.board);
+        gameOver = copy.gameOver;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -62,6 +75,22 @@ public class ChessGame {
         this.turn = team;
     }
 
+    /**
+     * @return true once the game has ended by checkmate, stalemate, or resignation
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Marks the game as ended or not; no more moves are accepted once it has ended
+     *
+     * @param gameOver whether the game has ended
+     */
+    public void setGameOver(boolean gameOver) {
+        this.gameOver = gameOver;
+    }
+
     /**
      * Enum identifying the 2 possible teams in a chess game
      */
@@ -303,6 +332,27 @@ public class ChessGame {
         return true;
     }
 
+    /**
+     * Hashes the position: every square and whose turn it is.
+     * Clients applying moves locally compare this against the server's hash to detect drift,
+     * so the recipe (64-bit FNV-1a over one byte per square, row 1 to 8 and column 1 to 8,
+     * then the turn byte) must stay the same on both sides
+     *
+     * @return the position hash
+     */
+    public long positionHash() {
+        long hash = 0xcbf29ce484222325L;
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                int square = piece == null ? 0
+                        : 1 + piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+                hash = (hash ^ square) * 0x100000001b3L;
+            }
+        }
+        return (hash ^ turn.ordinal()) * 0x100000001b3L;
+    }
+
     /**
      * Sets this game's chessboard with a given board
      *
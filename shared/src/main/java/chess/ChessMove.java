@@ -43,6 +43,35 @@ public class ChessMove {
         return this.promotionPiece;
     }
 
+    /**
+     * Packs this move into the low 15 bits of an int: start row, start column, end row and end column
+     * as 3 bits each (0-7), then the promotion piece as ordinal + 1, or 0 for none
+     *
+     * @return the packed move
+     */
+    public int pack() {
+        int promotion = promotionPiece == null ? 0 : promotionPiece.ordinal() + 1;
+        return (startPosition.getRow() - 1)
+                | (startPosition.getColumn() - 1) << 3
+                | (endPosition.getRow() - 1) << 6
+                | (endPosition.getColumn() - 1) << 9
+                | promotion << 12;
+    }
+
+    /**
+     * Rebuilds a move produced by {@link #pack()}
+     *
+     * @param packed the packed move
+     * @return the move
+     */
+    public static ChessMove unpack(int packed) {
+        int promotion = (packed >> 12) & 7;
+        return new ChessMove(
+                new ChessPosition((packed & 7) + 1, ((packed >> 3) & 7) + 1),
+                new ChessPosition(((packed >> 6) & 7) + 1, ((packed >> 9) & 7) + 1),
+                promotion == 0 ? null : ChessPiece.PieceType.values()[promotion - 1]);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
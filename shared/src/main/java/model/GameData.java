@@ -4,4 +4,26 @@ import chess.ChessGame;
 
 public record GameData(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game){
 
-}
\ No newline at end of file
+    /**
+     * Returns the username seated as the given color, or null if the seat is empty.
+     */
+    public String username(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? whiteUsername : blackUsername;
+    }
+
+    /**
+     * Returns a copy of this game with the given player seated as the given color.
+     */
+    public GameData withPlayer(ChessGame.TeamColor color, String username) {
+        return color == ChessGame.TeamColor.WHITE
+                ? new GameData(gameID, username, blackUsername, gameName, game)
+                : new GameData(gameID, whiteUsername, username, gameName, game);
+    }
+
+    /**
+     * Returns a copy of this game with the given chess game state.
+     */
+    public GameData withGame(ChessGame game) {
+        return new GameData(gameID, whiteUsername, blackUsername, gameName, game);
+    }
+}
@@ -0,0 +1,34 @@
+package websocket.commands;
+
+import java.util.Objects;
+
+/**
+ * A CONNECT command that can opt in to MOVE_APPLIED deltas instead of a LOAD_GAME after every move
+ */
+public class ConnectCommand extends UserGameCommand {
+
+    private final boolean deltaUpdates;
+
+    public ConnectCommand(String authToken, Integer gameID, boolean deltaUpdates) {
+        super(CommandType.CONNECT, authToken, gameID);
+        this.deltaUpdates = deltaUpdates;
+    }
+
+    public boolean isDeltaUpdates() {
+        return deltaUpdates;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o) || !(o instanceof ConnectCommand)) {
+            return false;
+        }
+        ConnectCommand that = (ConnectCommand) o;
+        return isDeltaUpdates() == that.isDeltaUpdates();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), isDeltaUpdates());
+    }
+}
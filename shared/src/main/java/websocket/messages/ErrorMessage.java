@@ -0,0 +1,18 @@
+package websocket.messages;
+
+/**
+ * Tells a client that its command was rejected, and why
+ */
+public class ErrorMessage extends ServerMessage {
+
+    private final String errorMessage;
+
+    public ErrorMessage(String errorMessage) {
+        super(ServerMessageType.ERROR);
+        this.errorMessage = errorMessage;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,37 @@
+package websocket.messages;
+
+import chess.ChessGame;
+
+/**
+ * Tells a client to redraw the board with the current state of the game
+ */
+public class LoadGameMessage extends ServerMessage {
+
+    private final ChessGame game;
+    private final Long sequence;
+
+    public LoadGameMessage(ChessGame game) {
+        this(game, null);
+    }
+
+    /**
+     * @param game     the current game
+     * @param sequence the sequence number of the last move applied to it, for delta clients
+     */
+    public LoadGameMessage(ChessGame game, Long sequence) {
+        super(ServerMessageType.LOAD_GAME);
+        this.game = game;
+        this.sequence = sequence;
+    }
+
+    public ChessGame getGame() {
+        return game;
+    }
+
+    /**
+     * @return the sequence number the next MOVE_APPLIED follows, or null if not tracked
+     */
+    public Long getSequence() {
+        return sequence;
+    }
+}
@@ -0,0 +1,35 @@
+package websocket.messages;
+
+/**
+ * Tells a client that subscribed to deltas which move was just made, instead of sending the whole game.
+ * The client applies the move itself, then checks the sequence follows the last one it saw and the
+ * position hash matches {@link chess.ChessGame#positionHash()}; if either is off it sends RESYNC
+ */
+public class MoveAppliedMessage extends ServerMessage {
+
+    private final int move;
+    private final long positionHash;
+    private final long sequence;
+
+    public MoveAppliedMessage(int move, long positionHash, long sequence) {
+        super(ServerMessageType.MOVE_APPLIED);
+        this.move = move;
+        this.positionHash = positionHash;
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return the move, packed by {@link chess.ChessMove#pack()}
+     */
+    public int getMove() {
+        return move;
+    }
+
+    public long getPositionHash() {
+        return positionHash;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+}
@@ -0,0 +1,47 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class ChessMoveTests {
+
+    @Test
+    @DisplayName("Every Move Survives Packing")
+    public void everyMoveSurvivesPacking() {
+        Set<Integer> seen = new HashSet<>();
+        for (ChessPiece.PieceType promotion : promotions()) {
+            for (int from = 0; from < 64; from++) {
+                for (int to = 0; to < 64; to++) {
+                    ChessMove move = new ChessMove(new ChessPosition(from / 8 + 1, from % 8 + 1),
+                            new ChessPosition(to / 8 + 1, to % 8 + 1), promotion);
+                    int packed = move.pack();
+                    Assertions.assertTrue(packed >= 0 && packed < 1 << 15, move + " packed outside 15 bits");
+                    Assertions.assertTrue(seen.add(packed), move + " packed the same as another move");
+                    Assertions.assertEquals(move, ChessMove.unpack(packed), "unpacking changed " + move);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Promotion Is Kept")
+    public void promotionIsKept() {
+        ChessPosition from = new ChessPosition(7, 1);
+        ChessPosition to = new ChessPosition(8, 1);
+        for (ChessPiece.PieceType promotion : promotions()) {
+            ChessMove unpacked = ChessMove.unpack(new ChessMove(from, to, promotion).pack());
+            Assertions.assertEquals(promotion, unpacked.getPromotionPiece(), "promotion to " + promotion + " was lost");
+        }
+    }
+
+    private static ChessPiece.PieceType[] promotions() {
+        ChessPiece.PieceType[] types = ChessPiece.PieceType.values();
+        ChessPiece.PieceType[] promotions = new ChessPiece.PieceType[types.length + 1];
+        System.arraycopy(types, 0, promotions, 1, types.length);
+        return promotions;
+    }
+}
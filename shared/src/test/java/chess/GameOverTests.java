@@ -0,0 +1,34 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class GameOverTests {
+
+    @Test
+    @DisplayName("Ended Game Differs")
+    public void endedGameDiffers() {
+        ChessGame playing = new ChessGame();
+        ChessGame ended = new ChessGame();
+        ended.setGameOver(true);
+
+        // Stores compare whole games before replacing them, so a resignation must not look like no change
+        Assertions.assertNotEquals(playing, ended, "games differing only in gameOver were equal");
+        Assertions.assertNotEquals(playing.hashCode(), ended.hashCode(),
+                "games differing only in gameOver had the same hash code");
+        Assertions.assertNotEquals(playing.toString(), ended.toString(),
+                "games differing only in gameOver printed the same");
+    }
+
+    @Test
+    @DisplayName("Copy Keeps Game Over")
+    public void copyKeepsGameOver() {
+        ChessGame ended = new ChessGame();
+        ended.setGameOver(true);
+
+        ChessGame copy = new ChessGame(ended);
+        Assertions.assertEquals(ended, copy, "a copy of an ended game was not equal to it");
+        Assertions.assertTrue(copy.isGameOver(), "a copy of an ended game was not over");
+    }
+}
@@ -0,0 +1,52 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PositionHashTests {
+
+    @Test
+    @DisplayName("Starting Position Hash Is Fixed")
+    public void startingPositionHashIsFixed() {
+        // Clients compute the same hash on their side, so the recipe must never change
+        Assertions.assertEquals(0xa25e98ab29f3202bL, new ChessGame().positionHash(),
+                "the position hash recipe changed");
+    }
+
+    @Test
+    @DisplayName("Same Position By Different Moves Hashes The Same")
+    public void samePositionByDifferentMovesHashesTheSame() throws InvalidMoveException {
+        ChessGame knightsFirst = new ChessGame();
+        play(knightsFirst, 1, 2, 3, 3, 8, 2, 6, 3, 1, 7, 3, 6, 8, 7, 6, 6);
+        ChessGame kingsideFirst = new ChessGame();
+        play(kingsideFirst, 1, 7, 3, 6, 8, 7, 6, 6, 1, 2, 3, 3, 8, 2, 6, 3);
+        Assertions.assertEquals(kingsideFirst.positionHash(), knightsFirst.positionHash(),
+                "the same position reached in another order hashed differently");
+        Assertions.assertEquals(knightsFirst.positionHash(), new ChessGame(knightsFirst).positionHash(),
+                "a copy hashed differently");
+    }
+
+    @Test
+    @DisplayName("Moves And Turn Change The Hash")
+    public void movesAndTurnChangeTheHash() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        long start = game.positionHash();
+        play(game, 2, 5, 4, 5);
+        Assertions.assertNotEquals(start, game.positionHash(), "a move left the hash unchanged");
+
+        ChessGame otherTurn = new ChessGame();
+        otherTurn.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertNotEquals(start, otherTurn.positionHash(), "whose turn it is did not change the hash");
+    }
+
+    /**
+     * Plays moves given as start row, start column, end row, end column, one after another.
+     */
+    private static void play(ChessGame game, int... squares) throws InvalidMoveException {
+        for (int i = 0; i < squares.length; i += 4) {
+            game.makeMove(new ChessMove(new ChessPosition(squares[i], squares[i + 1]),
+                    new ChessPosition(squares[i + 2], squares[i + 3]), null));
+        }
+    }
+}